@@ -0,0 +1,28 @@
+package com.example.Colten.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar: runs JMH with JSON results written to jmh-result.json
+ * (or wherever -rff points) unless a result format is given on the command line, so runs
+ * can be archived and compared over time.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf")) {
+            options.add(0, "json");
+            options.add(0, "-rf");
+            if (!options.contains("-rff")) {
+                options.add(2, "jmh-result.json");
+                options.add(2, "-rff");
+            }
+        }
+        org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.Colten.benchmark;
+
+import com.example.Colten.dto.IssueResponse;
+import com.example.Colten.dto.PaymentResponse;
+import com.example.Colten.dto.UnitDTO;
+import com.example.Colten.model.Building;
+import com.example.Colten.model.IssueCategory;
+import com.example.Colten.model.IssuePriority;
+import com.example.Colten.model.IssueStatus;
+import com.example.Colten.model.Owner;
+import com.example.Colten.model.PaymentMethod;
+import com.example.Colten.model.PaymentStatus;
+import com.example.Colten.model.PaymentType;
+import com.example.Colten.model.Unit;
+import com.example.Colten.model.UnitType;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sample entities and response DTOs shaped like the rows the endpoints return, plus access to
+ * the private helpers the benchmarks measure (the benchmarks run on the plain classpath, so a
+ * private lookup is allowed).
+ */
+final class Fixtures {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 6, 1, 9, 30);
+
+    private Fixtures() {}
+
+    static MethodHandle privateMethod(Class<?> owner, String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            return MethodHandles.privateLookupIn(owner, MethodHandles.lookup())
+                .findVirtual(owner, name, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot access " + owner.getSimpleName() + "." + name, e);
+        }
+    }
+
+    static Unit unit(long id) {
+        Owner owner = new Owner("Bench", "Owner", "owner@bench.test", "unused", "Bench Properties");
+        owner.setId(1L);
+        Building building = new Building("Bench Tower", "1 Bench Street", 10, owner);
+        building.setId(1L);
+
+        Unit unit = new Unit("1" + String.format("%02d", id % 100), 1, 2, new BigDecimal("1.5"), 850,
+                new BigDecimal("1650.00"), building);
+        unit.setId(id);
+        unit.setSecurityDeposit(new BigDecimal("1650.00"));
+        unit.setDescription("Corner unit with a view over the park");
+        unit.setUnitType(UnitType.APARTMENT);
+        unit.setRoomCode("BENCH" + String.format("%03d", id % 1000));
+        unit.setLeaseStartDate(NOW.minusMonths(8));
+        unit.setLeaseEndDate(NOW.plusMonths(4));
+        unit.setCreatedAt(NOW.minusYears(2));
+        unit.setUpdatedAt(NOW);
+        return unit;
+    }
+
+    static List<UnitDTO> unitDtos(int count) {
+        List<UnitDTO> units = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            units.add(new UnitDTO(id, "1" + String.format("%02d", id % 100), 1, 2, new BigDecimal("1.5"), 850,
+                    new BigDecimal("1650.00"), new BigDecimal("1650.00"), "Corner unit with a view over the park",
+                    UnitType.APARTMENT, true, true, false, true, false, true, false, false,
+                    "BENCH" + String.format("%03d", id % 1000), NOW.minusMonths(8), NOW.plusMonths(4),
+                    NOW.minusYears(2), NOW, 1L, "Bench Tower"));
+        }
+        return units;
+    }
+
+    static List<IssueResponse> issueResponses(int count) {
+        List<IssueResponse> issues = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            IssueResponse issue = new IssueResponse(id, "Leaking tap", "The kitchen tap has been dripping since Monday",
+                    IssueCategory.PLUMBING, IssuePriority.MEDIUM, IssueStatus.IN_PROGRESS, "Kitchen", null, null,
+                    NOW.minusDays(3), NOW.minusDays(1), null, NOW.plusDays(2), 1L,
+                    100 + id, "Tia", "Tenant", "tenant" + id + "@bench.test",
+                    id, "1" + String.format("%02d", id % 100), 1L, "Bench Tower",
+                    1L, "Bench", "Owner", "owner@bench.test");
+            issue.setAttachmentUrls(List.of("https://files.bench.test/" + id + "/photo.jpg"));
+            issues.add(issue);
+        }
+        return issues;
+    }
+
+    static List<PaymentResponse> paymentResponses(int count) {
+        List<PaymentResponse> payments = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            payments.add(new PaymentResponse(id, new BigDecimal("1650.00"), PaymentType.RENT, PaymentMethod.CREDIT_CARD,
+                    PaymentStatus.COMPLETED, NOW.minusMonths(id % 12), NOW.minusMonths(id % 12),
+                    NOW.minusMonths(id % 12), "Rent payment", "pi_bench" + id, "https://pay.bench.test/receipt/" + id,
+                    "PAY-" + String.format("%08d", id), BigDecimal.ZERO, false, BigDecimal.ZERO, null,
+                    NOW.minusMonths(id % 12), NOW.minusMonths(id % 12).plusMonths(1), NOW.minusMonths(id % 12), 1L,
+                    100 + id, "Tia", "Tenant", "tenant" + id + "@bench.test",
+                    id, "1" + String.format("%02d", id % 100), 1L, "Bench Tower"));
+        }
+        return payments;
+    }
+}
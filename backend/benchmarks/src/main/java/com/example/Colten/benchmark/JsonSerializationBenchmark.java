@@ -0,0 +1,66 @@
+package com.example.Colten.benchmark;
+
+import com.example.Colten.dto.IssueResponse;
+import com.example.Colten.dto.PaymentResponse;
+import com.example.Colten.dto.UnitDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response body serialization for the list endpoints (units, issues, payments), with the
+ * ObjectMapper configured the way Spring Boot configures the one behind the controllers.
+ * Lists are typed through an ObjectWriter, as the message converter does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({ "20", "200" })
+    private int size;
+
+    private ObjectWriter unitWriter;
+    private ObjectWriter issueWriter;
+    private ObjectWriter paymentWriter;
+    private List<UnitDTO> units;
+    private List<IssueResponse> issues;
+    private List<PaymentResponse> payments;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+        unitWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, UnitDTO.class));
+        issueWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, IssueResponse.class));
+        paymentWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, PaymentResponse.class));
+
+        units = Fixtures.unitDtos(size);
+        issues = Fixtures.issueResponses(size);
+        payments = Fixtures.paymentResponses(size);
+    }
+
+    @Benchmark
+    public byte[] units() throws Exception {
+        return unitWriter.writeValueAsBytes(units);
+    }
+
+    @Benchmark
+    public byte[] issues() throws Exception {
+        return issueWriter.writeValueAsBytes(issues);
+    }
+
+    @Benchmark
+    public byte[] payments() throws Exception {
+        return paymentWriter.writeValueAsBytes(payments);
+    }
+}
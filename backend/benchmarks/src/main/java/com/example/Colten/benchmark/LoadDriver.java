@@ -0,0 +1,397 @@
+package com.example.Colten.benchmark;
+
+import com.example.Colten.ColtenApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationEnvironmentPreparedEvent;
+import org.springframework.boot.env.EnvironmentPostProcessorApplicationListener;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.CommandLinePropertySource;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-JVM load driver: boots the application on a random port with the synthetic-data profile,
+ * logs in a sample of the generated owners and tenants, and replays a weighted mix of owner
+ * dashboards, issue lists, tenant payment history, room-code validation, tenant registration
+ * and rent payments from virtual threads. Payments run against FakeStripeGateway; its
+ * app.stripe.fake.* failure rates can be raised for chaos runs. Latency is recorded per endpoint in an HdrHistogram and reported as
+ * p50/p99/p99.9 once the warmup has been discarded.
+ *
+ * Registrations use up the vacant units, so validations of their codes start being answered
+ * "not available". That 400 is the endpoint doing its job: it is reported as rejected, apart from
+ * errors. Once every vacant code is taken, registration sends nothing and records nothing.
+ *
+ * Every argument is passed to the application, so dataset sizes use app.synthetic.* and the
+ * driver itself reads load.*:
+ *   load.concurrency       concurrent clients (default 32)
+ *   load.warmup-seconds    traffic discarded before measuring (default 20)
+ *   load.duration-seconds  measured traffic (default 60)
+ *   load.rate              total requests/second; 0 runs closed-loop, as fast as responses
+ *                          come back. With a rate, latency is corrected for coordinated omission.
+ *   load.users             owners and tenants logged in to drive traffic (default 50 each)
+ *   load.output-dir        per-endpoint percentile distributions (.hgrm, default load-results)
+ *
+ * Run: java -cp benchmarks/target/benchmarks.jar com.example.Colten.benchmark.LoadDriver --load.concurrency=64
+ */
+public final class LoadDriver {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final HttpClient http = HttpClient.newBuilder()
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .connectTimeout(Duration.ofSeconds(5))
+        .build();
+    private final ObjectMapper mapper;
+    private final String baseUrl;
+    private final List<Operation> mix = new ArrayList<>();
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+    private final List<Session> owners = new ArrayList<>();
+    private final List<Session> tenants = new ArrayList<>();
+    private final List<String> roomCodes;
+    private final Queue<String> vacantRoomCodes;
+    private final AtomicLong registrations = new AtomicLong();
+    private volatile boolean measuring;
+
+    private LoadDriver(ConfigurableApplicationContext context) {
+        this.mapper = context.getBean(ObjectMapper.class);
+        this.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        int users = context.getEnvironment().getProperty("load.users", Integer.class, 50);
+        String password = context.getEnvironment().getProperty("app.synthetic.password", "password123");
+        for (Map<String, Object> row : jdbc.queryForList(
+                "SELECT u.email, MIN(b.id) AS building_id FROM users u JOIN buildings b ON b.owner_id = u.id " +
+                "WHERE u.email LIKE '%@synthetic.colten' GROUP BY u.email ORDER BY u.email LIMIT ?", users)) {
+            owners.add(new Session(login((String) row.get("email"), password), ((Number) row.get("building_id")).longValue()));
+        }
+        for (String email : jdbc.queryForList("SELECT email FROM users WHERE role = 'TENANT' " +
+                "AND email LIKE '%@synthetic.colten' ORDER BY id LIMIT ?", String.class, users)) {
+            tenants.add(new Session(login(email, password), 0));
+        }
+        roomCodes = jdbc.queryForList("SELECT room_code FROM units WHERE is_available = TRUE AND room_code IS NOT NULL",
+                String.class);
+        vacantRoomCodes = new ConcurrentLinkedQueue<>(roomCodes);
+        if (owners.isEmpty() || tenants.isEmpty() || roomCodes.isEmpty()) {
+            throw new IllegalStateException("No synthetic data to drive load against; check app.synthetic.* settings");
+        }
+
+        add("owner dashboard", 15, () -> get("/api/dashboard/owner", anyOwner().token));
+        add("owner issues", 15, () -> get("/api/issues/owner-issues", anyOwner().token));
+        add("building issues", 10, () -> {
+            Session owner = anyOwner();
+            return get("/api/issues/building/" + owner.buildingId, owner.token);
+        });
+        add("building dashboard", 5, () -> {
+            Session owner = anyOwner();
+            return get("/api/dashboard/building/" + owner.buildingId, owner.token);
+        });
+        add("tenant dashboard", 10, () -> get("/api/dashboard/tenant", anyTenant().token));
+        add("tenant issues", 10, () -> get("/api/issues/my-issues", anyTenant().token));
+        add("tenant payments", 20, () -> get("/api/payments/my-payments", anyTenant().token));
+        add("validate room code", 12, this::validateRoomCode);
+        add("tenant registration", 3, this::register);
+        add("tenant pays rent", 3, () -> post("/api/payments/process", anyTenant().token, Map.of(
+                "amount", "1200.00",
+                "paymentType", "RENT",
+                "paymentMethod", "CREDIT_CARD",
+                "stripePaymentMethodId", "pm_card_visa")));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("server.port", 0);
+        settings.put("app.synthetic.owners", 10);
+        settings.put("app.synthetic.buildings-per-owner", 10);
+        settings.put("app.synthetic.units-per-building", 20);
+        settings.put("app.synthetic.years", 2);
+        // All simulated clients share one address; keep the per-client limiter out of the measurements
+        settings.put("app.room-codes.rate-limit.burst", 1000000);
+        settings.put("app.room-codes.rate-limit.refill-seconds", 1);
+        // Payments go to the in-memory Stripe stand-in, with roughly Stripe-like latency
+        settings.put("app.stripe.gateway", "fake");
+        settings.put("app.stripe.fake.latency-ms", 200);
+        settings.put("app.stripe.fake.jitter-ms", 200);
+        settings.put("logging.level.org.hibernate.SQL", "warn");
+        // Per-request debug logging would dominate the latencies being measured
+        settings.put("logging.level.com.example.Colten", "info");
+        settings.put("logging.level.org.springframework.security", "info");
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ColtenApplication.class)
+            .profiles("synthetic-data")
+            .listeners(new DriverSettings(settings))
+            .run(args);
+        try {
+            Environment env = context.getEnvironment();
+            new LoadDriver(context).run(
+                env.getProperty("load.concurrency", Integer.class, 32),
+                env.getProperty("load.warmup-seconds", Integer.class, 20),
+                env.getProperty("load.duration-seconds", Integer.class, 60),
+                env.getProperty("load.rate", Double.class, 0.0),
+                Path.of(env.getProperty("load.output-dir", "load-results")));
+        } finally {
+            context.close();
+        }
+    }
+
+    private void run(int concurrency, int warmupSeconds, int durationSeconds, double rate, Path outputDir)
+            throws InterruptedException, IOException {
+        // Per-client interval between request starts when a rate is set, 0 for closed loop
+        long intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * concurrency / rate) : 0;
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        System.out.printf("Driving %d clients (%s) for %ds warmup + %ds against %s%n", concurrency,
+                rate > 0 ? String.format("%.0f req/s", rate) : "closed loop", warmupSeconds, durationSeconds, baseUrl);
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < concurrency; c++) {
+                clients.submit(() -> client(intervalNanos, end));
+            }
+            TimeUnit.NANOSECONDS.sleep(measureFrom - System.nanoTime());
+            stats.values().forEach(Stats::reset);
+            measuring = true;
+        }
+
+        report(System.out, durationSeconds);
+        Files.createDirectories(outputDir);
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            Path file = outputDir.resolve(entry.getKey().replace(' ', '-') + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                entry.getValue().histogram.outputPercentileDistribution(out, 1_000_000.0);
+            }
+        }
+        System.out.println("Percentile distributions written to " + outputDir.toAbsolutePath());
+    }
+
+    private void client(long intervalNanos, long end) {
+        int totalWeight = mix.stream().mapToInt(Operation::weight).sum();
+        long next = System.nanoTime();
+        while (System.nanoTime() < end) {
+            if (intervalNanos > 0) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(wait);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                next += intervalNanos;
+            }
+
+            Operation operation = pick(totalWeight);
+            Stats endpoint = stats.get(operation.name);
+            long started = System.nanoTime();
+            Outcome outcome;
+            try {
+                outcome = operation.call.send();
+            } catch (Exception e) {
+                outcome = Outcome.ERROR;
+            }
+            if (outcome == Outcome.SKIPPED) {
+                continue;
+            }
+            // On a fixed schedule, measure from when the request should have started, so time
+            // spent queued behind a slow response is counted instead of omitted
+            long latency = System.nanoTime() - (intervalNanos > 0 ? next - intervalNanos : started);
+            if (measuring) {
+                endpoint.record(Math.min(latency, HIGHEST_TRACKABLE_NANOS), outcome);
+            }
+        }
+    }
+
+    private Outcome validateRoomCode() throws IOException, InterruptedException {
+        String roomCode = roomCodes.get(ThreadLocalRandom.current().nextInt(roomCodes.size()));
+        int status = send("/api/tenants/validate-room-code", null, Map.of("roomCode", roomCode)).statusCode();
+        // 400 once a registration has taken the unit
+        return status == 400 ? Outcome.REJECTED : outcome(status);
+    }
+
+    private Outcome register() throws IOException, InterruptedException {
+        String roomCode = vacantRoomCodes.poll();
+        if (roomCode == null) {
+            return Outcome.SKIPPED;
+        }
+        long n = registrations.incrementAndGet();
+        return post("/api/tenants/register", null, Map.of(
+                "firstName", "Load",
+                "lastName", "Tenant" + n,
+                "email", "load" + n + "-" + System.nanoTime() + "@load.colten",
+                "password", "password123",
+                "roomCode", roomCode));
+    }
+
+    private void report(PrintStream out, int durationSeconds) {
+        out.printf("%n%-22s %9s %8s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "rejected", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            Histogram h = entry.getValue().histogram;
+            out.printf("%-22s %9d %8d %8d %9.1f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey(), h.getTotalCount(),
+                    entry.getValue().rejected.get(), entry.getValue().errors.get(), (double) h.getTotalCount() / durationSeconds,
+                    millis(h.getValueAtPercentile(50)), millis(h.getValueAtPercentile(99)),
+                    millis(h.getValueAtPercentile(99.9)), millis(h.getMaxValue()));
+        }
+    }
+
+    private Outcome get(String path, String token) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Authorization", "Bearer " + token)
+            .GET()
+            .build();
+        return outcome(http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+    }
+
+    private Outcome post(String path, String token, Object body) throws IOException, InterruptedException {
+        return outcome(send(path, token, body).statusCode());
+    }
+
+    private HttpResponse<String> send(String path, String token, Object body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private String login(String email, String password) {
+        try {
+            HttpResponse<String> response = send("/api/auth/login", null, Map.of("email", email, "password", password));
+            JsonNode body = mapper.readTree(response.body());
+            if (response.statusCode() != 200 || !body.hasNonNull("token")) {
+                throw new IllegalStateException("Login failed for " + email + ": " + response.body());
+            }
+            return body.get("token").asText();
+        } catch (IOException e) {
+            throw new IllegalStateException("Login failed for " + email, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while logging in", e);
+        }
+    }
+
+    private void add(String name, int weight, Call call) {
+        mix.add(new Operation(name, weight, call));
+        stats.put(name, new Stats());
+    }
+
+    private Operation pick(int totalWeight) {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Operation operation : mix) {
+            roll -= operation.weight;
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return mix.get(mix.size() - 1);
+    }
+
+    private Session anyOwner() {
+        return owners.get(ThreadLocalRandom.current().nextInt(owners.size()));
+    }
+
+    private Session anyTenant() {
+        return tenants.get(ThreadLocalRandom.current().nextInt(tenants.size()));
+    }
+
+    private static Outcome outcome(int status) {
+        return status < 400 ? Outcome.OK : Outcome.ERROR;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        Outcome send() throws Exception;
+    }
+
+    // REJECTED is an expected refusal, such as a room code that is no longer vacant; SKIPPED is not recorded
+    private enum Outcome { OK, REJECTED, ERROR, SKIPPED }
+
+    private record Operation(String name, int weight, Call call) {}
+
+    private record Session(String token, long buildingId) {}
+
+    private static final class Stats {
+        private final ConcurrentHistogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_NANOS, 3);
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        private void record(long latencyNanos, Outcome outcome) {
+            histogram.recordValue(latencyNanos);
+            if (outcome == Outcome.REJECTED) {
+                rejected.incrementAndGet();
+            } else if (outcome == Outcome.ERROR) {
+                errors.incrementAndGet();
+            }
+        }
+
+        private void reset() {
+            histogram.reset();
+            rejected.set(0);
+            errors.set(0);
+        }
+    }
+
+    /**
+     * Puts the driver's settings above application.properties and the profile file, which
+     * builder default properties would lose to, but below the command line so arguments can
+     * still override them. Runs after the config files are loaded and before logging is set up.
+     */
+    private static final class DriverSettings implements ApplicationListener<ApplicationEnvironmentPreparedEvent>, Ordered {
+
+        private final Map<String, Object> settings;
+
+        private DriverSettings(Map<String, Object> settings) {
+            this.settings = settings;
+        }
+
+        @Override
+        public void onApplicationEvent(ApplicationEnvironmentPreparedEvent event) {
+            MutablePropertySources sources = event.getEnvironment().getPropertySources();
+            MapPropertySource driverSettings = new MapPropertySource("loadDriver", settings);
+            if (sources.contains(CommandLinePropertySource.COMMAND_LINE_PROPERTY_SOURCE_NAME)) {
+                sources.addAfter(CommandLinePropertySource.COMMAND_LINE_PROPERTY_SOURCE_NAME, driverSettings);
+            } else {
+                sources.addFirst(driverSettings);
+            }
+        }
+
+        @Override
+        public int getOrder() {
+            return EnvironmentPostProcessorApplicationListener.DEFAULT_ORDER + 1;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.Colten.benchmark;
+
+import com.example.Colten.service.PaymentService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reference number generation, run once per payment written.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaymentServiceBenchmark {
+
+    private static final MethodHandle GENERATE_REFERENCE_NUMBER =
+            Fixtures.privateMethod(PaymentService.class, "generateReferenceNumber", String.class);
+
+    private PaymentService paymentService;
+
+    @Setup
+    public void setUp() {
+        paymentService = new PaymentService();
+    }
+
+    @Benchmark
+    public String generateReferenceNumber() throws Throwable {
+        return (String) GENERATE_REFERENCE_NUMBER.invoke(paymentService);
+    }
+}
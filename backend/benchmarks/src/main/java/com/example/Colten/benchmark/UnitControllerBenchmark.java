@@ -0,0 +1,106 @@
+package com.example.Colten.benchmark;
+
+import com.example.Colten.controller.UnitController;
+import com.example.Colten.dto.UnitDTO;
+import com.example.Colten.model.Unit;
+import com.example.Colten.repository.UnitRepository;
+import com.example.Colten.service.RoomCodeAllocator;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Work on the unit create and regenerate paths: room code allocation (a pool poll, with the
+ * startup load answered by an empty stub) and the entity to UnitDTO mapping.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UnitControllerBenchmark {
+
+    private static final MethodHandle CONVERT_TO_DTO =
+            Fixtures.privateMethod(UnitController.class, "convertToDTO", UnitDTO.class, Unit.class);
+
+    private UnitController controller;
+    private RoomCodeAllocator roomCodeAllocator;
+    private Unit unit;
+
+    @Setup
+    public void setUp() {
+        controller = new UnitController();
+        unit = Fixtures.unit(42);
+    }
+
+    // A fresh allocator per iteration, so the filter never fills up over a long run
+    @Setup(Level.Iteration)
+    public void setUpAllocator() {
+        UnitRepository unitRepository = (UnitRepository) Proxy.newProxyInstance(
+                UnitRepository.class.getClassLoader(), new Class<?>[] { UnitRepository.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "streamRoomCodes" -> Stream.empty();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "UnitRepository stub";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+
+        roomCodeAllocator = new RoomCodeAllocator();
+        inject(roomCodeAllocator, "unitRepository", unitRepository);
+        inject(roomCodeAllocator, "transactionManager", new NoOpTransactionManager());
+        inject(roomCodeAllocator, "expectedCodes", 10_000_000L);
+        inject(roomCodeAllocator, "falsePositiveRate", 0.001);
+        inject(roomCodeAllocator, "poolSize", 256);
+        roomCodeAllocator.warmUp();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownAllocator() {
+        Method shutdown = ReflectionUtils.findMethod(RoomCodeAllocator.class, "shutdown");
+        ReflectionUtils.makeAccessible(shutdown);
+        ReflectionUtils.invokeMethod(shutdown, roomCodeAllocator);
+    }
+
+    @Benchmark
+    public String allocateRoomCode() {
+        return roomCodeAllocator.allocate();
+    }
+
+    @Benchmark
+    public UnitDTO convertToDto() throws Throwable {
+        return (UnitDTO) CONVERT_TO_DTO.invoke(controller, unit);
+    }
+
+    private static void inject(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {}
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {}
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {}
+    }
+}
@@ -3,6 +3,7 @@ package com.example.Colten.config;
 import com.example.Colten.security.AuthTokenFilter;
 import com.example.Colten.service.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -30,6 +31,10 @@ public class WebSecurityConfig {
     @Autowired
     UserDetailsServiceImpl userDetailsService;
     
+    // Raising this upgrades stored hashes transparently on each user's next login
+    @Value("${app.security.bcrypt.strength:10}")
+    int bcryptStrength;
+    
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -40,6 +45,7 @@ public class WebSecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
     
@@ -50,7 +56,7 @@ public class WebSecurityConfig {
     
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
     
     @Bean
@@ -81,6 +87,10 @@ public class WebSecurityConfig {
                 .requestMatchers("/api/units/building/*/available").permitAll()
                 .requestMatchers("/api/tenants/register").permitAll()
                 .requestMatchers("/api/tenants/validate-room-code").permitAll()
+                .requestMatchers("/api/webhooks/stripe").permitAll()
+                // Gateway and JVM metrics are operational data, not for owners or tenants
+                .requestMatchers("/actuator/health").authenticated()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .headers(headers -> headers.frameOptions(frameOptions -> frameOptions.disable()))
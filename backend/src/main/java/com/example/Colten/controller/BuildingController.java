@@ -1,21 +1,22 @@
 package com.example.Colten.controller;
 
 import com.example.Colten.model.Building;
-import com.example.Colten.model.Owner;
 import com.example.Colten.repository.BuildingRepository;
 import com.example.Colten.repository.OwnerRepository;
-import com.example.Colten.security.JwtUtils;
+import com.example.Colten.security.AuthenticatedUser;
+import com.example.Colten.security.CurrentUser;
+import com.example.Colten.service.KpiService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.Optional;
 import com.example.Colten.dto.BuildingDTO;
-import com.example.Colten.dto.UnitDTO;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/buildings")
@@ -29,29 +30,22 @@ public class BuildingController {
     private OwnerRepository ownerRepository;
 
     @Autowired
-    private JwtUtils jwtUtils;
+    private KpiService kpiService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     // Get all buildings for the authenticated owner
     @GetMapping
     @PreAuthorize("hasRole('OWNER')")
-        public ResponseEntity<List<BuildingDTO>> getOwnerBuildings(@RequestHeader("Authorization") String token) {
+        public ResponseEntity<List<BuildingDTO>> getOwnerBuildings(@CurrentUser AuthenticatedUser currentUser) {
             try {
-                String jwt = token.substring(7);
-                String email = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                Optional<Owner> owner = ownerRepository.findByEmail(email);
-                if (owner.isEmpty()) {
+                Long ownerId = currentUser.getOwnerId();
+                if (ownerId == null) {
                     return ResponseEntity.notFound().build();
                 }
 
-                List<Building> buildings = buildingRepository.findByOwnerId(owner.get().getId());
-                List<BuildingDTO> buildingDTOs = buildings.stream().map(b -> {
-                    List<UnitDTO> unitDTOs = b.getUnits().stream()
-                        .map(u -> new UnitDTO(u.getId(), u.getUnitNumber(), b.getId()))
-                        .collect(Collectors.toList());
-                    return new BuildingDTO(b.getId(), b.getName(), unitDTOs);
-                }).collect(Collectors.toList());
-                return ResponseEntity.ok(buildingDTOs);
+                return ResponseEntity.ok(buildingRepository.findOwnerBuildingSummaries(ownerId));
             } catch (Exception e) {
                 return ResponseEntity.badRequest().build();
             }
@@ -60,27 +54,16 @@ public class BuildingController {
     // Get a specific building by ID
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('OWNER')")
-        public ResponseEntity<BuildingDTO> getBuildingById(@PathVariable Long id, @RequestHeader("Authorization") String token) {
+        public ResponseEntity<BuildingDTO> getBuildingById(@PathVariable Long id, @CurrentUser AuthenticatedUser currentUser) {
             try {
-                String jwt = token.substring(7);
-                String email = jwtUtils.getUserNameFromJwtToken(jwt);
-
-                Optional<Owner> owner = ownerRepository.findByEmail(email);
-                if (owner.isEmpty()) {
+                Long ownerId = currentUser.getOwnerId();
+                if (ownerId == null) {
                     return ResponseEntity.notFound().build();
                 }
 
-                Optional<Building> building = buildingRepository.findById(id);
-                if (building.isEmpty() || !building.get().getOwner().getId().equals(owner.get().getId())) {
-                    return ResponseEntity.notFound().build();
-                }
-
-                Building b = building.get();
-                List<UnitDTO> unitDTOs = b.getUnits().stream()
-                    .map(u -> new UnitDTO(u.getId(), u.getUnitNumber(), b.getId()))
-                    .collect(Collectors.toList());
-                BuildingDTO dto = new BuildingDTO(b.getId(), b.getName(), unitDTOs);
-                return ResponseEntity.ok(dto);
+                return buildingRepository.findBuildingSummary(id, ownerId)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
             } catch (Exception e) {
                 return ResponseEntity.badRequest().build();
             }
@@ -90,19 +73,19 @@ public class BuildingController {
     @PostMapping
     @PreAuthorize("hasRole('OWNER')")
     public ResponseEntity<Building> createBuilding(@Valid @RequestBody Building building, 
-                                                  @RequestHeader("Authorization") String token) {
+                                                  @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            Optional<Owner> owner = ownerRepository.findByEmail(email);
-            if (owner.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                Long ownerId = currentUser.getOwnerId();
+                if (ownerId == null) {
+                    return ResponseEntity.notFound().build();
+                }
 
-            building.setOwner(owner.get());
-            Building savedBuilding = buildingRepository.save(building);
-            return ResponseEntity.ok(savedBuilding);
+                building.setOwner(ownerRepository.getReferenceById(ownerId));
+                Building savedBuilding = buildingRepository.save(building);
+                kpiService.buildingCreated(savedBuilding);
+                return ResponseEntity.ok(savedBuilding);
+            });
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -113,18 +96,15 @@ public class BuildingController {
     @PreAuthorize("hasRole('OWNER')")
     public ResponseEntity<Building> updateBuilding(@PathVariable Long id, 
                                                   @Valid @RequestBody Building buildingDetails,
-                                                  @RequestHeader("Authorization") String token) {
+                                                  @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            Optional<Owner> owner = ownerRepository.findByEmail(email);
-            if (owner.isEmpty()) {
+            Long ownerId = currentUser.getOwnerId();
+            if (ownerId == null) {
                 return ResponseEntity.notFound().build();
             }
 
             Optional<Building> existingBuilding = buildingRepository.findById(id);
-            if (existingBuilding.isEmpty() || !existingBuilding.get().getOwner().getId().equals(owner.get().getId())) {
+            if (existingBuilding.isEmpty() || !existingBuilding.get().getOwner().getId().equals(ownerId)) {
                 return ResponseEntity.notFound().build();
             }
 
@@ -156,23 +136,23 @@ public class BuildingController {
     // Delete a building
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('OWNER')")
-    public ResponseEntity<?> deleteBuilding(@PathVariable Long id, @RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> deleteBuilding(@PathVariable Long id, @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            Optional<Owner> owner = ownerRepository.findByEmail(email);
-            if (owner.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                Long ownerId = currentUser.getOwnerId();
+                if (ownerId == null) {
+                    return ResponseEntity.notFound().build();
+                }
 
-            Optional<Building> building = buildingRepository.findById(id);
-            if (building.isEmpty() || !building.get().getOwner().getId().equals(owner.get().getId())) {
-                return ResponseEntity.notFound().build();
-            }
+                Optional<Building> building = buildingRepository.findById(id);
+                if (building.isEmpty() || !building.get().getOwner().getId().equals(ownerId)) {
+                    return ResponseEntity.notFound().build();
+                }
 
-            buildingRepository.delete(building.get());
-            return ResponseEntity.ok().build();
+                buildingRepository.delete(building.get());
+                kpiService.recordCascadeDelete(ownerId, id);
+                return ResponseEntity.ok().build();
+            });
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
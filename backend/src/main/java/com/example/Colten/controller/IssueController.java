@@ -1,18 +1,25 @@
 package com.example.Colten.controller;
 
+import com.example.Colten.dto.CursorPage;
+import com.example.Colten.dto.IssueResponse;
 import com.example.Colten.model.Issue;
 import com.example.Colten.model.IssueStatus;
-import com.example.Colten.model.Tenant;
 import com.example.Colten.model.Unit;
 import com.example.Colten.model.User;
 import com.example.Colten.repository.IssueRepository;
 import com.example.Colten.repository.TenantRepository;
 import com.example.Colten.repository.UnitRepository;
 import com.example.Colten.repository.UserRepository;
-import com.example.Colten.security.JwtUtils;
+import com.example.Colten.security.AuthenticatedUser;
+import com.example.Colten.security.CurrentUser;
+import com.example.Colten.service.KpiDelta;
+import com.example.Colten.service.KpiService;
+import com.example.Colten.util.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
@@ -37,38 +44,40 @@ public class IssueController {
     private UserRepository userRepository;
 
     @Autowired
-    private JwtUtils jwtUtils;
+    private KpiService kpiService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     // Get all issues for a tenant
     @GetMapping("/my-issues")
     @PreAuthorize("hasRole('TENANT')")
-    public ResponseEntity<List<Issue>> getTenantIssues(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<List<IssueResponse>> getTenantIssues(@CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            Optional<Tenant> tenant = tenantRepository.findByUserEmail(email);
-            if (tenant.isEmpty()) {
+            Long tenantId = currentUser.getTenantId();
+            if (tenantId == null) {
                 return ResponseEntity.notFound().build();
             }
 
-            List<Issue> issues = issueRepository.findByTenantIdOrderByCreatedAtDesc(tenant.get().getId());
+            List<IssueResponse> issues = issueRepository.withAttachments(issueRepository.findTenantIssues(tenantId));
             return ResponseEntity.ok(issues);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
-    // Get all issues for an owner's properties
+    // Get issues for an owner's properties, newest first, one page at a time
     @GetMapping("/owner-issues")
     @PreAuthorize("hasRole('OWNER')")
-    public ResponseEntity<List<Issue>> getOwnerIssues(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<CursorPage<IssueResponse>> getOwnerIssues(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer size,
+                                                            @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            List<Issue> issues = issueRepository.findByUnitBuildingOwnerEmailOrderByCreatedAtDesc(email);
-            return ResponseEntity.ok(issues);
+            int pageSize = PageCursor.pageSize(size);
+            List<IssueResponse> issues = issueRepository.withAttachments(
+                issueRepository.findOwnerIssuesPage(currentUser.getOwnerId(), PageCursor.decode(cursor), pageSize));
+            return ResponseEntity.ok(CursorPage.of(issues, pageSize,
+                issue -> PageCursor.encode(issue.getCreatedAt(), issue.getId())));
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -77,13 +86,11 @@ public class IssueController {
     // Get issues for a specific building
     @GetMapping("/building/{buildingId}")
     @PreAuthorize("hasRole('OWNER')")
-    public ResponseEntity<List<Issue>> getBuildingIssues(@PathVariable Long buildingId,
-                                                        @RequestHeader("Authorization") String token) {
+    public ResponseEntity<List<IssueResponse>> getBuildingIssues(@PathVariable Long buildingId,
+                                                                @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            List<Issue> issues = issueRepository.findByUnitBuildingIdAndUnitBuildingOwnerEmailOrderByCreatedAtDesc(buildingId, email);
+            List<IssueResponse> issues = issueRepository.withAttachments(
+                issueRepository.findBuildingIssues(buildingId, currentUser.getOwnerId()));
             return ResponseEntity.ok(issues);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -93,26 +100,23 @@ public class IssueController {
     // Get a specific issue
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('OWNER') or hasRole('TENANT')")
-    public ResponseEntity<Issue> getIssueById(@PathVariable Long id, @RequestHeader("Authorization") String token) {
+    public ResponseEntity<IssueResponse> getIssueById(@PathVariable Long id, @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            Optional<Issue> issue = issueRepository.findById(id);
+            Optional<IssueResponse> issue = issueRepository.findIssueResponseById(id);
             if (issue.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
 
             // Check permissions - tenant can see their own issues, owner can see issues for their properties
-            Issue issueObj = issue.get();
+            IssueResponse issueObj = issue.get();
             boolean canAccess = false;
             
             // Check if it's the tenant's issue
-            if (issueObj.getTenant().getEmail().equals(email)) {
+            if (issueObj.getTenant().getId().equals(currentUser.getTenantId())) {
                 canAccess = true;
             }
             // Check if it's the owner's property
-            else if (issueObj.getUnit().getBuilding().getOwner().getEmail().equals(email)) {
+            else if (currentUser.isOwnerOf(issueObj.getOwnerId())) {
                 canAccess = true;
             }
 
@@ -120,6 +124,7 @@ public class IssueController {
                 return ResponseEntity.status(403).build();
             }
 
+            issueRepository.withAttachments(List.of(issueObj));
             return ResponseEntity.ok(issueObj);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -129,24 +134,27 @@ public class IssueController {
     // Create a new issue (tenant only)
     @PostMapping
     @PreAuthorize("hasRole('TENANT')")
-    public ResponseEntity<Issue> createIssue(@Valid @RequestBody Issue issue, 
-                                            @RequestHeader("Authorization") String token) {
+    public ResponseEntity<IssueResponse> createIssue(@Valid @RequestBody Issue issue, 
+                                            @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            Optional<Tenant> tenant = tenantRepository.findByUserEmail(email);
-            if (tenant.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
-
-            // Set the tenant and unit
-            issue.setTenant(tenant.get());
-            issue.setUnit(tenant.get().getUnit());
-            issue.setStatus(IssueStatus.OPEN); // Default status
-
-            Issue savedIssue = issueRepository.save(issue);
-            return ResponseEntity.ok(savedIssue);
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                Long tenantId = currentUser.getTenantId();
+                if (tenantId == null) {
+                    return ResponseEntity.notFound().build();
+                }
+                if (currentUser.getUnitId() == null) {
+                    return ResponseEntity.badRequest().build();
+                }
+
+                // Set the tenant and unit from the token claims
+                issue.setTenant(tenantRepository.getReferenceById(tenantId));
+                issue.setUnit(unitRepository.getReferenceById(currentUser.getUnitId()));
+                issue.setStatus(IssueStatus.OPEN); // Default status
+
+                Issue savedIssue = issueRepository.save(issue);
+                kpiService.recordIssue(null, savedIssue);
+                return toResponse(savedIssue);
+            });
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -155,38 +163,39 @@ public class IssueController {
     // Update issue status (owner only)
     @PutMapping("/{id}/status")
     @PreAuthorize("hasRole('OWNER')")
-    public ResponseEntity<Issue> updateIssueStatus(@PathVariable Long id,
+    public ResponseEntity<IssueResponse> updateIssueStatus(@PathVariable Long id,
                                                   @RequestParam IssueStatus status,
                                                   @RequestParam(required = false) String adminNotes,
-                                                  @RequestHeader("Authorization") String token) {
+                                                  @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            Optional<Issue> existingIssue = issueRepository.findById(id);
-            if (existingIssue.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
+            return new TransactionTemplate(transactionManager).execute(transaction -> {
+                Optional<Issue> existingIssue = issueRepository.findById(id);
+                if (existingIssue.isEmpty()) {
+                    return ResponseEntity.notFound().build();
+                }
 
-            Issue issue = existingIssue.get();
+                Issue issue = existingIssue.get();
             
-            // Check if owner has permission to update this issue
-            if (!issue.getUnit().getBuilding().getOwner().getEmail().equals(email)) {
-                return ResponseEntity.status(403).build();
-            }
-
-            issue.setStatus(status);
-            if (adminNotes != null) {
-                issue.setAdminNotes(adminNotes);
-            }
-
-            // Set resolved date if status is resolved or closed
-            if (status == IssueStatus.RESOLVED || status == IssueStatus.CLOSED) {
-                issue.setResolvedAt(java.time.LocalDateTime.now());
-            }
-
-            Issue updatedIssue = issueRepository.save(issue);
-            return ResponseEntity.ok(updatedIssue);
+                // Check if owner has permission to update this issue
+                if (!currentUser.isOwnerOf(issue.getOwnerId())) {
+                    return ResponseEntity.status(403).build();
+                }
+
+                KpiDelta before = KpiDelta.forIssue(issue);
+                issue.setStatus(status);
+                if (adminNotes != null) {
+                    issue.setAdminNotes(adminNotes);
+                }
+
+                // Set resolved date if status is resolved or closed
+                if (status == IssueStatus.RESOLVED || status == IssueStatus.CLOSED) {
+                    issue.setResolvedAt(java.time.LocalDateTime.now());
+                }
+
+                Issue updatedIssue = issueRepository.save(issue);
+                kpiService.recordIssue(before, updatedIssue);
+                return toResponse(updatedIssue);
+            });
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -195,36 +204,37 @@ public class IssueController {
     // Assign issue to a user (owner only)
     @PutMapping("/{id}/assign")
     @PreAuthorize("hasRole('OWNER')")
-    public ResponseEntity<Issue> assignIssue(@PathVariable Long id,
+    public ResponseEntity<IssueResponse> assignIssue(@PathVariable Long id,
                                             @RequestParam Long assignedToId,
-                                            @RequestHeader("Authorization") String token) {
+                                            @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            Optional<Issue> existingIssue = issueRepository.findById(id);
-            if (existingIssue.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                Optional<Issue> existingIssue = issueRepository.findById(id);
+                if (existingIssue.isEmpty()) {
+                    return ResponseEntity.notFound().build();
+                }
 
-            Issue issue = existingIssue.get();
+                Issue issue = existingIssue.get();
             
-            // Check if owner has permission to update this issue
-            if (!issue.getUnit().getBuilding().getOwner().getEmail().equals(email)) {
-                return ResponseEntity.status(403).build();
-            }
-
-            // Check if assigned user exists
-            if (!userRepository.existsById(assignedToId)) {
-                return ResponseEntity.badRequest().build();
-            }
-
-            User assignedUser = userRepository.findById(assignedToId).get();
-            issue.setAssignedTo(assignedUser);
-            issue.setStatus(IssueStatus.IN_PROGRESS);
-
-            Issue updatedIssue = issueRepository.save(issue);
-            return ResponseEntity.ok(updatedIssue);
+                // Check if owner has permission to update this issue
+                if (!currentUser.isOwnerOf(issue.getOwnerId())) {
+                    return ResponseEntity.status(403).build();
+                }
+
+                // Check if assigned user exists
+                if (!userRepository.existsById(assignedToId)) {
+                    return ResponseEntity.badRequest().build();
+                }
+
+                User assignedUser = userRepository.findById(assignedToId).get();
+                KpiDelta before = KpiDelta.forIssue(issue);
+                issue.setAssignedTo(assignedUser);
+                issue.setStatus(IssueStatus.IN_PROGRESS);
+
+                Issue updatedIssue = issueRepository.save(issue);
+                kpiService.recordIssue(before, updatedIssue);
+                return toResponse(updatedIssue);
+            });
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -233,13 +243,10 @@ public class IssueController {
     // Update issue details (tenant can update their own issues if still open)
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('TENANT')")
-    public ResponseEntity<Issue> updateIssue(@PathVariable Long id,
+    public ResponseEntity<IssueResponse> updateIssue(@PathVariable Long id,
                                             @Valid @RequestBody Issue issueDetails,
-                                            @RequestHeader("Authorization") String token) {
+                                            @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
             Optional<Issue> existingIssue = issueRepository.findById(id);
             if (existingIssue.isEmpty()) {
                 return ResponseEntity.notFound().build();
@@ -248,7 +255,7 @@ public class IssueController {
             Issue issue = existingIssue.get();
             
             // Check if tenant owns this issue
-            if (!issue.getTenant().getEmail().equals(email)) {
+            if (!issue.getTenant().getId().equals(currentUser.getTenantId())) {
                 return ResponseEntity.status(403).build();
             }
 
@@ -265,7 +272,7 @@ public class IssueController {
             issue.setLocationInUnit(issueDetails.getLocationInUnit());
 
             Issue updatedIssue = issueRepository.save(issue);
-            return ResponseEntity.ok(updatedIssue);
+            return toResponse(updatedIssue);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -274,13 +281,11 @@ public class IssueController {
     // Get issues by status
     @GetMapping("/status/{status}")
     @PreAuthorize("hasRole('OWNER')")
-    public ResponseEntity<List<Issue>> getIssuesByStatus(@PathVariable IssueStatus status,
-                                                        @RequestHeader("Authorization") String token) {
+    public ResponseEntity<List<IssueResponse>> getIssuesByStatus(@PathVariable IssueStatus status,
+                                                                @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            List<Issue> issues = issueRepository.findByStatusAndUnitBuildingOwnerEmailOrderByCreatedAtDesc(status, email);
+            List<IssueResponse> issues = issueRepository.withAttachments(
+                issueRepository.findOwnerIssuesByStatus(status, currentUser.getOwnerId()));
             return ResponseEntity.ok(issues);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -290,15 +295,20 @@ public class IssueController {
     // Get emergency/urgent issues
     @GetMapping("/urgent")
     @PreAuthorize("hasRole('OWNER')")
-    public ResponseEntity<List<Issue>> getUrgentIssues(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<List<IssueResponse>> getUrgentIssues(@CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            List<Issue> issues = issueRepository.findUrgentIssuesByOwnerEmail(email);
+            List<IssueResponse> issues = issueRepository.withAttachments(
+                issueRepository.findUrgentIssuesByOwnerId(currentUser.getOwnerId()));
             return ResponseEntity.ok(issues);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    // Re-reads a saved issue through the response projection
+    private ResponseEntity<IssueResponse> toResponse(Issue issue) {
+        return issueRepository.findIssueResponseById(issue.getId())
+            .map(response -> ResponseEntity.ok(issueRepository.withAttachments(List.of(response)).get(0)))
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
 }
@@ -1,23 +1,31 @@
 package com.example.Colten.controller;
 
+import com.example.Colten.dto.CursorPage;
+import com.example.Colten.dto.OwnerDashboardStats;
 import com.example.Colten.dto.PaymentRequest;
+import com.example.Colten.dto.PaymentResponse;
 import com.example.Colten.model.Payment;
 import com.example.Colten.model.PaymentStatus;
 import com.example.Colten.model.Tenant;
 import com.example.Colten.model.Unit;
+import com.example.Colten.repository.BuildingRepository;
 import com.example.Colten.repository.PaymentRepository;
 import com.example.Colten.repository.TenantRepository;
 import com.example.Colten.repository.UnitRepository;
 import com.example.Colten.repository.UserRepository;
-import com.example.Colten.security.JwtUtils;
+import com.example.Colten.security.AuthenticatedUser;
+import com.example.Colten.security.CurrentUser;
+import com.example.Colten.service.IdempotencyService;
+import com.example.Colten.service.KpiService;
 import com.example.Colten.service.PaymentService;
+import com.example.Colten.util.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
-import java.math.BigDecimal;
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -39,22 +47,33 @@ public class PaymentController {
     @Autowired
     private UnitRepository unitRepository;
 
+    @Autowired
+    private BuildingRepository buildingRepository;
+
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private JwtUtils jwtUtils;
+    private KpiService kpiService;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
 
     // Process a rent payment (Tenant only)
     @PostMapping("/process")
     @PreAuthorize("hasRole('TENANT')")
     public ResponseEntity<?> processPayment(@Valid @RequestBody PaymentRequest paymentRequest,
-                                          @RequestHeader("Authorization") String token) {
+                                          @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                          @CurrentUser AuthenticatedUser currentUser) {
+        return idempotencyService.execute(idempotencyKey, "payments/process", currentUser.getUserId(), paymentRequest,
+            () -> enqueuePayment(paymentRequest, currentUser));
+    }
+
+    private ResponseEntity<?> enqueuePayment(PaymentRequest paymentRequest, AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            Optional<Tenant> tenantOpt = tenantRepository.findByEmail(email);
+            Optional<Tenant> tenantOpt = currentUser.getTenantId() != null
+                ? tenantRepository.findById(currentUser.getTenantId())
+                : Optional.empty();
             if (tenantOpt.isEmpty()) {
                 return ResponseEntity.badRequest()
                     .body("Error: Tenant not found");
@@ -68,10 +87,12 @@ public class PaymentController {
 
             Unit unit = tenant.getUnit();
 
-            // Process payment through Stripe
-            Payment payment = paymentService.processStripePayment(paymentRequest, tenant, unit);
-            
-            return ResponseEntity.ok(payment);
+            // Queue the payment; Stripe is called by the outbox workers and the status updates there
+            Payment payment = paymentService.enqueueStripePayment(paymentRequest, tenant, unit);
+
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/payments/" + payment.getId()))
+                .body(paymentRepository.findPaymentResponseById(payment.getId()).orElseThrow());
 
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -82,18 +103,15 @@ public class PaymentController {
     // Get payment history for a tenant
     @GetMapping("/my-payments")
     @PreAuthorize("hasRole('TENANT')")
-    public ResponseEntity<?> getMyPayments(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> getMyPayments(@CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            Optional<Tenant> tenantOpt = tenantRepository.findByEmail(email);
-            if (tenantOpt.isEmpty()) {
+            Long tenantId = currentUser.getTenantId();
+            if (tenantId == null) {
                 return ResponseEntity.badRequest()
                     .body("Error: Tenant not found");
             }
 
-            List<Payment> payments = paymentRepository.findByTenantOrderByPaymentDateDesc(tenantOpt.get());
+            List<PaymentResponse> payments = paymentRepository.findTenantPayments(tenantId);
             return ResponseEntity.ok(payments);
 
         } catch (Exception e) {
@@ -102,17 +120,28 @@ public class PaymentController {
         }
     }
 
-    // Get payments for a building (Owner only)
+    // Get payments for a building, newest first, one page at a time (Owner only)
     @GetMapping("/building/{buildingId}")
     @PreAuthorize("hasRole('OWNER')")
     public ResponseEntity<?> getBuildingPayments(@PathVariable Long buildingId,
-                                               @RequestHeader("Authorization") String token) {
+                                               @RequestParam(required = false) String cursor,
+                                               @RequestParam(required = false) Integer size,
+                                               @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            List<Payment> payments = paymentRepository.findByUnit_Building_IdOrderByPaymentDateDesc(buildingId);
-            return ResponseEntity.ok(payments);
+            // Verify owner owns this building
+            Optional<Long> ownerId = buildingRepository.findOwnerIdById(buildingId);
+            if (ownerId.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (!ownerId.get().equals(currentUser.getOwnerId())) {
+                return ResponseEntity.status(403)
+                    .body("Error: You don't have permission to view payments for this building");
+            }
+
+            int pageSize = PageCursor.pageSize(size);
+            List<PaymentResponse> payments = paymentRepository.findBuildingPaymentsPage(buildingId, PageCursor.decode(cursor), pageSize);
+            return ResponseEntity.ok(CursorPage.of(payments, pageSize,
+                payment -> PageCursor.encode(payment.getPaymentDate(), payment.getId())));
 
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -120,16 +149,17 @@ public class PaymentController {
         }
     }
 
-    // Get all payments for owner's properties
+    // Get payments for owner's properties, newest first, one page at a time
     @GetMapping("/owner-payments")
     @PreAuthorize("hasRole('OWNER')")
-    public ResponseEntity<?> getOwnerPayments(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> getOwnerPayments(@RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) Integer size,
+                                            @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            List<Payment> payments = paymentRepository.findByUnit_Building_Owner_EmailOrderByPaymentDateDesc(email);
-            return ResponseEntity.ok(payments);
+            int pageSize = PageCursor.pageSize(size);
+            List<PaymentResponse> payments = paymentRepository.findOwnerPaymentsPage(currentUser.getOwnerId(), PageCursor.decode(cursor), pageSize);
+            return ResponseEntity.ok(CursorPage.of(payments, pageSize,
+                payment -> PageCursor.encode(payment.getPaymentDate(), payment.getId())));
 
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -140,12 +170,9 @@ public class PaymentController {
     // Get pending payments (late payments)
     @GetMapping("/pending")
     @PreAuthorize("hasRole('OWNER')")
-    public ResponseEntity<?> getPendingPayments(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> getPendingPayments(@CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            List<Payment> payments = paymentRepository.findPendingPaymentsByOwnerEmail(email);
+            List<PaymentResponse> payments = paymentRepository.findPendingPaymentsByOwnerId(currentUser.getOwnerId());
             return ResponseEntity.ok(payments);
 
         } catch (Exception e) {
@@ -158,11 +185,14 @@ public class PaymentController {
     @PostMapping("/manual")
     @PreAuthorize("hasRole('OWNER')")
     public ResponseEntity<?> recordManualPayment(@Valid @RequestBody PaymentRequest paymentRequest,
-                                               @RequestHeader("Authorization") String token) {
+                                               @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                               @CurrentUser AuthenticatedUser currentUser) {
+        return idempotencyService.execute(idempotencyKey, "payments/manual", currentUser.getUserId(), paymentRequest,
+            () -> saveManualPayment(paymentRequest, currentUser));
+    }
+
+    private ResponseEntity<?> saveManualPayment(PaymentRequest paymentRequest, AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
             // Verify tenant exists
             Tenant tenant = tenantRepository.findById(paymentRequest.getTenantId())
                 .orElseThrow(() -> new RuntimeException("Tenant not found"));
@@ -171,7 +201,7 @@ public class PaymentController {
                 .orElseThrow(() -> new RuntimeException("Unit not found"));
 
             // Verify owner owns this building
-            if (!unit.getBuilding().getOwner().getEmail().equals(email)) {
+            if (!unit.getBuilding().getOwner().getId().equals(currentUser.getOwnerId())) {
                 return ResponseEntity.status(403)
                     .body("Error: You don't have permission to record payments for this unit");
             }
@@ -189,7 +219,8 @@ public class PaymentController {
             payment.setCreatedAt(LocalDateTime.now());
 
             Payment savedPayment = paymentRepository.save(payment);
-            return ResponseEntity.ok(savedPayment);
+            kpiService.recordPayment(null, savedPayment);
+            return ResponseEntity.ok(paymentRepository.findPaymentResponseById(savedPayment.getId()).orElseThrow());
 
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -201,19 +232,16 @@ public class PaymentController {
     @GetMapping("/{paymentId}")
     @PreAuthorize("hasRole('TENANT') or hasRole('OWNER')")
     public ResponseEntity<?> getPayment(@PathVariable Long paymentId,
-                                      @RequestHeader("Authorization") String token) {
+                                      @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            Payment payment = paymentRepository.findById(paymentId)
+            PaymentResponse payment = paymentRepository.findPaymentResponseById(paymentId)
                 .orElseThrow(() -> new RuntimeException("Payment not found"));
 
             // Check permissions
             boolean canAccess = false;
-            if (payment.getTenant().getEmail().equals(email)) {
+            if (payment.getTenant().getId().equals(currentUser.getTenantId())) {
                 canAccess = true; // Tenant can see their own payments
-            } else if (payment.getUnit().getBuilding().getOwner().getEmail().equals(email)) {
+            } else if (currentUser.isOwnerOf(payment.getOwnerId())) {
                 canAccess = true; // Owner can see payments for their properties
             }
 
@@ -233,25 +261,10 @@ public class PaymentController {
     // Get payment statistics for owner dashboard
     @GetMapping("/stats")
     @PreAuthorize("hasRole('OWNER')")
-    public ResponseEntity<?> getPaymentStats(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> getPaymentStats(@CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            // Calculate various payment statistics
-            BigDecimal monthlyRevenue = paymentRepository.getTotalMonthlyRevenueByOwnerEmail(email);
-            Long totalPaymentsCount = paymentRepository.countPaymentsByOwnerEmail(email);
-            Long pendingPaymentsCount = paymentRepository.countPendingPaymentsByOwnerEmail(email);
-            BigDecimal totalRevenueAmount = paymentRepository.getTotalRevenueByOwnerEmail(email);
-
-            // Create response object
-            var stats = new Object() {
-                public final BigDecimal totalMonthlyRevenue = monthlyRevenue != null ? monthlyRevenue : BigDecimal.ZERO;
-                public final Long totalPayments = totalPaymentsCount != null ? totalPaymentsCount : 0L;
-                public final Long pendingPayments = pendingPaymentsCount != null ? pendingPaymentsCount : 0L;
-                public final BigDecimal totalRevenue = totalRevenueAmount != null ? totalRevenueAmount : BigDecimal.ZERO;
-            };
-
+            // Same materialized counters as the owner dashboard
+            OwnerDashboardStats stats = kpiService.getOwnerDashboardStats(currentUser.getOwnerId());
             return ResponseEntity.ok(stats);
 
         } catch (Exception e) {
@@ -0,0 +1,33 @@
+package com.example.Colten.controller;
+
+import com.example.Colten.service.StripeWebhookService;
+import com.stripe.exception.SignatureVerificationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/webhooks")
+public class StripeWebhookController {
+
+    @Autowired
+    private StripeWebhookService webhookService;
+
+    // Receive a Stripe event (authenticated by its signature, not by a user token)
+    @PostMapping("/stripe")
+    public ResponseEntity<?> receiveStripeEvent(@RequestBody String payload,
+                                                @RequestHeader(value = StripeWebhookService.SIGNATURE_HEADER, required = false) String signature) {
+        try {
+            // Stored for the batch processor; a redelivery is acknowledged the same way
+            webhookService.receive(payload, signature);
+            return ResponseEntity.ok().build();
+
+        } catch (SignatureVerificationException e) {
+            return ResponseEntity.badRequest()
+                .body("Error: Invalid signature");
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body("Error: Could not accept event. " + e.getMessage());
+        }
+    }
+}
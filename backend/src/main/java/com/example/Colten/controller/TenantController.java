@@ -1,7 +1,9 @@
 package com.example.Colten.controller;
 
 import com.example.Colten.dto.AuthResponse;
+import com.example.Colten.dto.CursorPage;
 import com.example.Colten.dto.RoomCodeRequest;
+import com.example.Colten.dto.RoomCodeValidationResponse;
 import com.example.Colten.dto.TenantRegistrationRequest;
 import com.example.Colten.model.Role;
 import com.example.Colten.model.Tenant;
@@ -10,14 +12,27 @@ import com.example.Colten.model.User;
 import com.example.Colten.repository.TenantRepository;
 import com.example.Colten.repository.UnitRepository;
 import com.example.Colten.repository.UserRepository;
+import com.example.Colten.security.AuthenticatedUser;
+import com.example.Colten.security.CurrentUser;
 import com.example.Colten.security.JwtUtils;
+import com.example.Colten.security.RoomCodeRateLimiter;
+import com.example.Colten.service.AuthService;
+import com.example.Colten.service.HashingCapacityExceededException;
+import com.example.Colten.service.KpiService;
+import com.example.Colten.service.PasswordHashingService;
+import com.example.Colten.service.RoomCodeCache;
+import com.example.Colten.service.UserPrincipal;
+import com.example.Colten.util.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import java.util.List;
 import java.util.Optional;
@@ -37,16 +52,32 @@ public class TenantController {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder encoder;
+    private PasswordHashingService hashingService;
 
     @Autowired
     private JwtUtils jwtUtils;
 
-    // Validate room code
+    @Autowired
+    private KpiService kpiService;
+
+    @Autowired
+    private RoomCodeCache roomCodeCache;
+
+    @Autowired
+    private RoomCodeRateLimiter roomCodeRateLimiter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Validate room code (public: rate limited per client, answered from the room code cache)
     @PostMapping("/validate-room-code")
-    public ResponseEntity<?> validateRoomCode(@Valid @RequestBody RoomCodeRequest request) {
+    public ResponseEntity<?> validateRoomCode(@Valid @RequestBody RoomCodeRequest request,
+                                              HttpServletRequest httpRequest) {
+        if (!roomCodeRateLimiter.tryAcquire(httpRequest)) {
+            return tooManyAttempts();
+        }
         try {
-            Optional<Unit> unit = unitRepository.findByRoomCode(request.getRoomCode());
+            Optional<RoomCodeValidationResponse> unit = roomCodeCache.find(request.getRoomCode());
             
             if (unit.isEmpty()) {
                 return ResponseEntity.badRequest()
@@ -68,8 +99,11 @@ public class TenantController {
 
     // Register tenant with room code
     @PostMapping("/register")
-    @Transactional
-    public ResponseEntity<?> registerTenant(@Valid @RequestBody TenantRegistrationRequest request) {
+    public ResponseEntity<?> registerTenant(@Valid @RequestBody TenantRegistrationRequest request,
+                                            HttpServletRequest httpRequest) {
+        if (!roomCodeRateLimiter.tryAcquire(httpRequest)) {
+            return tooManyAttempts();
+        }
         try {
             // Validate room code first
             Optional<Unit> unit = unitRepository.findByRoomCode(request.getRoomCode());
@@ -90,60 +124,24 @@ public class TenantController {
                     .body(new AuthResponse("Error: Email is already in use!"));
             }
 
-            // Create tenant directly (it extends User, so no need to create User separately)
-            Tenant tenant = new Tenant(
-                request.getFirstName(),
-                request.getLastName(),
-                request.getEmail(),
-                encoder.encode(request.getPassword())
-            );
-
-            if (request.getPhone() != null) {
-                tenant.setPhone(request.getPhone());
-            }
-
-            tenant.setIsActive(true);
-            tenant.setEmailVerified(false);
-            tenant.setUnit(unit.get());
-            
-            if (request.getDateOfBirth() != null) {
-                tenant.setDateOfBirth(request.getDateOfBirth().atStartOfDay());
-            }
-            tenant.setEmployer(request.getEmployer());
-            tenant.setJobTitle(request.getJobTitle());
-            tenant.setMonthlyIncome(request.getMonthlyIncome());
-            tenant.setEmergencyContactName(request.getEmergencyContactName());
-            tenant.setEmergencyContactPhone(request.getEmergencyContactPhone());
-            tenant.setNumberOfOccupants(request.getNumberOfOccupants());
-            tenant.setHasPets(request.getHasPets());
-            tenant.setPetDescription(request.getPetDescription());
-            tenant.setSmoker(request.getSmoker());
-            
-            if (request.getLeaseStartDate() != null) {
-                tenant.setLeaseStartDate(request.getLeaseStartDate().atStartOfDay());
-            }
-            if (request.getLeaseEndDate() != null) {
-                tenant.setLeaseEndDate(request.getLeaseEndDate().atStartOfDay());
-            }
-            if (request.getMoveInDate() != null) {
-                tenant.setMoveInDate(request.getMoveInDate().atStartOfDay());
-            }
-
-            Tenant savedTenant = tenantRepository.save(tenant);
-
-            // Mark unit as unavailable
-            Unit unitToUpdate = unit.get();
-            unitToUpdate.setIsAvailable(false);
-            if (request.getLeaseStartDate() != null) {
-                unitToUpdate.setLeaseStartDate(request.getLeaseStartDate().atStartOfDay());
-            }
-            if (request.getLeaseEndDate() != null) {
-                unitToUpdate.setLeaseEndDate(request.getLeaseEndDate().atStartOfDay());
+            // Hash before the transaction opens, so no connection is held while BCrypt runs
+            String passwordHash = hashingService.encode(request.getPassword());
+            Long unitId = unit.get().getId();
+            Tenant savedTenant = new TransactionTemplate(transactionManager).execute(status -> {
+                // Checked again under a row lock: another registration may have taken the unit meanwhile
+                Optional<Unit> lockedUnit = unitRepository.findByIdForUpdate(unitId);
+                if (lockedUnit.isEmpty() || !lockedUnit.get().getIsAvailable()) {
+                    return null;
+                }
+                return saveTenant(request, passwordHash, lockedUnit.get());
+            });
+            if (savedTenant == null) {
+                return ResponseEntity.badRequest()
+                    .body(new AuthResponse("Error: This unit is not available!"));
             }
-            unitRepository.save(unitToUpdate);
 
             // Generate JWT token for immediate login
-            String jwt = jwtUtils.generateTokenFromUsername(savedTenant.getEmail());
+            String jwt = jwtUtils.generateJwtToken(UserPrincipal.create(savedTenant));
 
             AuthResponse response = new AuthResponse(
                 jwt,
@@ -155,22 +153,81 @@ public class TenantController {
             );
 
             return ResponseEntity.ok(response);
+        } catch (HashingCapacityExceededException e) {
+            return AuthService.tooManyRequests();
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(new AuthResponse("Error: Could not register tenant. " + e.getMessage()));
         }
     }
 
-    // Get all tenants for owner
+    private Tenant saveTenant(TenantRegistrationRequest request, String passwordHash, Unit unitToUpdate) {
+        // Create tenant directly (it extends User, so no need to create User separately)
+        Tenant tenant = new Tenant(
+            request.getFirstName(),
+            request.getLastName(),
+            request.getEmail(),
+            passwordHash
+        );
+
+        if (request.getPhone() != null) {
+            tenant.setPhone(request.getPhone());
+        }
+
+        tenant.setIsActive(true);
+        tenant.setEmailVerified(false);
+        tenant.setUnit(unitToUpdate);
+        
+        if (request.getDateOfBirth() != null) {
+            tenant.setDateOfBirth(request.getDateOfBirth().atStartOfDay());
+        }
+        tenant.setEmployer(request.getEmployer());
+        tenant.setJobTitle(request.getJobTitle());
+        tenant.setMonthlyIncome(request.getMonthlyIncome());
+        tenant.setEmergencyContactName(request.getEmergencyContactName());
+        tenant.setEmergencyContactPhone(request.getEmergencyContactPhone());
+        tenant.setNumberOfOccupants(request.getNumberOfOccupants());
+        tenant.setHasPets(request.getHasPets());
+        tenant.setPetDescription(request.getPetDescription());
+        tenant.setSmoker(request.getSmoker());
+        
+        if (request.getLeaseStartDate() != null) {
+            tenant.setLeaseStartDate(request.getLeaseStartDate().atStartOfDay());
+        }
+        if (request.getLeaseEndDate() != null) {
+            tenant.setLeaseEndDate(request.getLeaseEndDate().atStartOfDay());
+        }
+        if (request.getMoveInDate() != null) {
+            tenant.setMoveInDate(request.getMoveInDate().atStartOfDay());
+        }
+
+        Tenant savedTenant = tenantRepository.save(tenant);
+
+        // Mark unit as unavailable
+        unitToUpdate.setIsAvailable(false);
+        if (request.getLeaseStartDate() != null) {
+            unitToUpdate.setLeaseStartDate(request.getLeaseStartDate().atStartOfDay());
+        }
+        if (request.getLeaseEndDate() != null) {
+            unitToUpdate.setLeaseEndDate(request.getLeaseEndDate().atStartOfDay());
+        }
+        unitRepository.save(unitToUpdate);
+        kpiService.recordOccupancyChange(unitToUpdate, 1);
+
+        return savedTenant;
+    }
+
+    // Get tenants for owner, newest first, one page at a time
     @GetMapping
     @PreAuthorize("hasRole('OWNER')")
-    public ResponseEntity<List<Tenant>> getOwnerTenants(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<CursorPage<Tenant>> getOwnerTenants(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size,
+                                                              @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            List<Tenant> tenants = tenantRepository.findByUnitBuildingOwnerEmail(email);
-            return ResponseEntity.ok(tenants);
+            int pageSize = PageCursor.pageSize(size);
+            List<Tenant> tenants = tenantRepository.findOwnerTenantsPage(currentUser.getOwnerId(), PageCursor.decode(cursor), pageSize);
+            return ResponseEntity.ok(CursorPage.of(tenants, pageSize,
+                tenant -> PageCursor.encode(tenant.getCreatedAt(), tenant.getId())));
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -180,12 +237,9 @@ public class TenantController {
     @GetMapping("/building/{buildingId}")
     @PreAuthorize("hasRole('OWNER')")
     public ResponseEntity<List<Tenant>> getBuildingTenants(@PathVariable Long buildingId,
-                                                          @RequestHeader("Authorization") String token) {
+                                                          @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            List<Tenant> tenants = tenantRepository.findByUnitBuildingIdAndUnitBuildingOwnerEmail(buildingId, email);
+            List<Tenant> tenants = tenantRepository.findByUnitBuildingIdAndOwnerId(buildingId, currentUser.getOwnerId());
             return ResponseEntity.ok(tenants);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
@@ -195,19 +249,16 @@ public class TenantController {
     // Get tenant details
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('OWNER') or hasRole('TENANT')")
-    public ResponseEntity<Tenant> getTenantById(@PathVariable Long id, @RequestHeader("Authorization") String token) {
+    public ResponseEntity<Tenant> getTenantById(@PathVariable Long id, @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
             Optional<Tenant> tenant = tenantRepository.findById(id);
             if (tenant.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
 
             // Check if user has permission to view this tenant
-            if (!tenant.get().getEmail().equals(email) && 
-                !tenant.get().getUnit().getBuilding().getOwner().getEmail().equals(email)) {
+            if (!id.equals(currentUser.getTenantId()) && 
+                !tenant.get().getUnit().getBuilding().getOwner().getId().equals(currentUser.getOwnerId())) {
                 return ResponseEntity.status(403).build();
             }
 
@@ -222,13 +273,15 @@ public class TenantController {
     @PreAuthorize("hasRole('TENANT')")
     public ResponseEntity<Tenant> updateTenant(@PathVariable Long id,
                                               @Valid @RequestBody Tenant tenantDetails,
-                                              @RequestHeader("Authorization") String token) {
+                                              @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
+            // Tenants may only update themselves; answered from the token without a query
+            if (!id.equals(currentUser.getTenantId())) {
+                return ResponseEntity.notFound().build();
+            }
+
             Optional<Tenant> existingTenant = tenantRepository.findById(id);
-            if (existingTenant.isEmpty() || !existingTenant.get().getEmail().equals(email)) {
+            if (existingTenant.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
 
@@ -254,12 +307,10 @@ public class TenantController {
     // Get current tenant profile
     @GetMapping("/profile")
     @PreAuthorize("hasRole('TENANT')")
-    public ResponseEntity<Tenant> getCurrentTenantProfile(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<Tenant> getCurrentTenantProfile(@CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            Optional<Tenant> tenant = tenantRepository.findByUserEmail(email);
+            Long tenantId = currentUser.getTenantId();
+            Optional<Tenant> tenant = tenantId != null ? tenantRepository.findById(tenantId) : Optional.empty();
             if (tenant.isEmpty()) {
                 return ResponseEntity.notFound().build();
             }
@@ -269,4 +320,10 @@ public class TenantController {
             return ResponseEntity.badRequest().build();
         }
     }
+
+    private ResponseEntity<AuthResponse> tooManyAttempts() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(roomCodeRateLimiter.retryAfterSeconds()))
+            .body(new AuthResponse("Error: Too many room code attempts, please try again later."));
+    }
 }
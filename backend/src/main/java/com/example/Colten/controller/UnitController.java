@@ -1,25 +1,29 @@
 package com.example.Colten.controller;
 
-import com.example.Colten.dto.UnitDTO;
+import com.example.Colten.dto.CursorPage;
 import com.example.Colten.dto.UnitCreateRequest;
 import com.example.Colten.dto.UnitDTO;
 import com.example.Colten.model.Building;
-import com.example.Colten.model.Owner;
 import com.example.Colten.model.Unit;
 import com.example.Colten.repository.BuildingRepository;
-import com.example.Colten.repository.OwnerRepository;
+import com.example.Colten.repository.IssueRepository;
+import com.example.Colten.repository.PaymentRepository;
 import com.example.Colten.repository.UnitRepository;
-import com.example.Colten.security.JwtUtils;
+import com.example.Colten.security.AuthenticatedUser;
+import com.example.Colten.security.CurrentUser;
+import com.example.Colten.service.KpiService;
+import com.example.Colten.service.RoomCodeAllocator;
+import com.example.Colten.util.PageCursor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
-import java.security.SecureRandom;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/units")
@@ -33,62 +37,58 @@ public class UnitController {
     private BuildingRepository buildingRepository;
 
     @Autowired
-    private OwnerRepository ownerRepository;
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private KpiService kpiService;
 
     @Autowired
-    private JwtUtils jwtUtils;
+    private PlatformTransactionManager transactionManager;
 
-    private static final String ROOM_CODE_CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-    private static final int ROOM_CODE_LENGTH = 8;
-    private final SecureRandom random = new SecureRandom();
+    @Autowired
+    private RoomCodeAllocator roomCodeAllocator;
 
     // Get all units for a specific building
     @GetMapping("/building/{buildingId}")
     @PreAuthorize("hasRole('OWNER')")
     public ResponseEntity<List<UnitDTO>> getBuildingUnits(@PathVariable Long buildingId, 
-                                                      @RequestHeader("Authorization") String token) {
+                                                      @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            Optional<Owner> owner = ownerRepository.findByEmail(email);
-            if (owner.isEmpty()) {
+            Long ownerId = currentUser.getOwnerId();
+            if (ownerId == null) {
                 return ResponseEntity.notFound().build();
             }
 
-            Optional<Building> building = buildingRepository.findById(buildingId);
-            if (building.isEmpty() || !building.get().getOwner().getId().equals(owner.get().getId())) {
+            Optional<Long> buildingOwnerId = buildingRepository.findOwnerIdById(buildingId);
+            if (buildingOwnerId.isEmpty() || !buildingOwnerId.get().equals(ownerId)) {
                 return ResponseEntity.notFound().build();
             }
 
-            List<Unit> units = unitRepository.findByBuildingIdOrderByUnitNumberAsc(buildingId);
-            List<UnitDTO> unitDTOs = units.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(unitDTOs);
+            return ResponseEntity.ok(unitRepository.findUnitDtosByBuildingId(buildingId));
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
-    // Get all units for the authenticated owner
+    // Get units for the authenticated owner, newest first, one page at a time
     @GetMapping
     @PreAuthorize("hasRole('OWNER')")
-    public ResponseEntity<List<UnitDTO>> getOwnerUnits(@RequestHeader("Authorization") String token) {
+    public ResponseEntity<CursorPage<UnitDTO>> getOwnerUnits(@RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer size,
+                                                             @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            Optional<Owner> owner = ownerRepository.findByEmail(email);
-            if (owner.isEmpty()) {
+            Long ownerId = currentUser.getOwnerId();
+            if (ownerId == null) {
                 return ResponseEntity.notFound().build();
             }
 
-            List<Unit> units = unitRepository.findByBuildingOwnerId(owner.get().getId());
-            List<UnitDTO> unitDTOs = units.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(unitDTOs);
+            int pageSize = PageCursor.pageSize(size);
+            List<UnitDTO> units = unitRepository.findOwnerUnitsPage(ownerId, PageCursor.decode(cursor), pageSize);
+            return ResponseEntity.ok(CursorPage.of(units, pageSize,
+                    unit -> PageCursor.encode(unit.getCreatedAt(), unit.getId())));
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -97,23 +97,16 @@ public class UnitController {
     // Get a specific unit by ID
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('OWNER')")
-    public ResponseEntity<UnitDTO> getUnitById(@PathVariable Long id, @RequestHeader("Authorization") String token) {
+    public ResponseEntity<UnitDTO> getUnitById(@PathVariable Long id, @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            Optional<Owner> owner = ownerRepository.findByEmail(email);
-            if (owner.isEmpty()) {
+            Long ownerId = currentUser.getOwnerId();
+            if (ownerId == null) {
                 return ResponseEntity.notFound().build();
             }
 
-            Optional<Unit> unit = unitRepository.findById(id);
-            if (unit.isEmpty() || !unit.get().getBuilding().getOwner().getId().equals(owner.get().getId())) {
-                return ResponseEntity.notFound().build();
-            }
-
-            UnitDTO unitDTO = convertToDTO(unit.get());
-            return ResponseEntity.ok(unitDTO);
+            return unitRepository.findUnitDtoByIdAndOwnerId(id, ownerId)
+                    .map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -123,19 +116,16 @@ public class UnitController {
     @PostMapping
     @PreAuthorize("hasRole('OWNER')")
     public ResponseEntity<UnitDTO> createUnit(@Valid @RequestBody UnitCreateRequest unitRequest, 
-                                          @RequestHeader("Authorization") String token) {
+                                          @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            Optional<Owner> owner = ownerRepository.findByEmail(email);
-            if (owner.isEmpty()) {
+            Long ownerId = currentUser.getOwnerId();
+            if (ownerId == null) {
                 return ResponseEntity.notFound().build();
             }
 
             // Verify the building belongs to the owner
             Optional<Building> building = buildingRepository.findById(unitRequest.getBuildingId());
-            if (building.isEmpty() || !building.get().getOwner().getId().equals(owner.get().getId())) {
+            if (building.isEmpty() || !building.get().getOwner().getId().equals(ownerId)) {
                 return ResponseEntity.notFound().build();
             }
 
@@ -161,12 +151,15 @@ public class UnitController {
             unit.setLeaseStartDate(unitRequest.getLeaseStartDate());
             unit.setLeaseEndDate(unitRequest.getLeaseEndDate());
 
-            // Generate unique room code
-            String roomCode = generateUniqueRoomCode();
-            unit.setRoomCode(roomCode);
             unit.setBuilding(building.get());
 
-            Unit savedUnit = unitRepository.save(unit);
+            // Save with a freshly allocated room code, retried if the code turns out to be taken
+            Unit savedUnit = roomCodeAllocator.withUniqueCode(roomCode -> {
+                unit.setRoomCode(roomCode);
+                Unit saved = unitRepository.save(unit);
+                kpiService.recordUnitCreated(saved);
+                return saved;
+            });
             UnitDTO unitDTO = convertToDTO(savedUnit);
             return ResponseEntity.ok(unitDTO);
         } catch (Exception e) {
@@ -179,18 +172,15 @@ public class UnitController {
     @PreAuthorize("hasRole('OWNER')")
     public ResponseEntity<UnitDTO> updateUnit(@PathVariable Long id, 
                                           @Valid @RequestBody Unit unitDetails,
-                                          @RequestHeader("Authorization") String token) {
+                                          @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            Optional<Owner> owner = ownerRepository.findByEmail(email);
-            if (owner.isEmpty()) {
+            Long ownerId = currentUser.getOwnerId();
+            if (ownerId == null) {
                 return ResponseEntity.notFound().build();
             }
 
             Optional<Unit> existingUnit = unitRepository.findById(id);
-            if (existingUnit.isEmpty() || !existingUnit.get().getBuilding().getOwner().getId().equals(owner.get().getId())) {
+            if (existingUnit.isEmpty() || !existingUnit.get().getBuilding().getOwner().getId().equals(ownerId)) {
                 return ResponseEntity.notFound().build();
             }
 
@@ -223,26 +213,65 @@ public class UnitController {
         }
     }
 
+    // Move a unit to another of the owner's buildings
+    @PutMapping("/{id}/building")
+    @PreAuthorize("hasRole('OWNER')")
+    public ResponseEntity<UnitDTO> moveUnit(@PathVariable Long id,
+                                            @RequestParam Long buildingId,
+                                            @CurrentUser AuthenticatedUser currentUser) {
+        try {
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                Long ownerId = currentUser.getOwnerId();
+                if (ownerId == null) {
+                    return ResponseEntity.notFound().build();
+                }
+
+                Optional<Unit> existingUnit = unitRepository.findById(id);
+                if (existingUnit.isEmpty() || !existingUnit.get().getBuilding().getOwner().getId().equals(ownerId)) {
+                    return ResponseEntity.notFound().build();
+                }
+
+                Optional<Building> target = buildingRepository.findById(buildingId);
+                if (target.isEmpty() || !target.get().getOwner().getId().equals(ownerId)) {
+                    return ResponseEntity.notFound().build();
+                }
+
+                Unit unit = existingUnit.get();
+                unit.setBuilding(target.get());
+                Unit updatedUnit = unitRepository.save(unit);
+
+                // Keep the denormalized ids on the unit's issues and payments in step
+                issueRepository.updateOwnershipByUnitId(id, ownerId, buildingId);
+                paymentRepository.updateOwnershipByUnitId(id, ownerId, buildingId);
+                kpiService.recordUnitMoved(ownerId);
+
+                return ResponseEntity.ok(convertToDTO(updatedUnit));
+            });
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // Delete a unit
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('OWNER')")
-    public ResponseEntity<?> deleteUnit(@PathVariable Long id, @RequestHeader("Authorization") String token) {
+    public ResponseEntity<?> deleteUnit(@PathVariable Long id, @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            Optional<Owner> owner = ownerRepository.findByEmail(email);
-            if (owner.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
-
-            Optional<Unit> unit = unitRepository.findById(id);
-            if (unit.isEmpty() || !unit.get().getBuilding().getOwner().getId().equals(owner.get().getId())) {
-                return ResponseEntity.notFound().build();
-            }
-
-            unitRepository.delete(unit.get());
-            return ResponseEntity.ok().build();
+            return new TransactionTemplate(transactionManager).execute(status -> {
+                Long ownerId = currentUser.getOwnerId();
+                if (ownerId == null) {
+                    return ResponseEntity.notFound().build();
+                }
+
+                Optional<Unit> unit = unitRepository.findById(id);
+                if (unit.isEmpty() || !unit.get().getBuilding().getOwner().getId().equals(ownerId)) {
+                    return ResponseEntity.notFound().build();
+                }
+
+                unitRepository.delete(unit.get());
+                kpiService.recordCascadeDelete(ownerId, null);
+                return ResponseEntity.ok().build();
+            });
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -251,26 +280,23 @@ public class UnitController {
     // Regenerate room code for a unit
     @PostMapping("/{id}/regenerate-room-code")
     @PreAuthorize("hasRole('OWNER')")
-    public ResponseEntity<UnitDTO> regenerateRoomCode(@PathVariable Long id, @RequestHeader("Authorization") String token) {
+    public ResponseEntity<UnitDTO> regenerateRoomCode(@PathVariable Long id, @CurrentUser AuthenticatedUser currentUser) {
         try {
-            String jwt = token.substring(7);
-            String email = jwtUtils.getUserNameFromJwtToken(jwt);
-            
-            Optional<Owner> owner = ownerRepository.findByEmail(email);
-            if (owner.isEmpty()) {
+            Long ownerId = currentUser.getOwnerId();
+            if (ownerId == null) {
                 return ResponseEntity.notFound().build();
             }
 
             Optional<Unit> existingUnit = unitRepository.findById(id);
-            if (existingUnit.isEmpty() || !existingUnit.get().getBuilding().getOwner().getId().equals(owner.get().getId())) {
+            if (existingUnit.isEmpty() || !existingUnit.get().getBuilding().getOwner().getId().equals(ownerId)) {
                 return ResponseEntity.notFound().build();
             }
 
             Unit unit = existingUnit.get();
-            String newRoomCode = generateUniqueRoomCode();
-            unit.setRoomCode(newRoomCode);
-
-            Unit updatedUnit = unitRepository.save(unit);
+            Unit updatedUnit = roomCodeAllocator.withUniqueCode(newRoomCode -> {
+                unit.setRoomCode(newRoomCode);
+                return unitRepository.save(unit);
+            });
             UnitDTO unitDTO = convertToDTO(updatedUnit);
             return ResponseEntity.ok(unitDTO);
         } catch (Exception e) {
@@ -289,19 +315,6 @@ public class UnitController {
         }
     }
 
-    private String generateUniqueRoomCode() {
-        String roomCode;
-        do {
-            StringBuilder sb = new StringBuilder(ROOM_CODE_LENGTH);
-            for (int i = 0; i < ROOM_CODE_LENGTH; i++) {
-                sb.append(ROOM_CODE_CHARACTERS.charAt(random.nextInt(ROOM_CODE_CHARACTERS.length())));
-            }
-            roomCode = sb.toString();
-        } while (unitRepository.existsByRoomCode(roomCode));
-        
-        return roomCode;
-    }
-
     private UnitDTO convertToDTO(Unit unit) {
         UnitDTO dto = new UnitDTO();
         dto.setId(unit.getId());
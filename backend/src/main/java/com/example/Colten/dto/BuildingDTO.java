@@ -1,5 +1,6 @@
 package com.example.Colten.dto;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class BuildingDTO {
@@ -9,6 +10,11 @@ public class BuildingDTO {
 
     public BuildingDTO() {}
 
+    // Used by JPQL constructor expressions; units are attached afterwards
+    public BuildingDTO(Long id, String name) {
+        this(id, name, new ArrayList<>());
+    }
+
     public BuildingDTO(Long id, String name, List<UnitDTO> units) {
         this.id = id;
         this.name = name;
@@ -0,0 +1,75 @@
+package com.example.Colten.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Building dashboard summary built from counts and aggregates (see BuildingRepository.getBuildingDashboardStats),
+ * with revenue and pending payments taken from the materialized BuildingKpi row.
+ */
+public class BuildingDashboardStats {
+    private String buildingName;
+    private Long totalUnits;
+    private Long occupiedUnits;
+    private Long totalIssues;
+    private Long openIssues;
+    private Long resolvedIssues;
+    private Long totalPayments;
+    private LocalDateTime lastPaymentDate;
+    private BigDecimal lastPaymentAmount;
+    private BigDecimal monthlyRevenue = BigDecimal.ZERO;
+    private BigDecimal totalRevenue = BigDecimal.ZERO;
+    private Long pendingPayments = 0L;
+
+    public BuildingDashboardStats() {}
+
+    public BuildingDashboardStats(String buildingName, Long totalUnits, Long occupiedUnits,
+                                  Long totalIssues, Long openIssues, Long resolvedIssues, Long totalPayments,
+                                  LocalDateTime lastPaymentDate, BigDecimal lastPaymentAmount) {
+        this.buildingName = buildingName;
+        this.totalUnits = totalUnits != null ? totalUnits : 0L;
+        this.occupiedUnits = occupiedUnits != null ? occupiedUnits : 0L;
+        this.totalIssues = totalIssues != null ? totalIssues : 0L;
+        this.openIssues = openIssues != null ? openIssues : 0L;
+        this.resolvedIssues = resolvedIssues != null ? resolvedIssues : 0L;
+        this.totalPayments = totalPayments != null ? totalPayments : 0L;
+        this.lastPaymentDate = lastPaymentDate;
+        this.lastPaymentAmount = lastPaymentAmount;
+    }
+
+    public String getBuildingName() { return buildingName; }
+    public void setBuildingName(String buildingName) { this.buildingName = buildingName; }
+
+    public Long getTotalUnits() { return totalUnits; }
+    public void setTotalUnits(Long totalUnits) { this.totalUnits = totalUnits; }
+
+    public Long getOccupiedUnits() { return occupiedUnits; }
+    public void setOccupiedUnits(Long occupiedUnits) { this.occupiedUnits = occupiedUnits; }
+
+    public Long getTotalIssues() { return totalIssues; }
+    public void setTotalIssues(Long totalIssues) { this.totalIssues = totalIssues; }
+
+    public Long getOpenIssues() { return openIssues; }
+    public void setOpenIssues(Long openIssues) { this.openIssues = openIssues; }
+
+    public Long getResolvedIssues() { return resolvedIssues; }
+    public void setResolvedIssues(Long resolvedIssues) { this.resolvedIssues = resolvedIssues; }
+
+    public Long getTotalPayments() { return totalPayments; }
+    public void setTotalPayments(Long totalPayments) { this.totalPayments = totalPayments; }
+
+    public LocalDateTime getLastPaymentDate() { return lastPaymentDate; }
+    public void setLastPaymentDate(LocalDateTime lastPaymentDate) { this.lastPaymentDate = lastPaymentDate; }
+
+    public BigDecimal getLastPaymentAmount() { return lastPaymentAmount; }
+    public void setLastPaymentAmount(BigDecimal lastPaymentAmount) { this.lastPaymentAmount = lastPaymentAmount; }
+
+    public BigDecimal getMonthlyRevenue() { return monthlyRevenue; }
+    public void setMonthlyRevenue(BigDecimal monthlyRevenue) { this.monthlyRevenue = monthlyRevenue; }
+
+    public BigDecimal getTotalRevenue() { return totalRevenue; }
+    public void setTotalRevenue(BigDecimal totalRevenue) { this.totalRevenue = totalRevenue; }
+
+    public Long getPendingPayments() { return pendingPayments; }
+    public void setPendingPayments(Long pendingPayments) { this.pendingPayments = pendingPayments; }
+}
@@ -0,0 +1,118 @@
+package com.example.Colten.dto;
+
+import com.example.Colten.model.IssueCategory;
+import com.example.Colten.model.IssuePriority;
+import com.example.Colten.model.IssueStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Issue as returned by the API, built by IssueRepository projections rather than by
+ * serializing the entity. Attachment URLs are filled in with one batched query per list.
+ */
+public class IssueResponse {
+    private Long id;
+    private String title;
+    private String description;
+    private IssueCategory category;
+    private IssuePriority priority;
+    private IssueStatus status;
+    private String locationInUnit;
+    private String adminNotes;
+    private String resolutionNotes;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime resolvedAt;
+    private LocalDateTime expectedResolutionDate;
+    private List<String> attachmentUrls = new ArrayList<>();
+    private UserSummary tenant;
+    private UnitSummary unit;
+    private UserSummary assignedTo;
+    @JsonIgnore
+    private Long ownerId;
+
+    public IssueResponse() {}
+
+    public IssueResponse(Long id, String title, String description, IssueCategory category,
+                         IssuePriority priority, IssueStatus status, String locationInUnit,
+                         String adminNotes, String resolutionNotes, LocalDateTime createdAt,
+                         LocalDateTime updatedAt, LocalDateTime resolvedAt, LocalDateTime expectedResolutionDate,
+                         Long ownerId, Long tenantId, String tenantFirstName, String tenantLastName, String tenantEmail,
+                         Long unitId, String unitNumber, Long buildingId, String buildingName,
+                         Long assigneeId, String assigneeFirstName, String assigneeLastName, String assigneeEmail) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.category = category;
+        this.priority = priority;
+        this.status = status;
+        this.locationInUnit = locationInUnit;
+        this.adminNotes = adminNotes;
+        this.resolutionNotes = resolutionNotes;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.resolvedAt = resolvedAt;
+        this.expectedResolutionDate = expectedResolutionDate;
+        this.ownerId = ownerId;
+        this.tenant = new UserSummary(tenantId, tenantFirstName, tenantLastName, tenantEmail);
+        this.unit = new UnitSummary(unitId, unitNumber, buildingId, buildingName);
+        this.assignedTo = UserSummary.ofNullable(assigneeId, assigneeFirstName, assigneeLastName, assigneeEmail);
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public IssueCategory getCategory() { return category; }
+    public void setCategory(IssueCategory category) { this.category = category; }
+
+    public IssuePriority getPriority() { return priority; }
+    public void setPriority(IssuePriority priority) { this.priority = priority; }
+
+    public IssueStatus getStatus() { return status; }
+    public void setStatus(IssueStatus status) { this.status = status; }
+
+    public String getLocationInUnit() { return locationInUnit; }
+    public void setLocationInUnit(String locationInUnit) { this.locationInUnit = locationInUnit; }
+
+    public String getAdminNotes() { return adminNotes; }
+    public void setAdminNotes(String adminNotes) { this.adminNotes = adminNotes; }
+
+    public String getResolutionNotes() { return resolutionNotes; }
+    public void setResolutionNotes(String resolutionNotes) { this.resolutionNotes = resolutionNotes; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public LocalDateTime getResolvedAt() { return resolvedAt; }
+    public void setResolvedAt(LocalDateTime resolvedAt) { this.resolvedAt = resolvedAt; }
+
+    public LocalDateTime getExpectedResolutionDate() { return expectedResolutionDate; }
+    public void setExpectedResolutionDate(LocalDateTime expectedResolutionDate) { this.expectedResolutionDate = expectedResolutionDate; }
+
+    public List<String> getAttachmentUrls() { return attachmentUrls; }
+    public void setAttachmentUrls(List<String> attachmentUrls) { this.attachmentUrls = attachmentUrls; }
+
+    public UserSummary getTenant() { return tenant; }
+    public void setTenant(UserSummary tenant) { this.tenant = tenant; }
+
+    public UnitSummary getUnit() { return unit; }
+    public void setUnit(UnitSummary unit) { this.unit = unit; }
+
+    public UserSummary getAssignedTo() { return assignedTo; }
+    public void setAssignedTo(UserSummary assignedTo) { this.assignedTo = assignedTo; }
+
+    public Long getOwnerId() { return ownerId; }
+    public void setOwnerId(Long ownerId) { this.ownerId = ownerId; }
+}
@@ -0,0 +1,49 @@
+package com.example.Colten.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Owner KPIs, read from the materialized OwnerKpi row (see KpiService).
+ */
+public class OwnerDashboardStats {
+    private BigDecimal monthlyRevenue;
+    private BigDecimal totalRevenue;
+    private Long totalPayments;
+    private Long pendingPayments;
+    private Long openIssues;
+    private Long totalUnits = 0L;
+    private Long occupiedUnits = 0L;
+
+    public OwnerDashboardStats() {}
+
+    // Missing counters are normalised to zero
+    public OwnerDashboardStats(BigDecimal monthlyRevenue, BigDecimal totalRevenue, Long totalPayments,
+                               Long pendingPayments, Long openIssues) {
+        this.monthlyRevenue = monthlyRevenue != null ? monthlyRevenue : BigDecimal.ZERO;
+        this.totalRevenue = totalRevenue != null ? totalRevenue : BigDecimal.ZERO;
+        this.totalPayments = totalPayments != null ? totalPayments : 0L;
+        this.pendingPayments = pendingPayments != null ? pendingPayments : 0L;
+        this.openIssues = openIssues != null ? openIssues : 0L;
+    }
+
+    public BigDecimal getMonthlyRevenue() { return monthlyRevenue; }
+    public void setMonthlyRevenue(BigDecimal monthlyRevenue) { this.monthlyRevenue = monthlyRevenue; }
+
+    public BigDecimal getTotalRevenue() { return totalRevenue; }
+    public void setTotalRevenue(BigDecimal totalRevenue) { this.totalRevenue = totalRevenue; }
+
+    public Long getTotalPayments() { return totalPayments; }
+    public void setTotalPayments(Long totalPayments) { this.totalPayments = totalPayments; }
+
+    public Long getPendingPayments() { return pendingPayments; }
+    public void setPendingPayments(Long pendingPayments) { this.pendingPayments = pendingPayments; }
+
+    public Long getOpenIssues() { return openIssues; }
+    public void setOpenIssues(Long openIssues) { this.openIssues = openIssues; }
+
+    public Long getTotalUnits() { return totalUnits; }
+    public void setTotalUnits(Long totalUnits) { this.totalUnits = totalUnits; }
+
+    public Long getOccupiedUnits() { return occupiedUnits; }
+    public void setOccupiedUnits(Long occupiedUnits) { this.occupiedUnits = occupiedUnits; }
+}
@@ -0,0 +1,139 @@
+package com.example.Colten.dto;
+
+import com.example.Colten.model.PaymentMethod;
+import com.example.Colten.model.PaymentStatus;
+import com.example.Colten.model.PaymentType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Payment as returned by the API, built by PaymentRepository projections rather than by
+ * serializing the entity. Stripe charge ids and internal notes stay server-side.
+ */
+public class PaymentResponse {
+    private Long id;
+    private BigDecimal amount;
+    private PaymentType paymentType;
+    private PaymentMethod paymentMethod;
+    private PaymentStatus status;
+    private LocalDateTime paymentDate;
+    private LocalDateTime dueDate;
+    private LocalDateTime processedAt;
+    private String description;
+    private String stripePaymentIntentId;
+    private String stripeReceiptUrl;
+    private String referenceNumber;
+    private BigDecimal lateFee;
+    private Boolean isLate;
+    private BigDecimal refundAmount;
+    private LocalDateTime refundDate;
+    private LocalDateTime paymentPeriodStart;
+    private LocalDateTime paymentPeriodEnd;
+    private LocalDateTime createdAt;
+    private UserSummary tenant;
+    private UnitSummary unit;
+    @JsonIgnore
+    private Long ownerId;
+
+    public PaymentResponse() {}
+
+    public PaymentResponse(Long id, BigDecimal amount, PaymentType paymentType, PaymentMethod paymentMethod,
+                           PaymentStatus status, LocalDateTime paymentDate, LocalDateTime dueDate,
+                           LocalDateTime processedAt, String description, String stripePaymentIntentId,
+                           String stripeReceiptUrl, String referenceNumber, BigDecimal lateFee, Boolean isLate,
+                           BigDecimal refundAmount, LocalDateTime refundDate, LocalDateTime paymentPeriodStart,
+                           LocalDateTime paymentPeriodEnd, LocalDateTime createdAt, Long ownerId,
+                           Long tenantId, String tenantFirstName, String tenantLastName, String tenantEmail,
+                           Long unitId, String unitNumber, Long buildingId, String buildingName) {
+        this.id = id;
+        this.amount = amount;
+        this.paymentType = paymentType;
+        this.paymentMethod = paymentMethod;
+        this.status = status;
+        this.paymentDate = paymentDate;
+        this.dueDate = dueDate;
+        this.processedAt = processedAt;
+        this.description = description;
+        this.stripePaymentIntentId = stripePaymentIntentId;
+        this.stripeReceiptUrl = stripeReceiptUrl;
+        this.referenceNumber = referenceNumber;
+        this.lateFee = lateFee;
+        this.isLate = isLate;
+        this.refundAmount = refundAmount;
+        this.refundDate = refundDate;
+        this.paymentPeriodStart = paymentPeriodStart;
+        this.paymentPeriodEnd = paymentPeriodEnd;
+        this.createdAt = createdAt;
+        this.ownerId = ownerId;
+        this.tenant = new UserSummary(tenantId, tenantFirstName, tenantLastName, tenantEmail);
+        this.unit = new UnitSummary(unitId, unitNumber, buildingId, buildingName);
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public BigDecimal getAmount() { return amount; }
+    public void setAmount(BigDecimal amount) { this.amount = amount; }
+
+    public PaymentType getPaymentType() { return paymentType; }
+    public void setPaymentType(PaymentType paymentType) { this.paymentType = paymentType; }
+
+    public PaymentMethod getPaymentMethod() { return paymentMethod; }
+    public void setPaymentMethod(PaymentMethod paymentMethod) { this.paymentMethod = paymentMethod; }
+
+    public PaymentStatus getStatus() { return status; }
+    public void setStatus(PaymentStatus status) { this.status = status; }
+
+    public LocalDateTime getPaymentDate() { return paymentDate; }
+    public void setPaymentDate(LocalDateTime paymentDate) { this.paymentDate = paymentDate; }
+
+    public LocalDateTime getDueDate() { return dueDate; }
+    public void setDueDate(LocalDateTime dueDate) { this.dueDate = dueDate; }
+
+    public LocalDateTime getProcessedAt() { return processedAt; }
+    public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public String getStripePaymentIntentId() { return stripePaymentIntentId; }
+    public void setStripePaymentIntentId(String stripePaymentIntentId) { this.stripePaymentIntentId = stripePaymentIntentId; }
+
+    public String getStripeReceiptUrl() { return stripeReceiptUrl; }
+    public void setStripeReceiptUrl(String stripeReceiptUrl) { this.stripeReceiptUrl = stripeReceiptUrl; }
+
+    public String getReferenceNumber() { return referenceNumber; }
+    public void setReferenceNumber(String referenceNumber) { this.referenceNumber = referenceNumber; }
+
+    public BigDecimal getLateFee() { return lateFee; }
+    public void setLateFee(BigDecimal lateFee) { this.lateFee = lateFee; }
+
+    public Boolean getIsLate() { return isLate; }
+    public void setIsLate(Boolean isLate) { this.isLate = isLate; }
+
+    public BigDecimal getRefundAmount() { return refundAmount; }
+    public void setRefundAmount(BigDecimal refundAmount) { this.refundAmount = refundAmount; }
+
+    public LocalDateTime getRefundDate() { return refundDate; }
+    public void setRefundDate(LocalDateTime refundDate) { this.refundDate = refundDate; }
+
+    public LocalDateTime getPaymentPeriodStart() { return paymentPeriodStart; }
+    public void setPaymentPeriodStart(LocalDateTime paymentPeriodStart) { this.paymentPeriodStart = paymentPeriodStart; }
+
+    public LocalDateTime getPaymentPeriodEnd() { return paymentPeriodEnd; }
+    public void setPaymentPeriodEnd(LocalDateTime paymentPeriodEnd) { this.paymentPeriodEnd = paymentPeriodEnd; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public UserSummary getTenant() { return tenant; }
+    public void setTenant(UserSummary tenant) { this.tenant = tenant; }
+
+    public UnitSummary getUnit() { return unit; }
+    public void setUnit(UnitSummary unit) { this.unit = unit; }
+
+    public Long getOwnerId() { return ownerId; }
+    public void setOwnerId(Long ownerId) { this.ownerId = ownerId; }
+}
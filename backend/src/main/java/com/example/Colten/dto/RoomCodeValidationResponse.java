@@ -0,0 +1,109 @@
+package com.example.Colten.dto;
+
+import com.example.Colten.model.UnitType;
+
+import java.math.BigDecimal;
+
+/**
+ * What the public room code check returns: the unit details shown on the registration form
+ * and the building it is in, nothing about the owner or current occupants.
+ */
+public class RoomCodeValidationResponse {
+    private Long id;
+    private String unitNumber;
+    private Integer floor;
+    private Integer bedrooms;
+    private BigDecimal bathrooms;
+    private Integer squareFeet;
+    private BigDecimal monthlyRent;
+    private BigDecimal securityDeposit;
+    private String description;
+    private UnitType unitType;
+    private Boolean isAvailable;
+    private String roomCode;
+    private BuildingInfo building;
+
+    public RoomCodeValidationResponse() {}
+
+    // Used by the JPQL constructor expression in UnitRepository
+    public RoomCodeValidationResponse(Long id, String unitNumber, Integer floor, Integer bedrooms, BigDecimal bathrooms,
+                                      Integer squareFeet, BigDecimal monthlyRent, BigDecimal securityDeposit,
+                                      String description, UnitType unitType, Boolean isAvailable, String roomCode,
+                                      Long buildingId, String buildingName, String buildingAddress) {
+        this.id = id;
+        this.unitNumber = unitNumber;
+        this.floor = floor;
+        this.bedrooms = bedrooms;
+        this.bathrooms = bathrooms;
+        this.squareFeet = squareFeet;
+        this.monthlyRent = monthlyRent;
+        this.securityDeposit = securityDeposit;
+        this.description = description;
+        this.unitType = unitType;
+        this.isAvailable = isAvailable;
+        this.roomCode = roomCode;
+        this.building = new BuildingInfo(buildingId, buildingName, buildingAddress);
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getUnitNumber() { return unitNumber; }
+    public void setUnitNumber(String unitNumber) { this.unitNumber = unitNumber; }
+
+    public Integer getFloor() { return floor; }
+    public void setFloor(Integer floor) { this.floor = floor; }
+
+    public Integer getBedrooms() { return bedrooms; }
+    public void setBedrooms(Integer bedrooms) { this.bedrooms = bedrooms; }
+
+    public BigDecimal getBathrooms() { return bathrooms; }
+    public void setBathrooms(BigDecimal bathrooms) { this.bathrooms = bathrooms; }
+
+    public Integer getSquareFeet() { return squareFeet; }
+    public void setSquareFeet(Integer squareFeet) { this.squareFeet = squareFeet; }
+
+    public BigDecimal getMonthlyRent() { return monthlyRent; }
+    public void setMonthlyRent(BigDecimal monthlyRent) { this.monthlyRent = monthlyRent; }
+
+    public BigDecimal getSecurityDeposit() { return securityDeposit; }
+    public void setSecurityDeposit(BigDecimal securityDeposit) { this.securityDeposit = securityDeposit; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public UnitType getUnitType() { return unitType; }
+    public void setUnitType(UnitType unitType) { this.unitType = unitType; }
+
+    public Boolean getIsAvailable() { return isAvailable; }
+    public void setIsAvailable(Boolean isAvailable) { this.isAvailable = isAvailable; }
+
+    public String getRoomCode() { return roomCode; }
+    public void setRoomCode(String roomCode) { this.roomCode = roomCode; }
+
+    public BuildingInfo getBuilding() { return building; }
+    public void setBuilding(BuildingInfo building) { this.building = building; }
+
+    public static class BuildingInfo {
+        private Long id;
+        private String name;
+        private String address;
+
+        public BuildingInfo() {}
+
+        public BuildingInfo(Long id, String name, String address) {
+            this.id = id;
+            this.name = name;
+            this.address = address;
+        }
+
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public String getAddress() { return address; }
+        public void setAddress(String address) { this.address = address; }
+    }
+}
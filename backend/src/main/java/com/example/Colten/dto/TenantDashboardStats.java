@@ -0,0 +1,67 @@
+package com.example.Colten.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Tenant dashboard summary built from counts and aggregates (see TenantRepository.getTenantDashboardStats).
+ */
+public class TenantDashboardStats {
+    private String unitNumber;
+    private String buildingName;
+    private BigDecimal monthlyRent;
+    private boolean hasUnit;
+    private Long totalIssues;
+    private Long openIssues;
+    private Long resolvedIssues;
+    private Long totalPayments;
+    private LocalDateTime lastPaymentDate;
+    private BigDecimal lastPaymentAmount;
+
+    public TenantDashboardStats() {}
+
+    public TenantDashboardStats(String unitNumber, String buildingName, BigDecimal monthlyRent,
+                                Long totalIssues, Long openIssues, Long resolvedIssues, Long totalPayments,
+                                LocalDateTime lastPaymentDate, BigDecimal lastPaymentAmount) {
+        this.hasUnit = unitNumber != null;
+        this.unitNumber = unitNumber != null ? unitNumber : "Not Assigned";
+        this.buildingName = buildingName != null ? buildingName : "Not Assigned";
+        this.monthlyRent = monthlyRent != null ? monthlyRent : BigDecimal.ZERO;
+        this.totalIssues = totalIssues != null ? totalIssues : 0L;
+        this.openIssues = openIssues != null ? openIssues : 0L;
+        this.resolvedIssues = resolvedIssues != null ? resolvedIssues : 0L;
+        this.totalPayments = totalPayments != null ? totalPayments : 0L;
+        this.lastPaymentDate = lastPaymentDate;
+        this.lastPaymentAmount = lastPaymentAmount;
+    }
+
+    public String getUnitNumber() { return unitNumber; }
+    public void setUnitNumber(String unitNumber) { this.unitNumber = unitNumber; }
+
+    public String getBuildingName() { return buildingName; }
+    public void setBuildingName(String buildingName) { this.buildingName = buildingName; }
+
+    public BigDecimal getMonthlyRent() { return monthlyRent; }
+    public void setMonthlyRent(BigDecimal monthlyRent) { this.monthlyRent = monthlyRent; }
+
+    public boolean isHasUnit() { return hasUnit; }
+    public void setHasUnit(boolean hasUnit) { this.hasUnit = hasUnit; }
+
+    public Long getTotalIssues() { return totalIssues; }
+    public void setTotalIssues(Long totalIssues) { this.totalIssues = totalIssues; }
+
+    public Long getOpenIssues() { return openIssues; }
+    public void setOpenIssues(Long openIssues) { this.openIssues = openIssues; }
+
+    public Long getResolvedIssues() { return resolvedIssues; }
+    public void setResolvedIssues(Long resolvedIssues) { this.resolvedIssues = resolvedIssues; }
+
+    public Long getTotalPayments() { return totalPayments; }
+    public void setTotalPayments(Long totalPayments) { this.totalPayments = totalPayments; }
+
+    public LocalDateTime getLastPaymentDate() { return lastPaymentDate; }
+    public void setLastPaymentDate(LocalDateTime lastPaymentDate) { this.lastPaymentDate = lastPaymentDate; }
+
+    public BigDecimal getLastPaymentAmount() { return lastPaymentAmount; }
+    public void setLastPaymentAmount(BigDecimal lastPaymentAmount) { this.lastPaymentAmount = lastPaymentAmount; }
+}
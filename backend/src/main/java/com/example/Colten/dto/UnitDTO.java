@@ -39,6 +39,40 @@ public class UnitDTO {
         this.buildingId = buildingId;
     }
 
+    // Used by the JPQL constructor expressions in UnitRepository
+    public UnitDTO(Long id, String unitNumber, Integer floor, Integer bedrooms, BigDecimal bathrooms,
+                   Integer squareFeet, BigDecimal monthlyRent, BigDecimal securityDeposit, String description,
+                   UnitType unitType, Boolean hasBalcony, Boolean hasDishwasher, Boolean hasWashingMachine,
+                   Boolean hasAirConditioning, Boolean furnished, Boolean petsAllowed, Boolean smokingAllowed,
+                   Boolean isAvailable, String roomCode, LocalDateTime leaseStartDate, LocalDateTime leaseEndDate,
+                   LocalDateTime createdAt, LocalDateTime updatedAt, Long buildingId, String buildingName) {
+        this.id = id;
+        this.unitNumber = unitNumber;
+        this.floor = floor;
+        this.bedrooms = bedrooms;
+        this.bathrooms = bathrooms;
+        this.squareFeet = squareFeet;
+        this.monthlyRent = monthlyRent;
+        this.securityDeposit = securityDeposit;
+        this.description = description;
+        this.unitType = unitType;
+        this.hasBalcony = hasBalcony;
+        this.hasDishwasher = hasDishwasher;
+        this.hasWashingMachine = hasWashingMachine;
+        this.hasAirConditioning = hasAirConditioning;
+        this.furnished = furnished;
+        this.petsAllowed = petsAllowed;
+        this.smokingAllowed = smokingAllowed;
+        this.isAvailable = isAvailable;
+        this.roomCode = roomCode;
+        this.leaseStartDate = leaseStartDate;
+        this.leaseEndDate = leaseEndDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.buildingId = buildingId;
+        this.buildingName = buildingName;
+    }
+
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -0,0 +1,45 @@
+package com.example.Colten.dto;
+
+/**
+ * Unit number and building name as embedded in issue and payment responses.
+ */
+public class UnitSummary {
+    private Long id;
+    private String unitNumber;
+    private BuildingSummary building;
+
+    public UnitSummary() {}
+
+    public UnitSummary(Long id, String unitNumber, Long buildingId, String buildingName) {
+        this.id = id;
+        this.unitNumber = unitNumber;
+        this.building = new BuildingSummary(buildingId, buildingName);
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getUnitNumber() { return unitNumber; }
+    public void setUnitNumber(String unitNumber) { this.unitNumber = unitNumber; }
+
+    public BuildingSummary getBuilding() { return building; }
+    public void setBuilding(BuildingSummary building) { this.building = building; }
+
+    public static class BuildingSummary {
+        private Long id;
+        private String name;
+
+        public BuildingSummary() {}
+
+        public BuildingSummary(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.Colten.dto;
+
+/**
+ * Public identity of a user as embedded in issue and payment responses.
+ */
+public class UserSummary {
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+
+    public UserSummary() {}
+
+    public UserSummary(Long id, String firstName, String lastName, String email) {
+        this.id = id;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.email = email;
+    }
+
+    // Null when the joined user is absent (e.g. an unassigned issue)
+    static UserSummary ofNullable(Long id, String firstName, String lastName, String email) {
+        return id != null ? new UserSummary(id, firstName, lastName, email) : null;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+}
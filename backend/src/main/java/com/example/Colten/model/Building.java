@@ -12,7 +12,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "buildings")
+@Table(name = "buildings", indexes = {
+    @Index(name = "idx_buildings_owner_created", columnList = "owner_id, created_at")
+})
 public class Building {
     
     @Id
@@ -0,0 +1,43 @@
+package com.example.Colten.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Materialized dashboard counters for one building, kept current by KpiService.
+ */
+@Entity
+@Table(name = "building_kpis", indexes = {
+    @Index(name = "idx_building_kpis_owner", columnList = "owner_id")
+})
+public class BuildingKpi extends KpiCounters {
+
+    @Id
+    @Column(name = "building_id")
+    private Long buildingId;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    public BuildingKpi() {}
+
+    public BuildingKpi(Long buildingId, Long ownerId) {
+        this.buildingId = buildingId;
+        this.ownerId = ownerId;
+    }
+
+    public Long getBuildingId() {
+        return buildingId;
+    }
+
+    public void setBuildingId(Long buildingId) {
+        this.buildingId = buildingId;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+}
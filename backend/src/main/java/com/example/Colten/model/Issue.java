@@ -10,7 +10,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "issues")
+@Table(name = "issues", indexes = {
+    @Index(name = "idx_issues_owner_created", columnList = "owner_id, created_at, id"),
+    @Index(name = "idx_issues_building_created", columnList = "building_id, created_at, id"),
+    @Index(name = "idx_issues_tenant_created", columnList = "tenant_id, created_at"),
+    @Index(name = "idx_issues_unit_created", columnList = "unit_id, created_at"),
+    @Index(name = "idx_issues_assignee_created", columnList = "assigned_to_id, created_at")
+})
 public class Issue {
     
     @Id
@@ -79,9 +85,19 @@ public class Issue {
     @JsonIgnore
     private Unit unit;
     
+    // Copied from unit -> building -> owner so owner and building lists are single-table scans
+    @Column(name = "owner_id")
+    @JsonIgnore
+    private Long ownerId;
+    
+    @Column(name = "building_id")
+    @JsonIgnore
+    private Long buildingId;
+    
     // Assigned to (could be owner, maintenance staff, etc.)
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_to_id")
+    @JsonIgnore
     private User assignedTo;
     
     // Constructors
@@ -224,9 +240,29 @@ public class Issue {
     }
     
     public void setUnit(Unit unit) {
+        if (this.unit != unit) {
+            this.ownerId = null;
+            this.buildingId = null;
+        }
         this.unit = unit;
     }
     
+    public Long getOwnerId() {
+        return ownerId;
+    }
+    
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+    
+    public Long getBuildingId() {
+        return buildingId;
+    }
+    
+    public void setBuildingId(Long buildingId) {
+        this.buildingId = buildingId;
+    }
+    
     public User getAssignedTo() {
         return assignedTo;
     }
@@ -259,9 +295,23 @@ public class Issue {
         return java.time.Duration.between(createdAt, endDate).toDays();
     }
     
+    @PrePersist
+    protected void onCreate() {
+        assignOwnership();
+    }
+    
     // Update timestamp before updating
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        assignOwnership();
+    }
+    
+    private void assignOwnership() {
+        if (unit != null && (ownerId == null || buildingId == null)) {
+            Building building = unit.getBuilding();
+            buildingId = building.getId();
+            ownerId = building.getOwner().getId();
+        }
     }
 }
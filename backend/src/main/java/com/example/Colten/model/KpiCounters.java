@@ -0,0 +1,157 @@
+package com.example.Colten.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.MappedSuperclass;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Counters shared by the per-owner and per-building KPI rows.
+ *
+ * monthRevenue only applies to the month recorded in revenueMonth (yyyymm); once the
+ * calendar moves on it reads as zero until the next completed payment rolls it over.
+ */
+@MappedSuperclass
+public abstract class KpiCounters {
+
+    @Column(name = "revenue_month", nullable = false)
+    private Integer revenueMonth = 0;
+
+    @Column(name = "month_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal monthRevenue = BigDecimal.ZERO;
+
+    @Column(name = "total_revenue", nullable = false, precision = 14, scale = 2)
+    private BigDecimal totalRevenue = BigDecimal.ZERO;
+
+    @Column(name = "total_payments", nullable = false)
+    private Long totalPayments = 0L;
+
+    @Column(name = "pending_payments", nullable = false)
+    private Long pendingPayments = 0L;
+
+    @Column(name = "open_issues", nullable = false)
+    private Long openIssues = 0L;
+
+    @Column(name = "total_units", nullable = false)
+    private Long totalUnits = 0L;
+
+    @Column(name = "occupied_units", nullable = false)
+    private Long occupiedUnits = 0L;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public static int monthKey(LocalDateTime dateTime) {
+        return dateTime.getYear() * 100 + dateTime.getMonthValue();
+    }
+
+    public BigDecimal getRevenueForMonth(int month) {
+        return revenueMonth == month ? monthRevenue : BigDecimal.ZERO;
+    }
+
+    public void copyCountersFrom(KpiCounters other) {
+        this.revenueMonth = other.revenueMonth;
+        this.monthRevenue = other.monthRevenue;
+        this.totalRevenue = other.totalRevenue;
+        this.totalPayments = other.totalPayments;
+        this.pendingPayments = other.pendingPayments;
+        this.openIssues = other.openIssues;
+        this.totalUnits = other.totalUnits;
+        this.occupiedUnits = other.occupiedUnits;
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Compares the counters as of the given month, ignoring a stale monthRevenue.
+     */
+    public boolean countersMatch(KpiCounters other, int month) {
+        return getRevenueForMonth(month).compareTo(other.getRevenueForMonth(month)) == 0
+            && totalRevenue.compareTo(other.totalRevenue) == 0
+            && Objects.equals(totalPayments, other.totalPayments)
+            && Objects.equals(pendingPayments, other.pendingPayments)
+            && Objects.equals(openIssues, other.openIssues)
+            && Objects.equals(totalUnits, other.totalUnits)
+            && Objects.equals(occupiedUnits, other.occupiedUnits);
+    }
+
+    public String describeCounters(int month) {
+        return "monthRevenue=" + getRevenueForMonth(month) + ", totalRevenue=" + totalRevenue
+            + ", totalPayments=" + totalPayments + ", pendingPayments=" + pendingPayments
+            + ", openIssues=" + openIssues + ", units=" + occupiedUnits + "/" + totalUnits;
+    }
+
+    // Getters and Setters
+    public Integer getRevenueMonth() {
+        return revenueMonth;
+    }
+
+    public void setRevenueMonth(Integer revenueMonth) {
+        this.revenueMonth = revenueMonth;
+    }
+
+    public BigDecimal getMonthRevenue() {
+        return monthRevenue;
+    }
+
+    public void setMonthRevenue(BigDecimal monthRevenue) {
+        this.monthRevenue = monthRevenue;
+    }
+
+    public BigDecimal getTotalRevenue() {
+        return totalRevenue;
+    }
+
+    public void setTotalRevenue(BigDecimal totalRevenue) {
+        this.totalRevenue = totalRevenue;
+    }
+
+    public Long getTotalPayments() {
+        return totalPayments;
+    }
+
+    public void setTotalPayments(Long totalPayments) {
+        this.totalPayments = totalPayments;
+    }
+
+    public Long getPendingPayments() {
+        return pendingPayments;
+    }
+
+    public void setPendingPayments(Long pendingPayments) {
+        this.pendingPayments = pendingPayments;
+    }
+
+    public Long getOpenIssues() {
+        return openIssues;
+    }
+
+    public void setOpenIssues(Long openIssues) {
+        this.openIssues = openIssues;
+    }
+
+    public Long getTotalUnits() {
+        return totalUnits;
+    }
+
+    public void setTotalUnits(Long totalUnits) {
+        this.totalUnits = totalUnits;
+    }
+
+    public Long getOccupiedUnits() {
+        return occupiedUnits;
+    }
+
+    public void setOccupiedUnits(Long occupiedUnits) {
+        this.occupiedUnits = occupiedUnits;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.Colten.model;
+
+/**
+ * Lifecycle of a payment outbox entry
+ */
+public enum OutboxStatus {
+    PENDING,
+    IN_FLIGHT,
+    DONE,
+    FAILED
+}
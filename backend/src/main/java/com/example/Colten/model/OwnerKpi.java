@@ -0,0 +1,29 @@
+package com.example.Colten.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Materialized dashboard counters for one owner, kept current by KpiService.
+ */
+@Entity
+@Table(name = "owner_kpis")
+public class OwnerKpi extends KpiCounters {
+
+    @Id
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    public OwnerKpi() {}
+
+    public OwnerKpi(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+}
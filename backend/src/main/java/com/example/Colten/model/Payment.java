@@ -10,7 +10,15 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+    @Index(name = "idx_payments_owner_date", columnList = "owner_id, payment_date, id"),
+    @Index(name = "idx_payments_building_date", columnList = "building_id, payment_date, id"),
+    @Index(name = "idx_payments_tenant_date", columnList = "tenant_id, payment_date"),
+    @Index(name = "idx_payments_unit_date", columnList = "unit_id, payment_date"),
+    @Index(name = "idx_payments_status_due", columnList = "status, due_date"),
+    @Index(name = "idx_payments_date", columnList = "payment_date"),
+    @Index(name = "idx_payments_intent", columnList = "stripe_payment_intent_id")
+})
 public class Payment {
     
     @Id
@@ -100,6 +108,15 @@ public class Payment {
     @JsonIgnore
     private Unit unit;
     
+    // Copied from unit -> building -> owner so owner and building lists are single-table scans
+    @Column(name = "owner_id")
+    @JsonIgnore
+    private Long ownerId;
+    
+    @Column(name = "building_id")
+    @JsonIgnore
+    private Long buildingId;
+    
     // For rent payments, this represents the month/year
     @Column(name = "payment_period_start")
     private LocalDateTime paymentPeriodStart;
@@ -302,9 +319,29 @@ public class Payment {
     }
     
     public void setUnit(Unit unit) {
+        if (this.unit != unit) {
+            this.ownerId = null;
+            this.buildingId = null;
+        }
         this.unit = unit;
     }
     
+    public Long getOwnerId() {
+        return ownerId;
+    }
+    
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+    
+    public Long getBuildingId() {
+        return buildingId;
+    }
+    
+    public void setBuildingId(Long buildingId) {
+        this.buildingId = buildingId;
+    }
+    
     public LocalDateTime getPaymentPeriodStart() {
         return paymentPeriodStart;
     }
@@ -351,9 +388,23 @@ public class Payment {
         return status == PaymentStatus.COMPLETED || status == PaymentStatus.CONFIRMED;
     }
     
+    @PrePersist
+    protected void onCreate() {
+        assignOwnership();
+    }
+    
     // Update timestamp before updating
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        assignOwnership();
+    }
+    
+    private void assignOwnership() {
+        if (unit != null && (ownerId == null || buildingId == null)) {
+            Building building = unit.getBuilding();
+            buildingId = building.getId();
+            ownerId = building.getOwner().getId();
+        }
     }
 }
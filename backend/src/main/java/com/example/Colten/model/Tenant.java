@@ -9,7 +9,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "tenants")
+@Table(name = "tenants", indexes = {
+    @Index(name = "idx_tenants_unit", columnList = "unit_id")
+})
 @PrimaryKeyJoinColumn(name = "user_id")
 public class Tenant extends User {
     
@@ -240,6 +242,12 @@ public class Tenant extends User {
     }
     
     public void setUnit(Unit unit) {
+        // Any change of unit, including a first assignment, changes the unit claim carried by issued tokens
+        Long currentUnitId = this.unit != null ? this.unit.getId() : null;
+        Long newUnitId = unit != null ? unit.getId() : null;
+        if (!java.util.Objects.equals(currentUnitId, newUnitId)) {
+            invalidateIssuedTokens();
+        }
         this.unit = unit;
     }
     
@@ -1,5 +1,6 @@
 package com.example.Colten.model;
 
+import com.example.Colten.service.UnitCacheEvictionListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
@@ -14,7 +15,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "units")
+@Table(name = "units", indexes = {
+    @Index(name = "idx_units_building_available_rent", columnList = "building_id, is_available, monthly_rent"),
+    @Index(name = "idx_units_building_number", columnList = "building_id, unit_number"),
+    @Index(name = "idx_units_building_created", columnList = "building_id, created_at, id")
+})
+@EntityListeners(UnitCacheEvictionListener.class)
 public class Unit {
     
     @Id
@@ -89,6 +95,11 @@ public class Unit {
     @Column(name = "room_code", unique = true)
     private String roomCode;
     
+    // Code this unit had before setRoomCode changed it, so cached lookups can be evicted by key
+    @Transient
+    @JsonIgnore
+    private String replacedRoomCode;
+    
     @Column(name = "lease_start_date")
     private LocalDateTime leaseStartDate;
     
@@ -283,9 +294,20 @@ public class Unit {
     }
     
     public void setRoomCode(String roomCode) {
+        if (replacedRoomCode == null && this.roomCode != null && !this.roomCode.equals(roomCode)) {
+            replacedRoomCode = this.roomCode;
+        }
         this.roomCode = roomCode;
     }
     
+    public String getReplacedRoomCode() {
+        return replacedRoomCode;
+    }
+    
+    public void clearReplacedRoomCode() {
+        replacedRoomCode = null;
+    }
+    
     public LocalDateTime getLeaseStartDate() {
         return leaseStartDate;
     }
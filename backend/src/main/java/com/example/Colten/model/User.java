@@ -1,5 +1,7 @@
 package com.example.Colten.model;
 
+import com.example.Colten.security.UserCacheEvictionListener;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -10,6 +12,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "users")
 @Inheritance(strategy = InheritanceType.JOINED)
+@EntityListeners(UserCacheEvictionListener.class)
 public class User {
     
     @Id
@@ -35,6 +38,7 @@ public class User {
     @NotBlank(message = "Password is required")
     @Size(min = 6, message = "Password must be at least 6 characters")
     @Column(name = "password", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
     
     @Size(max = 20)
@@ -72,6 +76,10 @@ public class User {
     @Column(name = "password_reset_expiry")
     private LocalDateTime passwordResetExpiry;
     
+    // Bumped whenever claims embedded in issued JWTs (role, unit assignment) go stale
+    @Column(name = "token_version", nullable = false)
+    private Integer tokenVersion = 0;
+    
     // Constructors
     public User() {}
     
@@ -137,6 +145,9 @@ public class User {
     }
     
     public void setRole(Role role) {
+        if (this.role != null && this.role != role) {
+            invalidateIssuedTokens();
+        }
         this.role = role;
     }
     
@@ -204,6 +215,19 @@ public class User {
         this.passwordResetExpiry = passwordResetExpiry;
     }
     
+    public Integer getTokenVersion() {
+        return tokenVersion;
+    }
+    
+    public void setTokenVersion(Integer tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+    
+    // Rejects every JWT issued before this call on the next request
+    public void invalidateIssuedTokens() {
+        tokenVersion = tokenVersion == null ? 1 : tokenVersion + 1;
+    }
+    
     // Utility method to get full name
     public String getFullName() {
         return firstName + " " + lastName;
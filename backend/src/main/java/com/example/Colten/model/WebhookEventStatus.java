@@ -0,0 +1,10 @@
+package com.example.Colten.model;
+
+/**
+ * Lifecycle of a received Stripe webhook event
+ */
+public enum WebhookEventStatus {
+    PENDING,
+    PROCESSED,
+    IGNORED
+}
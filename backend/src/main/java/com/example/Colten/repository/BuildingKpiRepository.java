@@ -0,0 +1,68 @@
+package com.example.Colten.repository;
+
+import com.example.Colten.model.BuildingKpi;
+import com.example.Colten.service.KpiDelta;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BuildingKpiRepository extends JpaRepository<BuildingKpi, Long> {
+
+    // Per-building totals recomputed from the source tables, used to rebuild and reconcile the counters
+    String SOURCE_TOTALS = "SELECT new com.example.Colten.service.KpiDelta(b.owner.id, b.id, " +
+           "(SELECT SUM(p.amount) FROM Payment p WHERE p.buildingId = b.id AND p.status = 'COMPLETED' " +
+           "AND p.paymentDate >= :monthStart AND p.paymentDate < :nextMonthStart), " +
+           "(SELECT SUM(p.amount) FROM Payment p WHERE p.buildingId = b.id AND p.status = 'COMPLETED'), " +
+           "(SELECT COUNT(p) FROM Payment p WHERE p.buildingId = b.id), " +
+           "(SELECT COUNT(p) FROM Payment p WHERE p.buildingId = b.id AND p.status IN ('PENDING', 'FAILED')), " +
+           "(SELECT COUNT(i) FROM Issue i WHERE i.buildingId = b.id AND i.status = 'OPEN'), " +
+           "(SELECT COUNT(u) FROM Unit u WHERE u.building.id = b.id), " +
+           "(SELECT COUNT(t) FROM Tenant t WHERE t.unit.building.id = b.id)) " +
+           "FROM Building b";
+
+    @Query(SOURCE_TOTALS)
+    List<KpiDelta> computeAllFromSource(@Param("monthStart") LocalDateTime monthStart,
+                                        @Param("nextMonthStart") LocalDateTime nextMonthStart);
+
+    @Query(SOURCE_TOTALS + " WHERE b.owner.id = :ownerId")
+    List<KpiDelta> computeFromSourceByOwnerId(@Param("ownerId") Long ownerId,
+                                              @Param("monthStart") LocalDateTime monthStart,
+                                              @Param("nextMonthStart") LocalDateTime nextMonthStart);
+
+    @Modifying
+    @Query("UPDATE BuildingKpi k SET " +
+           "k.monthRevenue = CASE WHEN k.revenueMonth = :month THEN k.monthRevenue + :monthRevenue ELSE :monthRevenue END, " +
+           "k.revenueMonth = :month, " +
+           "k.totalRevenue = k.totalRevenue + :totalRevenue, " +
+           "k.totalPayments = k.totalPayments + :totalPayments, " +
+           "k.pendingPayments = k.pendingPayments + :pendingPayments, " +
+           "k.openIssues = k.openIssues + :openIssues, " +
+           "k.totalUnits = k.totalUnits + :totalUnits, " +
+           "k.occupiedUnits = k.occupiedUnits + :occupiedUnits, " +
+           "k.updatedAt = :now " +
+           "WHERE k.buildingId = :buildingId")
+    int applyDelta(@Param("buildingId") Long buildingId,
+                   @Param("month") Integer month,
+                   @Param("monthRevenue") BigDecimal monthRevenue,
+                   @Param("totalRevenue") BigDecimal totalRevenue,
+                   @Param("totalPayments") Long totalPayments,
+                   @Param("pendingPayments") Long pendingPayments,
+                   @Param("openIssues") Long openIssues,
+                   @Param("totalUnits") Long totalUnits,
+                   @Param("occupiedUnits") Long occupiedUnits,
+                   @Param("now") LocalDateTime now);
+
+    // Held while one owner's rows are reconciled, so writers' deltas land before or after
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT k FROM BuildingKpi k WHERE k.ownerId = :ownerId ORDER BY k.buildingId")
+    List<BuildingKpi> findByOwnerIdForUpdate(@Param("ownerId") Long ownerId);
+}
@@ -1,17 +1,83 @@
 package com.example.Colten.repository;
 
+import com.example.Colten.dto.BuildingDTO;
+import com.example.Colten.dto.BuildingDashboardStats;
+import com.example.Colten.dto.UnitDTO;
 import com.example.Colten.model.Building;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Repository
 public interface BuildingRepository extends JpaRepository<Building, Long> {
-    List<Building> findByOwnerId(Long ownerId);
-    List<Building> findByOwnerIdOrderByCreatedAtDesc(Long ownerId);
+    // By the owner FK, without joining owners
+    @Query("SELECT b FROM Building b WHERE b.owner.id = :ownerId ORDER BY b.createdAt DESC")
+    List<Building> findByOwnerIdOrderByCreatedAtDesc(@Param("ownerId") Long ownerId);
     List<Building> findByNameContainingIgnoreCase(String name);
     List<Building> findByCityIgnoreCase(String city);
     List<Building> findByStateIgnoreCase(String state);
     List<Building> findByPetFriendly(boolean petFriendly);
+    
+    // Ownership check without loading the building
+    @Query("SELECT b.owner.id FROM Building b WHERE b.id = :buildingId")
+    Optional<Long> findOwnerIdById(@Param("buildingId") Long buildingId);
+    
+    // Building summaries without units; see findOwnerBuildingSummaries
+    @Query("SELECT new com.example.Colten.dto.BuildingDTO(b.id, b.name) FROM Building b " +
+           "WHERE b.owner.id = :ownerId ORDER BY b.createdAt ASC, b.id ASC")
+    List<BuildingDTO> findSummariesByOwnerId(@Param("ownerId") Long ownerId);
+    
+    @Query("SELECT new com.example.Colten.dto.BuildingDTO(b.id, b.name) FROM Building b " +
+           "WHERE b.id = :buildingId AND b.owner.id = :ownerId")
+    Optional<BuildingDTO> findSummaryByIdAndOwnerId(@Param("buildingId") Long buildingId, @Param("ownerId") Long ownerId);
+    
+    @Query("SELECT new com.example.Colten.dto.UnitDTO(u.id, u.unitNumber, u.building.id) FROM Unit u " +
+           "WHERE u.building.id IN :buildingIds ORDER BY u.id ASC")
+    List<UnitDTO> findUnitSummariesByBuildingIds(@Param("buildingIds") Collection<Long> buildingIds);
+    
+    // Owner's buildings with their unit summaries in two queries, however many buildings there are
+    default List<BuildingDTO> findOwnerBuildingSummaries(Long ownerId) {
+        List<BuildingDTO> buildings = findSummariesByOwnerId(ownerId);
+        attachUnitSummaries(buildings);
+        return buildings;
+    }
+    
+    // Single building with its unit summaries, empty if it does not belong to the owner
+    default Optional<BuildingDTO> findBuildingSummary(Long buildingId, Long ownerId) {
+        Optional<BuildingDTO> building = findSummaryByIdAndOwnerId(buildingId, ownerId);
+        building.ifPresent(b -> attachUnitSummaries(List.of(b)));
+        return building;
+    }
+    
+    private void attachUnitSummaries(List<BuildingDTO> buildings) {
+        if (buildings.isEmpty()) {
+            return;
+        }
+        Map<Long, BuildingDTO> byId = buildings.stream()
+                .collect(Collectors.toMap(BuildingDTO::getId, Function.identity()));
+        for (UnitDTO unit : findUnitSummariesByBuildingIds(byId.keySet())) {
+            byId.get(unit.getBuildingId()).getUnits().add(unit);
+        }
+    }
+    
+    // Building dashboard: unit, issue and payment counts plus the last completed payment, in one query
+    @Query("SELECT new com.example.Colten.dto.BuildingDashboardStats(b.name, " +
+           "(SELECT COUNT(u) FROM Unit u WHERE u.building.id = b.id), " +
+           "(SELECT COUNT(t) FROM Tenant t WHERE t.unit.building.id = b.id), " +
+           "(SELECT COUNT(i) FROM Issue i WHERE i.buildingId = b.id), " +
+           "(SELECT COUNT(i) FROM Issue i WHERE i.buildingId = b.id AND i.status NOT IN ('RESOLVED', 'CLOSED', 'CANCELLED')), " +
+           "(SELECT COUNT(i) FROM Issue i WHERE i.buildingId = b.id AND i.status IN ('RESOLVED', 'CLOSED')), " +
+           "(SELECT COUNT(p) FROM Payment p WHERE p.buildingId = b.id), " +
+           "(SELECT p.paymentDate FROM Payment p WHERE p.buildingId = b.id AND p.status = 'COMPLETED' ORDER BY p.paymentDate DESC, p.id DESC LIMIT 1), " +
+           "(SELECT p.amount FROM Payment p WHERE p.buildingId = b.id AND p.status = 'COMPLETED' ORDER BY p.paymentDate DESC, p.id DESC LIMIT 1)) " +
+           "FROM Building b WHERE b.id = :buildingId")
+    BuildingDashboardStats getBuildingDashboardStats(@Param("buildingId") Long buildingId);
 }
@@ -0,0 +1,42 @@
+package com.example.Colten.repository;
+
+import com.example.Colten.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Claim a key; fails with a constraint violation if the key is already taken
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (record_key, request_hash, created_at, expires_at) " +
+                   "VALUES (:recordKey, :requestHash, :createdAt, :expiresAt)", nativeQuery = true)
+    int insert(@Param("recordKey") String recordKey, @Param("requestHash") String requestHash,
+               @Param("createdAt") LocalDateTime createdAt, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Store the finished response on our in-progress row and keep it for the full TTL;
+    // updates nothing if the claim lapsed and someone else took the key over
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.responseStatus = :status, r.responseBody = :body, " +
+           "r.responseLocation = :location, r.expiresAt = :expiresAt " +
+           "WHERE r.recordKey = :recordKey AND r.createdAt = :claimedAt AND r.responseStatus IS NULL")
+    int complete(@Param("recordKey") String recordKey, @Param("claimedAt") LocalDateTime claimedAt,
+                 @Param("status") int status, @Param("body") String body, @Param("location") String location,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Give up our claim, leaving a newer claimer's row alone
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.recordKey = :recordKey AND r.createdAt = :claimedAt " +
+           "AND r.responseStatus IS NULL")
+    int release(@Param("recordKey") String recordKey, @Param("claimedAt") LocalDateTime claimedAt);
+
+    // Purge keys past their TTL, and claims whose lease lapsed
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,60 +1,125 @@
 package com.example.Colten.repository;
 
+import com.example.Colten.dto.IssueResponse;
 import com.example.Colten.model.Issue;
 import com.example.Colten.model.IssueStatus;
 import com.example.Colten.model.IssuePriority;
 import com.example.Colten.model.Tenant;
+import com.example.Colten.util.PageCursor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Repository
 public interface IssueRepository extends JpaRepository<Issue, Long> {
     
+    // IssueResponse projection: tenant, unit and building joined in, assignee optional
+    String ISSUE_RESPONSE = "SELECT new com.example.Colten.dto.IssueResponse(i.id, i.title, i.description, " +
+           "i.category, i.priority, i.status, i.locationInUnit, i.adminNotes, i.resolutionNotes, i.createdAt, " +
+           "i.updatedAt, i.resolvedAt, i.expectedResolutionDate, i.ownerId, t.id, t.firstName, t.lastName, t.email, " +
+           "u.id, u.unitNumber, b.id, b.name, a.id, a.firstName, a.lastName, a.email) " +
+           "FROM Issue i JOIN i.tenant t JOIN i.unit u JOIN u.building b LEFT JOIN i.assignedTo a ";
+    
     // Find issues by tenant
     List<Issue> findByTenantOrderByCreatedAtDesc(Tenant tenant);
-    List<Issue> findByTenantIdOrderByCreatedAtDesc(Long tenantId);
+    
+    @Query(ISSUE_RESPONSE + "WHERE i.tenant.id = :tenantId ORDER BY i.createdAt DESC")
+    List<IssueResponse> findTenantIssues(@Param("tenantId") Long tenantId);
+    
+    @Query(ISSUE_RESPONSE + "WHERE i.id = :issueId")
+    Optional<IssueResponse> findIssueResponseById(@Param("issueId") Long issueId);
     
     // Find issues by building
-    List<Issue> findByUnit_Building_IdOrderByCreatedAtDesc(Long buildingId);
+    List<Issue> findByBuildingIdOrderByCreatedAtDesc(Long buildingId);
     
-    // Find issues by owner's email
-    @Query("SELECT i FROM Issue i WHERE i.unit.building.owner.email = :ownerEmail ORDER BY i.createdAt DESC")
-    List<Issue> findByUnitBuildingOwnerEmailOrderByCreatedAtDesc(@Param("ownerEmail") String ownerEmail);
+    // Keyset pages of an owner's issues, newest first
+    @Query(ISSUE_RESPONSE + "WHERE i.ownerId = :ownerId ORDER BY i.createdAt DESC, i.id DESC")
+    List<IssueResponse> findOwnerIssuesFirstPage(@Param("ownerId") Long ownerId, Pageable pageable);
+    
+    @Query(ISSUE_RESPONSE + "WHERE i.ownerId = :ownerId " +
+           "AND (i.createdAt < :createdAt OR (i.createdAt = :createdAt AND i.id < :id)) " +
+           "ORDER BY i.createdAt DESC, i.id DESC")
+    List<IssueResponse> findOwnerIssuesPageAfter(@Param("ownerId") Long ownerId, @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("id") Long id, Pageable pageable);
+    
+    default List<IssueResponse> findOwnerIssuesPage(Long ownerId, PageCursor after, int pageSize) {
+        return after == null
+            ? findOwnerIssuesFirstPage(ownerId, PageCursor.probe(pageSize))
+            : findOwnerIssuesPageAfter(ownerId, after.getTimestamp(), after.getId(), PageCursor.probe(pageSize));
+    }
     
     // Find issues by building and owner
-    @Query("SELECT i FROM Issue i WHERE i.unit.building.id = :buildingId AND i.unit.building.owner.email = :ownerEmail ORDER BY i.createdAt DESC")
-    List<Issue> findByUnitBuildingIdAndUnitBuildingOwnerEmailOrderByCreatedAtDesc(@Param("buildingId") Long buildingId, @Param("ownerEmail") String ownerEmail);
+    @Query(ISSUE_RESPONSE + "WHERE i.buildingId = :buildingId AND i.ownerId = :ownerId ORDER BY i.createdAt DESC")
+    List<IssueResponse> findBuildingIssues(@Param("buildingId") Long buildingId, @Param("ownerId") Long ownerId);
     
     // Find issues by status
     List<Issue> findByStatusOrderByCreatedAtDesc(IssueStatus status);
     
     // Find issues by status and owner
-    @Query("SELECT i FROM Issue i WHERE i.status = :status AND i.unit.building.owner.email = :ownerEmail ORDER BY i.createdAt DESC")
-    List<Issue> findByStatusAndUnitBuildingOwnerEmailOrderByCreatedAtDesc(@Param("status") IssueStatus status, @Param("ownerEmail") String ownerEmail);
+    @Query(ISSUE_RESPONSE + "WHERE i.status = :status AND i.ownerId = :ownerId ORDER BY i.createdAt DESC")
+    List<IssueResponse> findOwnerIssuesByStatus(@Param("status") IssueStatus status, @Param("ownerId") Long ownerId);
     
     // Find urgent issues (EMERGENCY or URGENT priority)
-    @Query("SELECT i FROM Issue i WHERE i.unit.building.owner.email = :ownerEmail AND (i.priority = 'EMERGENCY' OR i.priority = 'URGENT') AND i.status NOT IN ('RESOLVED', 'CLOSED') ORDER BY i.createdAt DESC")
-    List<Issue> findUrgentIssuesByOwnerEmail(@Param("ownerEmail") String ownerEmail);
+    @Query(ISSUE_RESPONSE + "WHERE i.ownerId = :ownerId AND (i.priority = 'EMERGENCY' OR i.priority = 'URGENT') AND i.status NOT IN ('RESOLVED', 'CLOSED') ORDER BY i.createdAt DESC")
+    List<IssueResponse> findUrgentIssuesByOwnerId(@Param("ownerId") Long ownerId);
     
-    // Find issues by assigned user
-    List<Issue> findByAssignedToIdOrderByCreatedAtDesc(Long assignedToId);
+    // Find issues by assigned user; the FK path keeps Hibernate from joining users just to filter
+    @Query("SELECT i FROM Issue i WHERE i.assignedTo.id = :assignedToId ORDER BY i.createdAt DESC")
+    List<Issue> findByAssignedToIdOrderByCreatedAtDesc(@Param("assignedToId") Long assignedToId);
     
     // Find issues by unit
-    List<Issue> findByUnitIdOrderByCreatedAtDesc(Long unitId);
+    @Query("SELECT i FROM Issue i WHERE i.unit.id = :unitId ORDER BY i.createdAt DESC")
+    List<Issue> findByUnitIdOrderByCreatedAtDesc(@Param("unitId") Long unitId);
     
     // Find open issues count for a building
-    @Query("SELECT COUNT(i) FROM Issue i WHERE i.unit.building.id = :buildingId AND i.status = 'OPEN'")
+    @Query("SELECT COUNT(i) FROM Issue i WHERE i.buildingId = :buildingId AND i.status = 'OPEN'")
     Long countOpenIssuesByBuildingId(@Param("buildingId") Long buildingId);
     
-    // Find open issues count for an owner
-    @Query("SELECT COUNT(i) FROM Issue i WHERE i.unit.building.owner.email = :ownerEmail AND i.status = 'OPEN'")
-    Long countOpenIssuesByOwnerEmail(@Param("ownerEmail") String ownerEmail);
-    
     // Find issues created in the last 30 days
-    @Query("SELECT i FROM Issue i WHERE i.unit.building.owner.email = :ownerEmail AND i.createdAt >= :thirtyDaysAgo ORDER BY i.createdAt DESC")
-    List<Issue> findRecentIssuesByOwnerEmail(@Param("ownerEmail") String ownerEmail, @Param("thirtyDaysAgo") java.time.LocalDateTime thirtyDaysAgo);
+    @Query("SELECT i FROM Issue i WHERE i.ownerId = :ownerId AND i.createdAt >= :thirtyDaysAgo ORDER BY i.createdAt DESC")
+    List<Issue> findRecentIssuesByOwnerId(@Param("ownerId") Long ownerId, @Param("thirtyDaysAgo") LocalDateTime thirtyDaysAgo);
+    
+    // Copy owner and building ids onto issues of a unit that moved
+    @Modifying
+    @Query("UPDATE Issue i SET i.ownerId = :ownerId, i.buildingId = :buildingId WHERE i.unit.id = :unitId")
+    int updateOwnershipByUnitId(@Param("unitId") Long unitId, @Param("ownerId") Long ownerId, @Param("buildingId") Long buildingId);
+    
+    // Backfill owner and building ids for rows written before the columns existed, one id range at a time
+    @Modifying
+    @Query("UPDATE Issue i SET " +
+           "i.buildingId = (SELECT u.building.id FROM Unit u WHERE u.id = i.unit.id), " +
+           "i.ownerId = (SELECT b.owner.id FROM Unit u JOIN u.building b WHERE u.id = i.unit.id) " +
+           "WHERE i.id BETWEEN :fromId AND :toId AND (i.ownerId IS NULL OR i.buildingId IS NULL)")
+    int backfillOwnership(@Param("fromId") Long fromId, @Param("toId") Long toId);
+    
+    @Query("SELECT MAX(i.id) FROM Issue i")
+    Long findMaxId();
+    
+    // (issue id, attachment url) pairs for a batch of issues
+    @Query("SELECT i.id, a FROM Issue i JOIN i.attachmentUrls a WHERE i.id IN :issueIds")
+    List<Object[]> findAttachmentUrlsByIssueIds(@Param("issueIds") Collection<Long> issueIds);
+    
+    // Fills in attachment URLs for a list of responses with one query
+    default List<IssueResponse> withAttachments(List<IssueResponse> issues) {
+        if (issues.isEmpty()) {
+            return issues;
+        }
+        Map<Long, IssueResponse> byId = issues.stream()
+                .collect(Collectors.toMap(IssueResponse::getId, Function.identity()));
+        for (Object[] row : findAttachmentUrlsByIssueIds(byId.keySet())) {
+            byId.get((Long) row[0]).getAttachmentUrls().add((String) row[1]);
+        }
+        return issues;
+    }
 }
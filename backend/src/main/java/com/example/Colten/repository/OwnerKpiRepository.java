@@ -0,0 +1,47 @@
+package com.example.Colten.repository;
+
+import com.example.Colten.model.OwnerKpi;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface OwnerKpiRepository extends JpaRepository<OwnerKpi, Long> {
+
+    // Atomic counter update; monthRevenue restarts from the delta when the stored month is stale
+    @Modifying
+    @Query("UPDATE OwnerKpi k SET " +
+           "k.monthRevenue = CASE WHEN k.revenueMonth = :month THEN k.monthRevenue + :monthRevenue ELSE :monthRevenue END, " +
+           "k.revenueMonth = :month, " +
+           "k.totalRevenue = k.totalRevenue + :totalRevenue, " +
+           "k.totalPayments = k.totalPayments + :totalPayments, " +
+           "k.pendingPayments = k.pendingPayments + :pendingPayments, " +
+           "k.openIssues = k.openIssues + :openIssues, " +
+           "k.totalUnits = k.totalUnits + :totalUnits, " +
+           "k.occupiedUnits = k.occupiedUnits + :occupiedUnits, " +
+           "k.updatedAt = :now " +
+           "WHERE k.ownerId = :ownerId")
+    int applyDelta(@Param("ownerId") Long ownerId,
+                   @Param("month") Integer month,
+                   @Param("monthRevenue") BigDecimal monthRevenue,
+                   @Param("totalRevenue") BigDecimal totalRevenue,
+                   @Param("totalPayments") Long totalPayments,
+                   @Param("pendingPayments") Long pendingPayments,
+                   @Param("openIssues") Long openIssues,
+                   @Param("totalUnits") Long totalUnits,
+                   @Param("occupiedUnits") Long occupiedUnits,
+                   @Param("now") LocalDateTime now);
+
+    // Held while one owner's rows are reconciled, so writers' deltas land before or after
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT k FROM OwnerKpi k WHERE k.ownerId = :ownerId")
+    Optional<OwnerKpi> findByIdForUpdate(@Param("ownerId") Long ownerId);
+}
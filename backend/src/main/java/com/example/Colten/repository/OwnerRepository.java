@@ -2,8 +2,10 @@ package com.example.Colten.repository;
 
 import com.example.Colten.model.Owner;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,4 +16,7 @@ public interface OwnerRepository extends JpaRepository<Owner, Long> {
     Optional<Owner> findByCompanyName(String companyName);
     
     Boolean existsByBusinessLicense(String businessLicense);
+    
+    @Query("SELECT o.id FROM Owner o")
+    List<Long> findAllIds();
 }
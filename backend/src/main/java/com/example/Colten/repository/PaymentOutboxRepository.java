@@ -0,0 +1,46 @@
+package com.example.Colten.repository;
+
+import com.example.Colten.model.OutboxStatus;
+import com.example.Colten.model.PaymentOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PaymentOutboxRepository extends JpaRepository<PaymentOutbox, Long> {
+
+    // Entries ready to run: pending and due, or in flight with an expired lease
+    @Query("SELECT o.id FROM PaymentOutbox o WHERE " +
+           "(o.status = com.example.Colten.model.OutboxStatus.PENDING AND o.nextAttemptAt <= :now) OR " +
+           "(o.status = com.example.Colten.model.OutboxStatus.IN_FLIGHT AND o.lockedUntil < :now) " +
+           "ORDER BY o.nextAttemptAt ASC")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Takes the lease on one entry; returns 0 if another worker got there first
+    @Modifying
+    @Query("UPDATE PaymentOutbox o SET o.status = com.example.Colten.model.OutboxStatus.IN_FLIGHT, " +
+           "o.lockedUntil = :lockedUntil, o.attempts = o.attempts + 1, o.updatedAt = :now " +
+           "WHERE o.id = :id AND (" +
+           "(o.status = com.example.Colten.model.OutboxStatus.PENDING AND o.nextAttemptAt <= :now) OR " +
+           "(o.status = com.example.Colten.model.OutboxStatus.IN_FLIGHT AND o.lockedUntil < :now))")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    // Records the outcome, but only while the caller still holds the lease it claimed
+    @Modifying
+    @Query("UPDATE PaymentOutbox o SET o.status = :status, o.attempts = :attempts, " +
+           "o.nextAttemptAt = :nextAttemptAt, o.lockedUntil = NULL, o.lastError = :lastError, o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.status = com.example.Colten.model.OutboxStatus.IN_FLIGHT " +
+           "AND o.lockedUntil = :claimedLease")
+    int finish(@Param("id") Long id, @Param("claimedLease") LocalDateTime claimedLease,
+               @Param("status") OutboxStatus status, @Param("attempts") int attempts,
+               @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("lastError") String lastError,
+               @Param("now") LocalDateTime now);
+
+    long countByStatus(OutboxStatus status);
+}
@@ -1,61 +1,93 @@
 package com.example.Colten.repository;
 
+import com.example.Colten.dto.PaymentResponse;
 import com.example.Colten.model.Payment;
 import com.example.Colten.model.PaymentStatus;
 import com.example.Colten.model.Tenant;
+import com.example.Colten.util.PageCursor;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
     
+    // PaymentResponse projection: tenant, unit and building joined in
+    String PAYMENT_RESPONSE = "SELECT new com.example.Colten.dto.PaymentResponse(p.id, p.amount, p.paymentType, " +
+           "p.paymentMethod, p.status, p.paymentDate, p.dueDate, p.processedAt, p.description, " +
+           "p.stripePaymentIntentId, p.stripeReceiptUrl, p.referenceNumber, p.lateFee, p.isLate, p.refundAmount, " +
+           "p.refundDate, p.paymentPeriodStart, p.paymentPeriodEnd, p.createdAt, p.ownerId, " +
+           "t.id, t.firstName, t.lastName, t.email, u.id, u.unitNumber, b.id, b.name) " +
+           "FROM Payment p JOIN p.tenant t JOIN p.unit u JOIN u.building b ";
+    
     // Find payments by tenant
     List<Payment> findByTenantOrderByPaymentDateDesc(Tenant tenant);
-    List<Payment> findByTenantIdOrderByPaymentDateDesc(Long tenantId);
+    
+    @Query(PAYMENT_RESPONSE + "WHERE p.tenant.id = :tenantId ORDER BY p.paymentDate DESC")
+    List<PaymentResponse> findTenantPayments(@Param("tenantId") Long tenantId);
+    
+    @Query(PAYMENT_RESPONSE + "WHERE p.id = :paymentId")
+    Optional<PaymentResponse> findPaymentResponseById(@Param("paymentId") Long paymentId);
     
     // Find payments by unit
     List<Payment> findByUnitIdOrderByPaymentDateDesc(Long unitId);
     
     // Find payments by building
-    List<Payment> findByUnit_Building_IdOrderByPaymentDateDesc(Long buildingId);
-    
-    // Find payments by owner's email
-    @Query("SELECT p FROM Payment p WHERE p.unit.building.owner.email = :ownerEmail ORDER BY p.paymentDate DESC")
-    List<Payment> findByUnit_Building_Owner_EmailOrderByPaymentDateDesc(@Param("ownerEmail") String ownerEmail);
+    List<Payment> findByBuildingIdOrderByPaymentDateDesc(Long buildingId);
+    
+    // Keyset pages of an owner's payments, newest first
+    @Query(PAYMENT_RESPONSE + "WHERE p.ownerId = :ownerId ORDER BY p.paymentDate DESC, p.id DESC")
+    List<PaymentResponse> findOwnerPaymentsFirstPage(@Param("ownerId") Long ownerId, Pageable pageable);
+    
+    @Query(PAYMENT_RESPONSE + "WHERE p.ownerId = :ownerId " +
+           "AND (p.paymentDate < :paymentDate OR (p.paymentDate = :paymentDate AND p.id < :id)) " +
+           "ORDER BY p.paymentDate DESC, p.id DESC")
+    List<PaymentResponse> findOwnerPaymentsPageAfter(@Param("ownerId") Long ownerId, @Param("paymentDate") LocalDateTime paymentDate,
+                                                     @Param("id") Long id, Pageable pageable);
+    
+    default List<PaymentResponse> findOwnerPaymentsPage(Long ownerId, PageCursor after, int pageSize) {
+        return after == null
+            ? findOwnerPaymentsFirstPage(ownerId, PageCursor.probe(pageSize))
+            : findOwnerPaymentsPageAfter(ownerId, after.getTimestamp(), after.getId(), PageCursor.probe(pageSize));
+    }
+    
+    // Keyset pages of a building's payments, newest first
+    @Query(PAYMENT_RESPONSE + "WHERE p.buildingId = :buildingId ORDER BY p.paymentDate DESC, p.id DESC")
+    List<PaymentResponse> findBuildingPaymentsFirstPage(@Param("buildingId") Long buildingId, Pageable pageable);
+    
+    @Query(PAYMENT_RESPONSE + "WHERE p.buildingId = :buildingId " +
+           "AND (p.paymentDate < :paymentDate OR (p.paymentDate = :paymentDate AND p.id < :id)) " +
+           "ORDER BY p.paymentDate DESC, p.id DESC")
+    List<PaymentResponse> findBuildingPaymentsPageAfter(@Param("buildingId") Long buildingId, @Param("paymentDate") LocalDateTime paymentDate,
+                                                        @Param("id") Long id, Pageable pageable);
+    
+    default List<PaymentResponse> findBuildingPaymentsPage(Long buildingId, PageCursor after, int pageSize) {
+        return after == null
+            ? findBuildingPaymentsFirstPage(buildingId, PageCursor.probe(pageSize))
+            : findBuildingPaymentsPageAfter(buildingId, after.getTimestamp(), after.getId(), PageCursor.probe(pageSize));
+    }
     
     // Find payments by status
     List<Payment> findByStatusOrderByPaymentDateDesc(PaymentStatus status);
     
     // Find pending payments for an owner
-    @Query("SELECT p FROM Payment p WHERE p.unit.building.owner.email = :ownerEmail AND p.status IN ('PENDING', 'FAILED') ORDER BY p.dueDate ASC")
-    List<Payment> findPendingPaymentsByOwnerEmail(@Param("ownerEmail") String ownerEmail);
+    @Query(PAYMENT_RESPONSE + "WHERE p.ownerId = :ownerId AND p.status IN ('PENDING', 'FAILED') ORDER BY p.dueDate ASC")
+    List<PaymentResponse> findPendingPaymentsByOwnerId(@Param("ownerId") Long ownerId);
     
     // Find overdue payments
     @Query("SELECT p FROM Payment p WHERE p.dueDate < CURRENT_TIMESTAMP AND p.status = 'PENDING' ORDER BY p.dueDate ASC")
     List<Payment> findOverduePayments();
     
-    // Get total monthly revenue for owner
-    @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.unit.building.owner.email = :ownerEmail AND p.status = 'COMPLETED' AND YEAR(p.paymentDate) = YEAR(CURRENT_DATE) AND MONTH(p.paymentDate) = MONTH(CURRENT_DATE)")
-    BigDecimal getTotalMonthlyRevenueByOwnerEmail(@Param("ownerEmail") String ownerEmail);
-    
-    // Get total revenue for owner
-    @Query("SELECT SUM(p.amount) FROM Payment p WHERE p.unit.building.owner.email = :ownerEmail AND p.status = 'COMPLETED'")
-    BigDecimal getTotalRevenueByOwnerEmail(@Param("ownerEmail") String ownerEmail);
-    
-    // Count total payments for owner
-    @Query("SELECT COUNT(p) FROM Payment p WHERE p.unit.building.owner.email = :ownerEmail")
-    Long countPaymentsByOwnerEmail(@Param("ownerEmail") String ownerEmail);
-    
-    // Count pending payments for owner
-    @Query("SELECT COUNT(p) FROM Payment p WHERE p.unit.building.owner.email = :ownerEmail AND p.status IN ('PENDING', 'FAILED')")
-    Long countPendingPaymentsByOwnerEmail(@Param("ownerEmail") String ownerEmail);
-    
     // Find payments by date range
     @Query("SELECT p FROM Payment p WHERE p.paymentDate BETWEEN :startDate AND :endDate ORDER BY p.paymentDate DESC")
     List<Payment> findByPaymentDateBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
@@ -75,6 +107,27 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     // Find payments by Stripe payment intent ID
     Payment findByStripePaymentIntentId(String stripePaymentIntentId);
     
+    // Payments for a batch of webhook events, locked so concurrent batches apply their transitions in turn
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Payment p WHERE p.stripePaymentIntentId IN :intentIds")
+    List<Payment> findForUpdateByStripePaymentIntentIdIn(@Param("intentIds") Collection<String> intentIds);
+    
     // Find payments by reference number
     Payment findByReferenceNumber(String referenceNumber);
+    
+    // Copy owner and building ids onto payments of a unit that moved
+    @Modifying
+    @Query("UPDATE Payment p SET p.ownerId = :ownerId, p.buildingId = :buildingId WHERE p.unit.id = :unitId")
+    int updateOwnershipByUnitId(@Param("unitId") Long unitId, @Param("ownerId") Long ownerId, @Param("buildingId") Long buildingId);
+    
+    // Backfill owner and building ids for rows written before the columns existed, one id range at a time
+    @Modifying
+    @Query("UPDATE Payment p SET " +
+           "p.buildingId = (SELECT u.building.id FROM Unit u WHERE u.id = p.unit.id), " +
+           "p.ownerId = (SELECT b.owner.id FROM Unit u JOIN u.building b WHERE u.id = p.unit.id) " +
+           "WHERE p.id BETWEEN :fromId AND :toId AND (p.ownerId IS NULL OR p.buildingId IS NULL)")
+    int backfillOwnership(@Param("fromId") Long fromId, @Param("toId") Long toId);
+    
+    @Query("SELECT MAX(p.id) FROM Payment p")
+    Long findMaxId();
 }
@@ -0,0 +1,49 @@
+package com.example.Colten.repository;
+
+import com.example.Colten.model.StripeWebhookEvent;
+import com.example.Colten.model.WebhookEventStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StripeWebhookEventRepository extends JpaRepository<StripeWebhookEvent, String> {
+
+    // Store a received event; fails with a constraint violation if Stripe already delivered it
+    @Modifying
+    @Query(value = "INSERT INTO stripe_webhook_events (event_id, type, payment_intent_id, stripe_created_at, payload, " +
+                   "status, attempts, next_attempt_at, received_at) " +
+                   "VALUES (:eventId, :type, :paymentIntentId, :stripeCreatedAt, :payload, :status, 0, :receivedAt, :receivedAt)",
+           nativeQuery = true)
+    int insert(@Param("eventId") String eventId, @Param("type") String type,
+               @Param("paymentIntentId") String paymentIntentId, @Param("stripeCreatedAt") LocalDateTime stripeCreatedAt,
+               @Param("payload") String payload, @Param("status") String status,
+               @Param("receivedAt") LocalDateTime receivedAt);
+
+    // Pending events that are due, oldest first in Stripe's order
+    @Query("SELECT e FROM StripeWebhookEvent e WHERE e.status = com.example.Colten.model.WebhookEventStatus.PENDING " +
+           "AND e.nextAttemptAt <= :now ORDER BY e.stripeCreatedAt ASC, e.receivedAt ASC")
+    List<StripeWebhookEvent> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Retire a batch of events in one statement
+    @Modifying
+    @Query("UPDATE StripeWebhookEvent e SET e.status = :status, e.processedAt = :now, e.lastError = :error " +
+           "WHERE e.eventId IN :eventIds")
+    int finish(@Param("eventIds") Collection<String> eventIds, @Param("status") WebhookEventStatus status,
+               @Param("error") String error, @Param("now") LocalDateTime now);
+
+    // Push back events whose payment is not visible yet
+    @Modifying
+    @Query("UPDATE StripeWebhookEvent e SET e.attempts = e.attempts + 1, e.nextAttemptAt = :nextAttemptAt " +
+           "WHERE e.eventId IN :eventIds")
+    int defer(@Param("eventIds") Collection<String> eventIds, @Param("nextAttemptAt") LocalDateTime nextAttemptAt);
+
+    long countByStatus(WebhookEventStatus status);
+}
@@ -1,11 +1,15 @@
 package com.example.Colten.repository;
 
+import com.example.Colten.dto.TenantDashboardStats;
 import com.example.Colten.model.Tenant;
+import com.example.Colten.util.PageCursor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,13 +21,28 @@ public interface TenantRepository extends JpaRepository<Tenant, Long> {
     @Query("SELECT t FROM Tenant t WHERE t.email = :email")
     Optional<Tenant> findByUserEmail(@Param("email") String email);
     
-    @Query("SELECT t FROM Tenant t WHERE t.unit.building.owner.email = :ownerEmail")
-    List<Tenant> findByUnitBuildingOwnerEmail(@Param("ownerEmail") String ownerEmail);
+    // Keyset pages of an owner's tenants, newest first
+    @Query("SELECT t FROM Tenant t WHERE t.unit.building.owner.id = :ownerId ORDER BY t.createdAt DESC, t.id DESC")
+    List<Tenant> findOwnerTenantsFirstPage(@Param("ownerId") Long ownerId, Pageable pageable);
     
-    @Query("SELECT t FROM Tenant t WHERE t.unit.building.id = :buildingId AND t.unit.building.owner.email = :ownerEmail")
-    List<Tenant> findByUnitBuildingIdAndUnitBuildingOwnerEmail(@Param("buildingId") Long buildingId, @Param("ownerEmail") String ownerEmail);
+    @Query("SELECT t FROM Tenant t WHERE t.unit.building.owner.id = :ownerId " +
+           "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Tenant> findOwnerTenantsPageAfter(@Param("ownerId") Long ownerId, @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("id") Long id, Pageable pageable);
     
-    Optional<Tenant> findByUnitId(Long unitId);
+    default List<Tenant> findOwnerTenantsPage(Long ownerId, PageCursor after, int pageSize) {
+        return after == null
+            ? findOwnerTenantsFirstPage(ownerId, PageCursor.probe(pageSize))
+            : findOwnerTenantsPageAfter(ownerId, after.getTimestamp(), after.getId(), PageCursor.probe(pageSize));
+    }
+    
+    @Query("SELECT t FROM Tenant t WHERE t.unit.building.id = :buildingId AND t.unit.building.owner.id = :ownerId")
+    List<Tenant> findByUnitBuildingIdAndOwnerId(@Param("buildingId") Long buildingId, @Param("ownerId") Long ownerId);
+    
+    // By the unit FK, without joining units
+    @Query("SELECT t FROM Tenant t WHERE t.unit.id = :unitId")
+    Optional<Tenant> findByUnitId(@Param("unitId") Long unitId);
     
     @Query("SELECT t FROM Tenant t WHERE t.unit.building.id = :buildingId")
     List<Tenant> findByUnitBuildingId(@Param("buildingId") Long buildingId);
@@ -38,4 +57,15 @@ public interface TenantRepository extends JpaRepository<Tenant, Long> {
     List<Tenant> findTenantsWithLeasesExpiringBefore(@Param("endDate") java.time.LocalDate endDate);
     
     Boolean existsByUnitId(Long unitId);
+    
+    // Tenant dashboard: unit info plus issue/payment counts and the last completed payment, in one query
+    @Query("SELECT new com.example.Colten.dto.TenantDashboardStats(u.unitNumber, b.name, u.monthlyRent, " +
+           "(SELECT COUNT(i) FROM Issue i WHERE i.tenant.id = t.id), " +
+           "(SELECT COUNT(i) FROM Issue i WHERE i.tenant.id = t.id AND i.status NOT IN ('RESOLVED', 'CLOSED', 'CANCELLED')), " +
+           "(SELECT COUNT(i) FROM Issue i WHERE i.tenant.id = t.id AND i.status IN ('RESOLVED', 'CLOSED')), " +
+           "(SELECT COUNT(p) FROM Payment p WHERE p.tenant.id = t.id), " +
+           "(SELECT p.paymentDate FROM Payment p WHERE p.tenant.id = t.id AND p.status = 'COMPLETED' ORDER BY p.paymentDate DESC, p.id DESC LIMIT 1), " +
+           "(SELECT p.amount FROM Payment p WHERE p.tenant.id = t.id AND p.status = 'COMPLETED' ORDER BY p.paymentDate DESC, p.id DESC LIMIT 1)) " +
+           "FROM Tenant t LEFT JOIN t.unit u LEFT JOIN u.building b WHERE t.id = :tenantId")
+    Optional<TenantDashboardStats> getTenantDashboardStats(@Param("tenantId") Long tenantId);
 }
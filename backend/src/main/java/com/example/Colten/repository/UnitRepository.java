@@ -1,25 +1,82 @@
 package com.example.Colten.repository;
 
+import com.example.Colten.dto.RoomCodeValidationResponse;
+import com.example.Colten.dto.UnitDTO;
 import com.example.Colten.model.Unit;
 import com.example.Colten.model.UnitType;
+import com.example.Colten.util.PageCursor;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UnitRepository extends JpaRepository<Unit, Long> {
+    
+    // UnitDTO projection with the building joined in, so listings are a single statement
+    String UNIT_DTO = "SELECT new com.example.Colten.dto.UnitDTO(u.id, u.unitNumber, u.floor, u.bedrooms, " +
+           "u.bathrooms, u.squareFeet, u.monthlyRent, u.securityDeposit, u.description, u.unitType, " +
+           "u.hasBalcony, u.hasDishwasher, u.hasWashingMachine, u.hasAirConditioning, u.furnished, " +
+           "u.petsAllowed, u.smokingAllowed, u.isAvailable, u.roomCode, u.leaseStartDate, u.leaseEndDate, " +
+           "u.createdAt, u.updatedAt, b.id, b.name) FROM Unit u JOIN u.building b ";
+    
     List<Unit> findByBuildingId(Long buildingId);
-    List<Unit> findByBuildingIdOrderByUnitNumberAsc(Long buildingId);
-    List<Unit> findByBuildingOwnerId(Long ownerId);
+    
+    // Held while a tenant registers onto the unit, so two registrations cannot both take it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM Unit u WHERE u.id = :id")
+    Optional<Unit> findByIdForUpdate(@Param("id") Long id);
+    
+    @Query(UNIT_DTO + "WHERE b.id = :buildingId ORDER BY u.unitNumber ASC")
+    List<UnitDTO> findUnitDtosByBuildingId(@Param("buildingId") Long buildingId);
+    
+    @Query(UNIT_DTO + "WHERE u.id = :unitId AND b.owner.id = :ownerId")
+    Optional<UnitDTO> findUnitDtoByIdAndOwnerId(@Param("unitId") Long unitId, @Param("ownerId") Long ownerId);
+    
+    // Keyset pages of an owner's units, newest first
+    @Query(UNIT_DTO + "WHERE b.owner.id = :ownerId ORDER BY u.createdAt DESC, u.id DESC")
+    List<UnitDTO> findOwnerUnitsFirstPage(@Param("ownerId") Long ownerId, Pageable pageable);
+    
+    @Query(UNIT_DTO + "WHERE b.owner.id = :ownerId " +
+           "AND (u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id)) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<UnitDTO> findOwnerUnitsPageAfter(@Param("ownerId") Long ownerId, @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id, Pageable pageable);
+    
+    default List<UnitDTO> findOwnerUnitsPage(Long ownerId, PageCursor after, int pageSize) {
+        return after == null
+            ? findOwnerUnitsFirstPage(ownerId, PageCursor.probe(pageSize))
+            : findOwnerUnitsPageAfter(ownerId, after.getTimestamp(), after.getId(), PageCursor.probe(pageSize));
+    }
     List<Unit> findByIsAvailable(boolean isAvailable);
     List<Unit> findByBuildingIdAndIsAvailable(Long buildingId, boolean isAvailable);
-    List<Unit> findByBuildingIdAndIsAvailableOrderByMonthlyRentAsc(Long buildingId, boolean isAvailable);
+    
+    // Filtered on the building FK itself; the derived form joins buildings and scans units
+    @Query("SELECT u FROM Unit u WHERE u.building.id = :buildingId AND u.isAvailable = :isAvailable ORDER BY u.monthlyRent ASC")
+    List<Unit> findByBuildingIdAndIsAvailableOrderByMonthlyRentAsc(@Param("buildingId") Long buildingId,
+                                                                  @Param("isAvailable") boolean isAvailable);
     
     Optional<Unit> findByRoomCode(String roomCode);
     boolean existsByRoomCode(String roomCode);
+
+    // Public room code check, only the columns the registration form shows
+    @Query("SELECT new com.example.Colten.dto.RoomCodeValidationResponse(u.id, u.unitNumber, u.floor, u.bedrooms, " +
+           "u.bathrooms, u.squareFeet, u.monthlyRent, u.securityDeposit, u.description, u.unitType, u.isAvailable, " +
+           "u.roomCode, b.id, b.name, b.address) FROM Unit u JOIN u.building b WHERE u.roomCode = :roomCode")
+    Optional<RoomCodeValidationResponse> findRoomCodeValidation(@Param("roomCode") String roomCode);
+
+    // Every issued room code, streamed once at startup to seed the RoomCodeAllocator filter
+    @Query("SELECT u.roomCode FROM Unit u WHERE u.roomCode IS NOT NULL")
+    Stream<String> streamRoomCodes();
     
     List<Unit> findByUnitType(UnitType unitType);
     List<Unit> findByBedroomsAndBathrooms(int bedrooms, BigDecimal bathrooms);
@@ -29,5 +86,11 @@ public interface UnitRepository extends JpaRepository<Unit, Long> {
     
     // Complex queries
     List<Unit> findByBuildingIdAndBedroomsAndIsAvailable(Long buildingId, int bedrooms, boolean isAvailable);
-    List<Unit> findByBuildingIdAndMonthlyRentBetweenAndIsAvailable(Long buildingId, BigDecimal minRent, BigDecimal maxRent, boolean isAvailable);
+    
+    @Query("SELECT u FROM Unit u WHERE u.building.id = :buildingId AND u.monthlyRent BETWEEN :minRent AND :maxRent " +
+           "AND u.isAvailable = :isAvailable")
+    List<Unit> findByBuildingIdAndMonthlyRentBetweenAndIsAvailable(@Param("buildingId") Long buildingId,
+                                                                   @Param("minRent") BigDecimal minRent,
+                                                                   @Param("maxRent") BigDecimal maxRent,
+                                                                   @Param("isAvailable") boolean isAvailable);
 }
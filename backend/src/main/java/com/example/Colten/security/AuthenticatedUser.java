@@ -0,0 +1,97 @@
+package com.example.Colten.security;
+
+import com.example.Colten.model.Role;
+import com.example.Colten.service.UserPrincipal;
+import io.jsonwebtoken.Claims;
+
+/**
+ * Request-scoped view of the authenticated caller.
+ */
+public class AuthenticatedUser {
+    
+    // Request attribute under which AuthTokenFilter publishes the caller resolved from JWT claims
+    public static final String REQUEST_ATTRIBUTE = AuthenticatedUser.class.getName();
+    
+    private final Long userId;
+    private final String email;
+    private final Role role;
+    private final Long ownerId;
+    private final Long tenantId;
+    private final Long unitId;
+    
+    public AuthenticatedUser(Long userId, String email, Role role, Long ownerId, Long tenantId, Long unitId) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.ownerId = ownerId;
+        this.tenantId = tenantId;
+        this.unitId = unitId;
+    }
+    
+    public static AuthenticatedUser from(UserPrincipal principal) {
+        return new AuthenticatedUser(
+            principal.getId(),
+            principal.getUsername(),
+            principal.getRole(),
+            principal.getOwnerId(),
+            principal.getTenantId(),
+            principal.getUnitId()
+        );
+    }
+    
+    /**
+     * Builds the caller from signed token claims. Returns null for tokens that predate the
+     * claim set, in which case callers fall back to {@link #from(UserPrincipal)}.
+     */
+    public static AuthenticatedUser fromClaims(Claims claims) {
+        Long userId = claims.get(JwtUtils.CLAIM_USER_ID, Long.class);
+        String role = claims.get(JwtUtils.CLAIM_ROLE, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+        return new AuthenticatedUser(
+            userId,
+            claims.getSubject(),
+            Role.valueOf(role),
+            claims.get(JwtUtils.CLAIM_OWNER_ID, Long.class),
+            claims.get(JwtUtils.CLAIM_TENANT_ID, Long.class),
+            claims.get(JwtUtils.CLAIM_UNIT_ID, Long.class)
+        );
+    }
+    
+    public Long getUserId() {
+        return userId;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public Role getRole() {
+        return role;
+    }
+    
+    public Long getOwnerId() {
+        return ownerId;
+    }
+    
+    public Long getTenantId() {
+        return tenantId;
+    }
+    
+    public Long getUnitId() {
+        return unitId;
+    }
+    
+    public boolean isOwner() {
+        return ownerId != null;
+    }
+    
+    public boolean isTenant() {
+        return tenantId != null;
+    }
+    
+    public boolean isOwnerOf(Long propertyOwnerId) {
+        return ownerId != null && ownerId.equals(propertyOwnerId);
+    }
+}
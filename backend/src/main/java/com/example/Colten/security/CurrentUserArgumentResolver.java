@@ -0,0 +1,43 @@
+package com.example.Colten.security;
+
+import com.example.Colten.service.UserPrincipal;
+import org.springframework.core.MethodParameter;
+import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Supplies {@link CurrentUser} parameters from the principal AuthTokenFilter already put
+ * into the security context.
+ */
+public class CurrentUserArgumentResolver implements HandlerMethodArgumentResolver {
+    
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(CurrentUser.class)
+            && AuthenticatedUser.class.isAssignableFrom(parameter.getParameterType());
+    }
+    
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        // Normally published by AuthTokenFilter from the token claims
+        Object cached = webRequest.getAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE, NativeWebRequest.SCOPE_REQUEST);
+        if (cached instanceof AuthenticatedUser) {
+            return cached;
+        }
+        
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserPrincipal principal)) {
+            throw new AuthenticationCredentialsNotFoundException("No authenticated user for this request");
+        }
+        
+        AuthenticatedUser user = AuthenticatedUser.from(principal);
+        webRequest.setAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE, user, NativeWebRequest.SCOPE_REQUEST);
+        return user;
+    }
+}
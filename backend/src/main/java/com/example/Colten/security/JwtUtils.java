@@ -1,10 +1,13 @@
 package com.example.Colten.security;
 
+import com.example.Colten.service.UserPrincipal;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
@@ -13,61 +16,96 @@ import java.util.Date;
 @Component
 public class JwtUtils {
     
+    private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
+    
+    // Claims carried by every token so authorization checks can skip the owner/tenant lookups
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_OWNER_ID = "oid";
+    public static final String CLAIM_TENANT_ID = "tid";
+    public static final String CLAIM_UNIT_ID = "unit";
+    public static final String CLAIM_VERSION = "ver";
+    
     @Value("${app.jwt.secret}")
     private String jwtSecret;
     
     @Value("${app.jwt.expiration}")
     private int jwtExpirationMs;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // Built once; both are immutable and safe to share across request threads
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
     
     public String generateJwtToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        
-        return Jwts.builder()
-                .setSubject(userPrincipal.getUsername())
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
+        return generateJwtToken((UserPrincipal) authentication.getPrincipal());
     }
     
-    public String generateTokenFromUsername(String username) {
-        return Jwts.builder()
-                .setSubject(username)
+    public String generateJwtToken(UserPrincipal principal) {
+        JwtBuilder builder = Jwts.builder()
+                .setSubject(principal.getUsername())
+                .claim(CLAIM_USER_ID, principal.getId())
+                .claim(CLAIM_ROLE, principal.getRole().name())
+                .claim(CLAIM_VERSION, principal.getTokenVersion())
                 .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
+                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs));
+        
+        if (principal.getOwnerId() != null) {
+            builder.claim(CLAIM_OWNER_ID, principal.getOwnerId());
+        }
+        if (principal.getTenantId() != null) {
+            builder.claim(CLAIM_TENANT_ID, principal.getTenantId());
+        }
+        if (principal.getUnitId() != null) {
+            builder.claim(CLAIM_UNIT_ID, principal.getUnitId());
+        }
+        
+        return builder.signWith(signingKey, SignatureAlgorithm.HS256).compact();
     }
     
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return getClaimsFromJwtToken(token).getSubject();
     }
     
-    public boolean validateJwtToken(String authToken) {
+    public Claims getClaimsFromJwtToken(String token) {
+        return jwtParser.parseClaimsJws(token).getBody();
+    }
+    
+    /**
+     * Verifies the signature and expiry and returns the claims in a single parse.
+     * Returns null for any token that would fail {@link #validateJwtToken(String)}.
+     */
+    public Claims parseValidClaims(String authToken) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
+            return jwtParser.parseClaimsJws(authToken).getBody();
         } catch (MalformedJwtException e) {
-            System.err.println("Invalid JWT token: " + e.getMessage());
+            logger.warn("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
-            System.err.println("JWT token is expired: " + e.getMessage());
+            logger.debug("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
-            System.err.println("JWT token is unsupported: " + e.getMessage());
+            logger.warn("JWT token is unsupported: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
-            System.err.println("JWT claims string is empty: " + e.getMessage());
+            logger.warn("JWT claims string is empty: {}", e.getMessage());
+        } catch (JwtException e) {
+            logger.warn("JWT signature is invalid: {}", e.getMessage());
         }
-        return false;
+        return null;
+    }
+    
+    // Tokens issued before the claims version existed carry no "ver" claim and are accepted until they expire
+    public boolean isClaimsVersionCurrent(Claims claims, int currentVersion) {
+        Integer version = claims.get(CLAIM_VERSION, Integer.class);
+        return version == null || version == currentVersion;
+    }
+    
+    public boolean validateJwtToken(String authToken) {
+        return parseValidClaims(authToken) != null;
     }
 }
@@ -0,0 +1,69 @@
+package com.example.Colten.security;
+
+import com.example.Colten.service.UserPrincipal;
+import com.example.Colten.util.ExpiringCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Caches resolved principals for authenticated requests so that the JWT filter does not
+ * run the polymorphic user lookup on every call.
+ *
+ * Entries live for a short TTL and are evicted explicitly whenever a user row changes
+ * (see UserCacheEvictionListener), so deactivations and role changes take effect on the
+ * next request rather than after the TTL.
+ */
+@Component
+public class PrincipalCache {
+
+    @Value("${app.security.principal-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${app.security.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    private ExpiringCache<String, UserPrincipal> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new ExpiringCache<>(Duration.ofSeconds(ttlSeconds), maxSize);
+    }
+
+    public UserPrincipal get(String email, Function<String, UserPrincipal> loader) {
+        return cache.get(email, loader);
+    }
+
+    public void evict(String email) {
+        cache.invalidate(email);
+    }
+
+    public void evictById(Long userId) {
+        cache.invalidateIf(principal -> principal.getId().equals(userId));
+    }
+
+    /**
+     * Evicts the user once the surrounding transaction commits, so a concurrent request
+     * cannot re-cache the pre-update row between the eviction and the commit.
+     */
+    public void evictAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evictById(userId);
+                }
+            });
+        }
+        evictById(userId);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.Colten.security;
+
+import com.example.Colten.util.TokenBucketLimiter;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-client limit on the public room code endpoints (validation and tenant registration),
+ * which are reachable without a token and would otherwise let a client enumerate codes.
+ *
+ * Clients are keyed by remote address. Behind a proxy, set server.forward-headers-strategy
+ * so that the address is the client's rather than the proxy's.
+ */
+@Component
+public class RoomCodeRateLimiter {
+
+    @Value("${app.room-codes.rate-limit.burst:10}")
+    private int burst;
+
+    @Value("${app.room-codes.rate-limit.refill-seconds:6}")
+    private long refillSeconds;
+
+    @Value("${app.room-codes.rate-limit.max-clients:100000}")
+    private int maxClients;
+
+    private TokenBucketLimiter limiter;
+
+    @PostConstruct
+    void init() {
+        limiter = new TokenBucketLimiter(burst, Duration.ofSeconds(refillSeconds), maxClients);
+    }
+
+    public boolean tryAcquire(HttpServletRequest request) {
+        return limiter.tryAcquire(request.getRemoteAddr());
+    }
+
+    public long retryAfterSeconds() {
+        return limiter.retryAfterSeconds();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.Colten.security;
+
+import com.example.Colten.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA listener that drops cached principals whenever a user row is updated or deleted.
+ * Instantiated through Hibernate's Spring bean container, so injection works here.
+ */
+public class UserCacheEvictionListener {
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void evict(User user) {
+        if (user.getId() != null) {
+            principalCache.evictAfterCommit(user.getId());
+        }
+    }
+}
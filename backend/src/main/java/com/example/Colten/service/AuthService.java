@@ -11,14 +11,16 @@ import com.example.Colten.repository.UserRepository;
 import com.example.Colten.security.JwtUtils;
 import com.example.Colten.service.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class AuthService {
@@ -33,19 +35,26 @@ public class AuthService {
     OwnerRepository ownerRepository;
     
     @Autowired
-    PasswordEncoder encoder;
+    PasswordHashingService hashingService;
     
     @Autowired
     JwtUtils jwtUtils;
     
+    @Autowired
+    KpiService kpiService;
+    
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    
     public ResponseEntity<?> authenticateUser(LoginRequest loginRequest) {
         try {
-            Authentication authentication = authenticationManager.authenticate(
+            // BCrypt verification runs on the bounded hashing pool, not the request thread
+            Authentication authentication = hashingService.run(() -> authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                     loginRequest.getEmail(), 
                     loginRequest.getPassword()
                 )
-            );
+            ));
             
             SecurityContextHolder.getContext().setAuthentication(authentication);
             String jwt = jwtUtils.generateJwtToken(authentication);
@@ -65,13 +74,14 @@ public class AuthService {
             
             return ResponseEntity.ok(response);
             
+        } catch (HashingCapacityExceededException e) {
+            return tooManyRequests();
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(new AuthResponse("Error: Invalid email or password!"));
         }
     }
     
-    @Transactional
     public ResponseEntity<?> registerUser(RegisterRequest signUpRequest) {
         // Check if email already exists
         if (userRepository.existsByEmail(signUpRequest.getEmail())) {
@@ -80,45 +90,13 @@ public class AuthService {
         }
         
         try {
-            User savedUser;
-            
-            // If user is an owner, create owner directly
-            if (signUpRequest.getRole() == Role.OWNER) {
-                Owner owner = new Owner(
-                    signUpRequest.getFirstName(),
-                    signUpRequest.getLastName(),
-                    signUpRequest.getEmail(),
-                    encoder.encode(signUpRequest.getPassword()),
-                    signUpRequest.getCompanyName()
-                );
-                
-                if (signUpRequest.getPhone() != null) {
-                    owner.setPhone(signUpRequest.getPhone());
-                }
-                owner.setBusinessLicense(signUpRequest.getBusinessLicense());
-                owner.setTaxId(signUpRequest.getTaxId());
-                owner.setBio(signUpRequest.getBio());
-                
-                savedUser = ownerRepository.save(owner);
-            } else {
-                // Create regular user (tenant will be created later when they get a room code)
-                User user = new User(
-                    signUpRequest.getFirstName(),
-                    signUpRequest.getLastName(),
-                    signUpRequest.getEmail(),
-                    encoder.encode(signUpRequest.getPassword()),
-                    signUpRequest.getRole()
-                );
-                
-                if (signUpRequest.getPhone() != null) {
-                    user.setPhone(signUpRequest.getPhone());
-                }
-                
-                savedUser = userRepository.save(user);
-            }
+            // Hash before the transaction opens, so no connection is held while BCrypt runs
+            String passwordHash = hashingService.encode(signUpRequest.getPassword());
+            User savedUser = new TransactionTemplate(transactionManager).execute(status ->
+                saveUser(signUpRequest, passwordHash));
             
             // Generate JWT token for immediate login
-            String jwt = jwtUtils.generateTokenFromUsername(savedUser.getEmail());
+            String jwt = jwtUtils.generateJwtToken(UserPrincipal.create(savedUser));
             
             AuthResponse response = new AuthResponse(
                 jwt,
@@ -131,9 +109,56 @@ public class AuthService {
             
             return ResponseEntity.ok(response);
             
+        } catch (HashingCapacityExceededException e) {
+            return tooManyRequests();
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(new AuthResponse("Error: Could not create user account. " + e.getMessage()));
         }
     }
+    
+    private User saveUser(RegisterRequest signUpRequest, String passwordHash) {
+        // If user is an owner, create owner directly
+        if (signUpRequest.getRole() == Role.OWNER) {
+            Owner owner = new Owner(
+                signUpRequest.getFirstName(),
+                signUpRequest.getLastName(),
+                signUpRequest.getEmail(),
+                passwordHash,
+                signUpRequest.getCompanyName()
+            );
+            
+            if (signUpRequest.getPhone() != null) {
+                owner.setPhone(signUpRequest.getPhone());
+            }
+            owner.setBusinessLicense(signUpRequest.getBusinessLicense());
+            owner.setTaxId(signUpRequest.getTaxId());
+            owner.setBio(signUpRequest.getBio());
+            
+            Owner savedOwner = ownerRepository.save(owner);
+            kpiService.ownerCreated(savedOwner.getId());
+            return savedOwner;
+        } else {
+            // Create regular user (tenant will be created later when they get a room code)
+            User user = new User(
+                signUpRequest.getFirstName(),
+                signUpRequest.getLastName(),
+                signUpRequest.getEmail(),
+                passwordHash,
+                signUpRequest.getRole()
+            );
+            
+            if (signUpRequest.getPhone() != null) {
+                user.setPhone(signUpRequest.getPhone());
+            }
+            
+            return userRepository.save(user);
+        }
+    }
+    
+    public static ResponseEntity<AuthResponse> tooManyRequests() {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(new AuthResponse("Error: Too many requests, please try again shortly."));
+    }
 }
@@ -0,0 +1,216 @@
+package com.example.Colten.service;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.InvalidRequestException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.Refund;
+import com.stripe.param.PaymentIntentCreateParams;
+import com.stripe.param.RefundCreateParams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory Stripe stand-in for tests, load runs and chaos experiments; nothing leaves the JVM.
+ *
+ * Intents and refunds live in maps and follow Stripe's happy path: a confirmed intent succeeds
+ * with a charge, unless its payment method is Stripe's decline test card (pm_card_chargeDeclined)
+ * or the decline roll says otherwise, in which case it ends in requires_payment_method. Repeats
+ * of an idempotency key return the intent created the first time, as Stripe does.
+ *
+ * Every call first sleeps for the configured latency plus jitter, then may fail with a
+ * connection error or a 500, at the configured rates, before doing anything. Settings live
+ * under app.stripe.fake.*. Tests can also make the next calls lose their response: the call
+ * takes effect, then fails with a connection error, as when a reply is lost on the way back.
+ */
+@Component
+@Qualifier(StripeGateway.TRANSPORT)
+@ConditionalOnProperty(name = "app.stripe.gateway", havingValue = "fake")
+public class FakeStripeGateway implements StripeGateway {
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeStripeGateway.class);
+
+    static final String DECLINED_PAYMENT_METHOD = "pm_card_chargeDeclined";
+
+    @Value("${app.stripe.fake.latency-ms:0}")
+    private long latencyMs;
+
+    @Value("${app.stripe.fake.jitter-ms:0}")
+    private long jitterMs;
+
+    @Value("${app.stripe.fake.connection-failure-rate:0}")
+    private double connectionFailureRate;
+
+    @Value("${app.stripe.fake.server-error-rate:0}")
+    private double serverErrorRate;
+
+    @Value("${app.stripe.fake.decline-rate:0}")
+    private double declineRate;
+
+    private final Map<String, PaymentIntent> intents = new ConcurrentHashMap<>();
+    private final Map<String, String> intentsByIdempotencyKey = new ConcurrentHashMap<>();
+    private final Map<String, PaymentIntent> intentsByCharge = new ConcurrentHashMap<>();
+    private final Map<String, Long> refundedByCharge = new ConcurrentHashMap<>();
+    private final AtomicInteger responsesToLose = new AtomicInteger();
+
+    @Override
+    public PaymentIntent createPaymentIntent(PaymentIntentCreateParams params, String idempotencyKey) throws StripeException {
+        simulateNetwork();
+        if (idempotencyKey != null) {
+            String existing = intentsByIdempotencyKey.get(idempotencyKey);
+            if (existing != null) {
+                return respond(intents.get(existing));
+            }
+        }
+
+        PaymentIntent intent = new PaymentIntent();
+        intent.setId("pi_fake_" + randomId());
+        intent.setObject("payment_intent");
+        intent.setAmount(params.getAmount());
+        intent.setCurrency(params.getCurrency());
+        intent.setDescription(params.getDescription());
+        intent.setPaymentMethod(params.getPaymentMethod());
+        intent.setCreated(System.currentTimeMillis() / 1000);
+        intent.setLivemode(false);
+        if (Boolean.TRUE.equals(params.getConfirm())) {
+            settle(intent);
+        } else {
+            intent.setStatus(params.getPaymentMethod() != null ? "requires_confirmation" : "requires_payment_method");
+        }
+
+        if (idempotencyKey != null) {
+            String winner = intentsByIdempotencyKey.putIfAbsent(idempotencyKey, intent.getId());
+            if (winner != null) {
+                // A concurrent retry with the same key got there first
+                return respond(intents.get(winner));
+            }
+        }
+        intents.put(intent.getId(), intent);
+        return respond(intent);
+    }
+
+    @Override
+    public PaymentIntent retrievePaymentIntent(String paymentIntentId) throws StripeException {
+        simulateNetwork();
+        return respond(find(paymentIntentId));
+    }
+
+    @Override
+    public PaymentIntent confirmPaymentIntent(String paymentIntentId) throws StripeException {
+        simulateNetwork();
+        PaymentIntent intent = find(paymentIntentId);
+        synchronized (intent) {
+            if ("succeeded".equals(intent.getStatus())) {
+                throw new InvalidRequestException("This PaymentIntent has already succeeded", null,
+                    null, "payment_intent_unexpected_state", 400, null);
+            }
+            settle(intent);
+        }
+        return respond(intent);
+    }
+
+    @Override
+    public Refund createRefund(RefundCreateParams params) throws StripeException {
+        simulateNetwork();
+        PaymentIntent intent = params.getCharge() != null ? intentsByCharge.get(params.getCharge()) : null;
+        if (intent == null) {
+            throw new InvalidRequestException("No such charge: '" + params.getCharge() + "'", "charge",
+                null, "resource_missing", 404, null);
+        }
+        long amount = params.getAmount() != null ? params.getAmount() : intent.getAmount();
+        long refunded = refundedByCharge.merge(params.getCharge(), amount, Long::sum);
+        if (refunded > intent.getAmount()) {
+            refundedByCharge.merge(params.getCharge(), -amount, Long::sum);
+            throw new InvalidRequestException("Refund amount exceeds the remaining charge amount", "amount",
+                null, "amount_too_large", 400, null);
+        }
+
+        Refund refund = new Refund();
+        refund.setId("re_fake_" + randomId());
+        refund.setObject("refund");
+        refund.setAmount(amount);
+        refund.setCurrency(intent.getCurrency());
+        refund.setCharge(params.getCharge());
+        refund.setPaymentIntent(intent.getId());
+        refund.setCreated(System.currentTimeMillis() / 1000);
+        refund.setStatus("succeeded");
+        return respond(refund);
+    }
+
+    // Number of intents created so far; for tests and load run reports
+    public int intentCount() {
+        return intents.size();
+    }
+
+    // The next calls take effect but fail with a connection error instead of answering; for tests
+    public void loseNextResponses(int calls) {
+        responsesToLose.set(calls);
+    }
+
+    private void settle(PaymentIntent intent) {
+        boolean declined = DECLINED_PAYMENT_METHOD.equals(intent.getPaymentMethod())
+            || ThreadLocalRandom.current().nextDouble() < declineRate;
+        if (declined) {
+            intent.setStatus("requires_payment_method");
+            return;
+        }
+        String chargeId = "ch_fake_" + randomId();
+        intent.setStatus("succeeded");
+        intent.setAmountReceived(intent.getAmount());
+        intent.setLatestCharge(chargeId);
+        intentsByCharge.put(chargeId, intent);
+    }
+
+    private PaymentIntent find(String paymentIntentId) throws StripeException {
+        PaymentIntent intent = paymentIntentId != null ? intents.get(paymentIntentId) : null;
+        if (intent == null) {
+            throw new InvalidRequestException("No such payment_intent: '" + paymentIntentId + "'", "intent",
+                null, "resource_missing", 404, null);
+        }
+        return intent;
+    }
+
+    private void simulateNetwork() throws StripeException {
+        long delay = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ApiConnectionException("Interrupted while waiting for the fake Stripe response", e);
+            }
+        }
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < connectionFailureRate) {
+            logger.debug("Fake Stripe: injecting a connection failure");
+            throw new ApiConnectionException("Injected connection failure (fake Stripe)");
+        }
+        if (roll < connectionFailureRate + serverErrorRate) {
+            logger.debug("Fake Stripe: injecting a server error");
+            throw new ApiException("Injected server error (fake Stripe)", null, "api_error", 500, null);
+        }
+    }
+
+    private <T> T respond(T result) throws StripeException {
+        if (responsesToLose.getAndUpdate(left -> Math.max(0, left - 1)) > 0) {
+            logger.debug("Fake Stripe: dropping the response");
+            throw new ApiConnectionException("Response lost (fake Stripe)");
+        }
+        return result;
+    }
+
+    private static String randomId() {
+        return UUID.randomUUID().toString().replace("-", "").substring(0, 24);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.Colten.service;
+
+/**
+ * Thrown when the password hashing pool is saturated and the request should be retried later (HTTP 429).
+ */
+public class HashingCapacityExceededException extends RuntimeException {
+    
+    public HashingCapacityExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,251 @@
+package com.example.Colten.service;
+
+import com.example.Colten.model.IdempotencyRecord;
+import com.example.Colten.repository.IdempotencyRecordRepository;
+import com.example.Colten.util.ExpiringCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for write endpoints that clients retry on timeouts.
+ *
+ * The first request with a key claims it by inserting a row in its own transaction, then runs
+ * the write; a successful response is stored in the same transaction as the write, so either
+ * both commit or neither does. A repeat of the key with the same body gets the stored response
+ * back without running the write again, from memory when this instance has seen it and from
+ * the table otherwise. A repeat while the first is still running gets 409, a repeat with a
+ * different body 422. Failed requests release the key so the client can retry.
+ *
+ * A claim is only a lease of app.idempotency.lease-seconds; the full TTL starts when the
+ * response is stored. If an instance dies mid-request, its claim lapses and the next retry
+ * takes the key over instead of getting 409 for a day. Completing and releasing only touch
+ * the caller's own claim: a request that outlived its lease finds the key taken over, its
+ * write is rolled back and it answers 409 like any other duplicate.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${app.idempotency.lease-seconds:60}")
+    private long leaseSeconds;
+
+    @Value("${app.idempotency.cache-max-size:10000}")
+    private int cacheMaxSize;
+
+    private ExpiringCache<String, IdempotencyRecord> completed;
+    private TransactionTemplate transaction;
+    private TransactionTemplate separateTransaction;
+
+    @PostConstruct
+    void init() {
+        completed = new ExpiringCache<>(Duration.ofHours(ttlHours), cacheMaxSize);
+        transaction = new TransactionTemplate(transactionManager);
+        separateTransaction = new TransactionTemplate(transactionManager);
+        separateTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Runs the write at most once per key. Without a key the write simply runs (in a
+     * transaction, like the keyed path). Must be called outside a transaction.
+     */
+    public ResponseEntity<?> execute(String key, String scope, Long userId, Object request,
+                                     Supplier<ResponseEntity<?>> write) {
+        if (key == null || key.isBlank()) {
+            return transaction.execute(status -> write.get());
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest()
+                .body("Error: " + HEADER + " must not exceed " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String recordKey = scope + ":" + userId + ":" + key;
+        String requestHash = hash(request);
+
+        IdempotencyRecord cached = completed.getIfPresent(recordKey);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        LocalDateTime claimedAt = claim(recordKey, requestHash);
+        if (claimedAt == null) {
+            Optional<IdempotencyRecord> existing = recordRepository.findById(recordKey);
+            if (existing.isEmpty()) {
+                // Released between our insert and this read; the client may simply retry
+                return inProgress();
+            }
+            IdempotencyRecord record = existing.get();
+            if (!record.isCompleted()) {
+                return inProgress();
+            }
+            completed.put(recordKey, record);
+            return replay(record, requestHash);
+        }
+
+        ResponseEntity<?> response;
+        try {
+            response = transaction.execute(status -> {
+                ResponseEntity<?> result = write.get();
+                if (result.getStatusCode().is2xxSuccessful()) {
+                    URI location = result.getHeaders().getLocation();
+                    int stored = recordRepository.complete(recordKey, claimedAt, result.getStatusCode().value(),
+                        toJson(result.getBody()), location != null ? location.toString() : null,
+                        LocalDateTime.now().plusHours(ttlHours));
+                    if (stored == 0) {
+                        throw new LeaseLostException();
+                    }
+                }
+                return result;
+            });
+        } catch (LeaseLostException e) {
+            logger.warn("Idempotency claim on {} lapsed before the request finished; its write was rolled back", recordKey);
+            return inProgress();
+        } catch (RuntimeException e) {
+            release(recordKey, claimedAt);
+            throw e;
+        }
+
+        if (response.getStatusCode().is2xxSuccessful()) {
+            recordRepository.findById(recordKey).ifPresent(record -> completed.put(recordKey, record));
+        } else {
+            release(recordKey, claimedAt);
+        }
+        return response;
+    }
+
+    @Scheduled(initialDelayString = "${app.idempotency.purge-interval-ms:3600000}",
+               fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        try {
+            Integer purged = transaction.execute(status -> recordRepository.deleteExpired(LocalDateTime.now()));
+            logger.debug("Purged {} expired idempotency key(s)", purged);
+        } catch (Exception e) {
+            logger.error("Purging expired idempotency keys failed", e);
+        }
+    }
+
+    // Returns the claim's timestamp, which identifies it when completing or releasing, or null if the key is taken
+    private LocalDateTime claim(String recordKey, String requestHash) {
+        // Millisecond precision so the value reads back unchanged from any timestamp column
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        try {
+            separateTransaction.executeWithoutResult(status ->
+                recordRepository.insert(recordKey, requestHash, now, now.plusSeconds(leaseSeconds)));
+            return now;
+        } catch (DataIntegrityViolationException e) {
+            // Taken; if only by an expired record or a lapsed claim, clear it and try once more
+            Integer removed = separateTransaction.execute(status -> {
+                Optional<IdempotencyRecord> existing = recordRepository.findById(recordKey);
+                if (existing.isPresent() && existing.get().getExpiresAt().isBefore(now)) {
+                    recordRepository.delete(existing.get());
+                    return 1;
+                }
+                return 0;
+            });
+            if (removed == null || removed == 0) {
+                return null;
+            }
+            try {
+                separateTransaction.executeWithoutResult(status ->
+                    recordRepository.insert(recordKey, requestHash, now, now.plusSeconds(leaseSeconds)));
+                return now;
+            } catch (DataIntegrityViolationException again) {
+                return null;
+            }
+        }
+    }
+
+    private void release(String recordKey, LocalDateTime claimedAt) {
+        try {
+            separateTransaction.executeWithoutResult(status -> recordRepository.release(recordKey, claimedAt));
+        } catch (RuntimeException e) {
+            logger.warn("Could not release idempotency key {}; it is reclaimed once its lease lapses", recordKey, e);
+        }
+    }
+
+    private ResponseEntity<?> replay(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            return ResponseEntity.unprocessableEntity()
+                .body("Error: " + HEADER + " was already used with a different request");
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(record.getResponseStatus())
+            .header(REPLAYED_HEADER, "true")
+            .contentType(MediaType.APPLICATION_JSON);
+        if (record.getResponseLocation() != null) {
+            builder.header(HttpHeaders.LOCATION, record.getResponseLocation());
+        }
+        return builder.body(record.getResponseBody());
+    }
+
+    private static ResponseEntity<?> inProgress() {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+            .body("Error: A request with this " + HEADER + " is still being processed");
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(toJson(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    // The claim was taken over while the write ran; rolls the write back
+    private static class LeaseLostException extends RuntimeException {
+        LeaseLostException() {
+            super(null, null, false, false);
+        }
+    }
+}
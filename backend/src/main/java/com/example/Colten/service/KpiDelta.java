@@ -0,0 +1,159 @@
+package com.example.Colten.service;
+
+import com.example.Colten.model.Building;
+import com.example.Colten.model.Issue;
+import com.example.Colten.model.IssueStatus;
+import com.example.Colten.model.KpiCounters;
+import com.example.Colten.model.Payment;
+import com.example.Colten.model.PaymentStatus;
+import com.example.Colten.model.Unit;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * What a payment, issue or unit contributes to the KPI rows of its building and owner.
+ *
+ * Callers take a snapshot before mutating an entity and hand it to KpiService together
+ * with the entity afterwards; the service applies the difference. The same type carries
+ * absolute totals when the counters are rebuilt from the source tables.
+ */
+public final class KpiDelta {
+
+    private final Long ownerId;
+    private final Long buildingId;
+    private final int month;
+    private final BigDecimal monthRevenue;
+    private final BigDecimal totalRevenue;
+    private final long totalPayments;
+    private final long pendingPayments;
+    private final long openIssues;
+    private final long totalUnits;
+    private final long occupiedUnits;
+
+    public KpiDelta(Long ownerId, Long buildingId, int month, BigDecimal monthRevenue, BigDecimal totalRevenue,
+                    long totalPayments, long pendingPayments, long openIssues, long totalUnits, long occupiedUnits) {
+        this.ownerId = ownerId;
+        this.buildingId = buildingId;
+        this.month = month;
+        this.monthRevenue = monthRevenue != null ? monthRevenue : BigDecimal.ZERO;
+        this.totalRevenue = totalRevenue != null ? totalRevenue : BigDecimal.ZERO;
+        this.totalPayments = totalPayments;
+        this.pendingPayments = pendingPayments;
+        this.openIssues = openIssues;
+        this.totalUnits = totalUnits;
+        this.occupiedUnits = occupiedUnits;
+    }
+
+    // Used by the source aggregate queries; monthRevenue there is always for the current month
+    public KpiDelta(Long ownerId, Long buildingId, BigDecimal monthRevenue, BigDecimal totalRevenue,
+                    Long totalPayments, Long pendingPayments, Long openIssues, Long totalUnits, Long occupiedUnits) {
+        this(ownerId, buildingId, KpiCounters.monthKey(LocalDateTime.now()), monthRevenue, totalRevenue,
+             orZero(totalPayments), orZero(pendingPayments), orZero(openIssues), orZero(totalUnits), orZero(occupiedUnits));
+    }
+
+    public static KpiDelta forPayment(Payment payment) {
+        if (payment == null) {
+            return null;
+        }
+        boolean completed = payment.getStatus() == PaymentStatus.COMPLETED;
+        boolean pending = payment.getStatus() == PaymentStatus.PENDING || payment.getStatus() == PaymentStatus.FAILED;
+        BigDecimal revenue = completed ? payment.getAmount() : BigDecimal.ZERO;
+        int month = payment.getPaymentDate() != null ? KpiCounters.monthKey(payment.getPaymentDate()) : 0;
+        return new KpiDelta(payment.getOwnerId(), payment.getBuildingId(), month, revenue, revenue,
+                            1, pending ? 1 : 0, 0, 0, 0);
+    }
+
+    public static KpiDelta forIssue(Issue issue) {
+        if (issue == null) {
+            return null;
+        }
+        return new KpiDelta(issue.getOwnerId(), issue.getBuildingId(), 0, null, null,
+                            0, 0, issue.getStatus() == IssueStatus.OPEN ? 1 : 0, 0, 0);
+    }
+
+    public static KpiDelta forNewUnit(Unit unit) {
+        Building building = unit.getBuilding();
+        return new KpiDelta(building.getOwner().getId(), building.getId(), 0, null, null,
+                            0, 0, 0, 1, unit.getTenant() != null ? 1 : 0);
+    }
+
+    public static KpiDelta forOccupancyChange(Unit unit, int change) {
+        Building building = unit.getBuilding();
+        return new KpiDelta(building.getOwner().getId(), building.getId(), 0, null, null,
+                            0, 0, 0, 0, change);
+    }
+
+    public KpiDelta negate() {
+        return new KpiDelta(ownerId, buildingId, month, monthRevenue.negate(), totalRevenue.negate(),
+                            -totalPayments, -pendingPayments, -openIssues, -totalUnits, -occupiedUnits);
+    }
+
+    /**
+     * Difference between two contributions, or null when they target different rows or
+     * revenue months and have to be applied separately.
+     */
+    public KpiDelta minus(KpiDelta other) {
+        if (!sameTarget(other)) {
+            return null;
+        }
+        return new KpiDelta(ownerId, buildingId, month,
+                            monthRevenue.subtract(other.monthRevenue), totalRevenue.subtract(other.totalRevenue),
+                            totalPayments - other.totalPayments, pendingPayments - other.pendingPayments,
+                            openIssues - other.openIssues, totalUnits - other.totalUnits,
+                            occupiedUnits - other.occupiedUnits);
+    }
+
+    public KpiDelta plus(KpiDelta other) {
+        return new KpiDelta(ownerId, buildingId, month,
+                            monthRevenue.add(other.monthRevenue), totalRevenue.add(other.totalRevenue),
+                            totalPayments + other.totalPayments, pendingPayments + other.pendingPayments,
+                            openIssues + other.openIssues, totalUnits + other.totalUnits,
+                            occupiedUnits + other.occupiedUnits);
+    }
+
+    public boolean isZero() {
+        return monthRevenue.signum() == 0 && totalRevenue.signum() == 0 && totalPayments == 0
+            && pendingPayments == 0 && openIssues == 0 && totalUnits == 0 && occupiedUnits == 0;
+    }
+
+    /**
+     * Writes these values as absolute counters for the given month.
+     */
+    public void copyTo(KpiCounters counters, int currentMonth) {
+        counters.setRevenueMonth(currentMonth);
+        counters.setMonthRevenue(monthRevenueFor(currentMonth));
+        counters.setTotalRevenue(totalRevenue);
+        counters.setTotalPayments(totalPayments);
+        counters.setPendingPayments(pendingPayments);
+        counters.setOpenIssues(openIssues);
+        counters.setTotalUnits(totalUnits);
+        counters.setOccupiedUnits(occupiedUnits);
+        counters.setUpdatedAt(LocalDateTime.now());
+    }
+
+    public BigDecimal monthRevenueFor(int currentMonth) {
+        return month == currentMonth ? monthRevenue : BigDecimal.ZERO;
+    }
+
+    private boolean sameTarget(KpiDelta other) {
+        return Objects.equals(ownerId, other.ownerId) && Objects.equals(buildingId, other.buildingId)
+            && (month == other.month || (monthRevenue.signum() == 0 && other.monthRevenue.signum() == 0));
+    }
+
+    private static long orZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
+    public Long getOwnerId() { return ownerId; }
+    public Long getBuildingId() { return buildingId; }
+    public int getMonth() { return month; }
+    public BigDecimal getMonthRevenue() { return monthRevenue; }
+    public BigDecimal getTotalRevenue() { return totalRevenue; }
+    public long getTotalPayments() { return totalPayments; }
+    public long getPendingPayments() { return pendingPayments; }
+    public long getOpenIssues() { return openIssues; }
+    public long getTotalUnits() { return totalUnits; }
+    public long getOccupiedUnits() { return occupiedUnits; }
+}
@@ -0,0 +1,73 @@
+package com.example.Colten.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically rebuilds the KPI counters from the source tables. Runs once shortly after
+ * startup so rows exist for data created before the KPI store, then on a fixed delay.
+ *
+ * The schedule only starts on ApplicationReadyEvent, which Spring publishes after every
+ * ApplicationRunner has returned. The first pass therefore sees the owner and building ids
+ * OwnershipBackfill fills in, instead of racing it and counting half-backfilled rows.
+ *
+ * A pass can take minutes on a large portfolio, so it runs on its own thread rather than on
+ * the shared scheduler, where it would hold up the webhook and outbox pollers until it ends.
+ */
+@Component
+@ConditionalOnProperty(name = "app.kpi.reconcile.enabled", havingValue = "true", matchIfMissing = true)
+public class KpiReconciliationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(KpiReconciliationJob.class);
+
+    @Autowired
+    private KpiService kpiService;
+
+    @Value("${app.kpi.reconcile.initial-delay-ms:0}")
+    private long initialDelayMs;
+
+    @Value("${app.kpi.reconcile.interval-ms:900000}")
+    private long intervalMs;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "kpi-reconcile");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::reconcile, initialDelayMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public void reconcile() {
+        long start = System.currentTimeMillis();
+        try {
+            int drifted = kpiService.reconcile();
+            long elapsed = System.currentTimeMillis() - start;
+            if (drifted > 0) {
+                logger.warn("KPI reconciliation corrected {} row(s) in {} ms", drifted, elapsed);
+            } else {
+                logger.debug("KPI reconciliation found no drift in {} ms", elapsed);
+            }
+        } catch (Exception e) {
+            logger.error("KPI reconciliation failed", e);
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.Colten.service;
+
+import com.example.Colten.dto.OwnerDashboardStats;
+import com.example.Colten.model.Building;
+import com.example.Colten.model.BuildingKpi;
+import com.example.Colten.model.Issue;
+import com.example.Colten.model.KpiCounters;
+import com.example.Colten.model.OwnerKpi;
+import com.example.Colten.model.Payment;
+import com.example.Colten.model.Unit;
+import com.example.Colten.repository.BuildingKpiRepository;
+import com.example.Colten.repository.OwnerKpiRepository;
+import com.example.Colten.repository.OwnerRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Maintains the per-owner and per-building KPI rows that back the dashboards.
+ *
+ * Every write path that changes a payment, issue, unit or tenant assignment reports the
+ * change here inside its own transaction, and the counters are adjusted with a single
+ * atomic UPDATE per row. reconcile() rebuilds everything from the source tables and
+ * corrects (and logs) any drift.
+ */
+@Service
+public class KpiService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KpiService.class);
+
+    @Autowired
+    private OwnerKpiRepository ownerKpiRepository;
+
+    @Autowired
+    private BuildingKpiRepository buildingKpiRepository;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Transactional
+    public void recordPayment(KpiDelta before, Payment after) {
+        record(before, KpiDelta.forPayment(after));
+    }
+
+    @Transactional
+    public void recordIssue(KpiDelta before, Issue after) {
+        record(before, KpiDelta.forIssue(after));
+    }
+
+    @Transactional
+    public void recordUnitCreated(Unit unit) {
+        apply(KpiDelta.forNewUnit(unit));
+    }
+
+    @Transactional
+    public void recordOccupancyChange(Unit unit, int change) {
+        apply(KpiDelta.forOccupancyChange(unit, change));
+    }
+
+    @Transactional
+    public void ownerCreated(Long ownerId) {
+        if (!ownerKpiRepository.existsById(ownerId)) {
+            ownerKpiRepository.save(new OwnerKpi(ownerId));
+        }
+    }
+
+    @Transactional
+    public void buildingCreated(Building building) {
+        Long ownerId = building.getOwner().getId();
+        buildingKpiRepository.save(new BuildingKpi(building.getId(), ownerId));
+        ownerCreated(ownerId);
+    }
+
+    /**
+     * Deleting a unit or building cascades to its tenants, issues and payments, so the
+     * owner's rows are rebuilt from source rather than adjusted.
+     */
+    @Transactional
+    public void recordCascadeDelete(Long ownerId, Long deletedBuildingId) {
+        if (deletedBuildingId != null) {
+            buildingKpiRepository.deleteById(deletedBuildingId);
+        }
+        rebuildOwner(ownerId);
+    }
+
+    /**
+     * A unit moved between two of the owner's buildings; its whole history moves with it.
+     */
+    @Transactional
+    public void recordUnitMoved(Long ownerId) {
+        rebuildOwner(ownerId);
+    }
+
+    @Transactional
+    public OwnerDashboardStats getOwnerDashboardStats(Long ownerId) {
+        OwnerKpi kpi = ownerKpiRepository.findById(ownerId).orElseGet(() -> rebuildOwner(ownerId));
+        return toStats(kpi);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<BuildingKpi> getBuildingKpi(Long buildingId) {
+        return buildingKpiRepository.findById(buildingId);
+    }
+
+    /**
+     * Recomputes every KPI row from the source tables, fixing any that drifted.
+     *
+     * The totals are computed and compared without taking any locks, so writers and
+     * dashboards carry on during the aggregation. Only owners whose rows look wrong are then
+     * revisited, each in its own short transaction: that owner's KPI rows are locked first,
+     * so in-flight writers either commit before its source totals are re-read or apply their
+     * deltas after the fix commits, and only rows still wrong on the recheck are written.
+     * A mismatch caused by a writer committing mid-scan is therefore not "corrected".
+     *
+     * @return the number of rows that were missing, stale or wrong
+     */
+    public int reconcile() {
+        TransactionTemplate scan = new TransactionTemplate(transactionManager);
+        scan.setReadOnly(true);
+        Set<Long> suspects = scan.execute(status -> findDriftedOwners());
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int drifted = 0;
+        for (Long ownerId : suspects) {
+            Integer corrected = transaction.execute(status -> reconcileOwner(ownerId));
+            drifted += corrected != null ? corrected : 0;
+        }
+        return drifted;
+    }
+
+    // Owners with a missing, orphaned or wrong KPI row, judged from unlocked reads; sorted so locks are taken in id order
+    private Set<Long> findDriftedOwners() {
+        int month = currentMonth();
+        Map<Long, OwnerKpi> ownerRows = new HashMap<>();
+        for (OwnerKpi row : ownerKpiRepository.findAll()) {
+            ownerRows.put(row.getOwnerId(), row);
+        }
+        Map<Long, BuildingKpi> buildingRows = new HashMap<>();
+        for (BuildingKpi row : buildingKpiRepository.findAll()) {
+            buildingRows.put(row.getBuildingId(), row);
+        }
+
+        LocalDateTime monthStart = monthStart();
+        Set<Long> suspects = new TreeSet<>();
+        Map<Long, KpiDelta> ownerTotals = new HashMap<>();
+        for (KpiDelta totals : buildingKpiRepository.computeAllFromSource(monthStart, monthStart.plusMonths(1))) {
+            ownerTotals.merge(totals.getOwnerId(), totals, KpiDelta::plus);
+            BuildingKpi row = buildingRows.remove(totals.getBuildingId());
+            if (row == null || !matches(row, totals, month)) {
+                suspects.add(totals.getOwnerId());
+            }
+        }
+        // Rows whose building no longer exists
+        for (BuildingKpi orphan : buildingRows.values()) {
+            suspects.add(orphan.getOwnerId());
+        }
+
+        for (Long ownerId : ownerRepository.findAllIds()) {
+            OwnerKpi row = ownerRows.remove(ownerId);
+            if (row == null || !matches(row, ownerTotals.getOrDefault(ownerId, emptyTotals(ownerId)), month)) {
+                suspects.add(ownerId);
+            }
+        }
+        // Rows whose owner no longer exists
+        suspects.addAll(ownerRows.keySet());
+        return suspects;
+    }
+
+    // Rechecks one owner with its KPI rows locked and fixes whatever is still wrong
+    private int reconcileOwner(Long ownerId) {
+        int month = currentMonth();
+        Optional<OwnerKpi> ownerRow = ownerKpiRepository.findByIdForUpdate(ownerId);
+        Map<Long, BuildingKpi> buildingRows = new HashMap<>();
+        for (BuildingKpi row : buildingKpiRepository.findByOwnerIdForUpdate(ownerId)) {
+            buildingRows.put(row.getBuildingId(), row);
+        }
+
+        int drifted = 0;
+        KpiDelta ownerTotals = emptyTotals(ownerId);
+        if (ownerRepository.existsById(ownerId)) {
+            LocalDateTime monthStart = monthStart();
+            for (KpiDelta totals : buildingKpiRepository.computeFromSourceByOwnerId(ownerId, monthStart, monthStart.plusMonths(1))) {
+                ownerTotals = ownerTotals.plus(totals);
+                BuildingKpi row = buildingRows.remove(totals.getBuildingId());
+                boolean missing = row == null;
+                if (missing) {
+                    row = new BuildingKpi(totals.getBuildingId(), ownerId);
+                }
+                if (correct(row, missing, totals, month, "building " + totals.getBuildingId())) {
+                    buildingKpiRepository.save(row);
+                    drifted++;
+                }
+            }
+        } else if (ownerRow.isPresent()) {
+            logger.warn("KPI drift for owner {}: row exists but owner was deleted", ownerId);
+            ownerKpiRepository.delete(ownerRow.get());
+            ownerRow = Optional.empty();
+            drifted++;
+        }
+        for (BuildingKpi orphan : buildingRows.values()) {
+            logger.warn("KPI drift for building {}: row exists but building was deleted", orphan.getBuildingId());
+            buildingKpiRepository.delete(orphan);
+            drifted++;
+        }
+
+        if (ownerRepository.existsById(ownerId)) {
+            boolean missing = ownerRow.isEmpty();
+            OwnerKpi row = ownerRow.orElseGet(() -> new OwnerKpi(ownerId));
+            if (correct(row, missing, ownerTotals, month, "owner " + ownerId)) {
+                ownerKpiRepository.save(row);
+                drifted++;
+            }
+        }
+        return drifted;
+    }
+
+    private void record(KpiDelta before, KpiDelta after) {
+        if (before == null) {
+            apply(after);
+        } else if (after == null) {
+            apply(before.negate());
+        } else {
+            KpiDelta difference = after.minus(before);
+            if (difference != null) {
+                apply(difference);
+            } else {
+                apply(before.negate());
+                apply(after);
+            }
+        }
+    }
+
+    private void apply(KpiDelta delta) {
+        if (delta == null || delta.isZero()) {
+            return;
+        }
+        int month = currentMonth();
+        LocalDateTime now = LocalDateTime.now();
+        int buildingRows = buildingKpiRepository.applyDelta(delta.getBuildingId(), month,
+            delta.monthRevenueFor(month), delta.getTotalRevenue(), delta.getTotalPayments(),
+            delta.getPendingPayments(), delta.getOpenIssues(), delta.getTotalUnits(), delta.getOccupiedUnits(), now);
+        int ownerRows = ownerKpiRepository.applyDelta(delta.getOwnerId(), month,
+            delta.monthRevenueFor(month), delta.getTotalRevenue(), delta.getTotalPayments(),
+            delta.getPendingPayments(), delta.getOpenIssues(), delta.getTotalUnits(), delta.getOccupiedUnits(), now);
+
+        // Rows predating the KPI store are created on first use
+        if (buildingRows == 0 || ownerRows == 0) {
+            rebuildOwner(delta.getOwnerId());
+        }
+    }
+
+    private OwnerKpi rebuildOwner(Long ownerId) {
+        int month = currentMonth();
+        LocalDateTime monthStart = monthStart();
+        KpiDelta ownerTotals = emptyTotals(ownerId);
+        for (KpiDelta totals : buildingKpiRepository.computeFromSourceByOwnerId(ownerId, monthStart, monthStart.plusMonths(1))) {
+            ownerTotals = ownerTotals.plus(totals);
+            BuildingKpi row = buildingKpiRepository.findById(totals.getBuildingId())
+                .orElseGet(() -> new BuildingKpi(totals.getBuildingId(), ownerId));
+            totals.copyTo(row, month);
+            buildingKpiRepository.save(row);
+        }
+        OwnerKpi row = ownerKpiRepository.findById(ownerId).orElseGet(() -> new OwnerKpi(ownerId));
+        ownerTotals.copyTo(row, month);
+        return ownerKpiRepository.save(row);
+    }
+
+    private boolean matches(KpiCounters row, KpiDelta totals, int month) {
+        OwnerKpi expected = new OwnerKpi();
+        totals.copyTo(expected, month);
+        return row.countersMatch(expected, month);
+    }
+
+    private boolean correct(KpiCounters row, boolean missing, KpiDelta totals, int month, String label) {
+        if (!missing && matches(row, totals, month)) {
+            return false;
+        }
+        OwnerKpi expected = new OwnerKpi();
+        totals.copyTo(expected, month);
+        if (missing) {
+            logger.info("Creating missing KPI row for {}", label);
+        } else {
+            logger.warn("KPI drift for {}: stored [{}], expected [{}]",
+                label, row.describeCounters(month), expected.describeCounters(month));
+        }
+        row.copyCountersFrom(expected);
+        return true;
+    }
+
+    private OwnerDashboardStats toStats(OwnerKpi kpi) {
+        OwnerDashboardStats stats = new OwnerDashboardStats(kpi.getRevenueForMonth(currentMonth()),
+            kpi.getTotalRevenue(), kpi.getTotalPayments(), kpi.getPendingPayments(), kpi.getOpenIssues());
+        stats.setTotalUnits(kpi.getTotalUnits());
+        stats.setOccupiedUnits(kpi.getOccupiedUnits());
+        return stats;
+    }
+
+    private static KpiDelta emptyTotals(Long ownerId) {
+        return new KpiDelta(ownerId, null, currentMonth(), null, null, 0, 0, 0, 0, 0);
+    }
+
+    private static int currentMonth() {
+        return KpiCounters.monthKey(LocalDateTime.now());
+    }
+
+    private static LocalDateTime monthStart() {
+        return LocalDate.now().withDayOfMonth(1).atStartOfDay();
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.Colten.service;
+
+import com.example.Colten.repository.IssueRepository;
+import com.example.Colten.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Fills the denormalized owner_id and building_id columns on issues and payments written
+ * before those columns existed. Walks each table in id ranges, one short transaction per
+ * range, and only touches rows that are still missing a value, so reruns are cheap.
+ */
+@Component
+@Order(0)
+@ConditionalOnProperty(name = "app.backfill.ownership.enabled", havingValue = "true", matchIfMissing = true)
+public class OwnershipBackfill implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(OwnershipBackfill.class);
+
+    @Autowired
+    private IssueRepository issueRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.backfill.ownership.batch-size:5000}")
+    private int batchSize;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int issues = backfill(issueRepository::findMaxId, issueRepository::backfillOwnership);
+        int payments = backfill(paymentRepository::findMaxId, paymentRepository::backfillOwnership);
+        if (issues > 0 || payments > 0) {
+            logger.info("Backfilled owner/building ids on {} issue(s) and {} payment(s)", issues, payments);
+        }
+    }
+
+    private int backfill(Supplier<Long> maxId, BiFunction<Long, Long, Integer> updateRange) {
+        Long max = maxId.get();
+        if (max == null) {
+            return 0;
+        }
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int updated = 0;
+        for (long from = 1; from <= max; from += batchSize) {
+            long fromId = from;
+            long toId = from + batchSize - 1;
+            Integer rows = transaction.execute(status -> updateRange.apply(fromId, toId));
+            updated += rows != null ? rows : 0;
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.Colten.service;
+
+import com.example.Colten.model.OutboxStatus;
+import com.example.Colten.model.PaymentOutbox;
+import com.example.Colten.repository.PaymentOutboxRepository;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.param.PaymentIntentCreateParams;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drives queued Stripe payments to a final status on a dedicated worker pool, off the request
+ * threads.
+ *
+ * New entries are handed to the pool right after their transaction commits; a poller picks up
+ * anything that was not (pool full, restart) and entries whose lease expired because a worker
+ * died mid-call. Each entry is claimed with a conditional update, so running several
+ * instances is safe, and its outcome is only written while that lease is still held: a worker
+ * that outlived its lease finds the entry re-claimed and its write is rolled back. Transient
+ * Stripe errors are retried with exponential backoff under the same idempotency key; declines
+ * and exhausted retries mark the payment FAILED. Calls the gateway refuses without reaching
+ * Stripe (circuit open, bulkhead full) do not use up an attempt.
+ */
+@Component
+@ConditionalOnProperty(name = "app.payments.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentOutboxProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentOutboxProcessor.class);
+
+    @Autowired
+    private PaymentOutboxRepository outboxRepository;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private StripeGateway stripeGateway;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.payments.outbox.workers:16}")
+    private int workers;
+
+    @Value("${app.payments.outbox.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${app.payments.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.payments.outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${app.payments.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.payments.outbox.backoff-base-seconds:2}")
+    private long backoffBaseSeconds;
+
+    @Value("${app.payments.outbox.backoff-max-seconds:300}")
+    private long backoffMaxSeconds;
+
+    private ThreadPoolExecutor executor;
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threads = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "payment-outbox-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @TransactionalEventListener
+    public void onPaymentQueued(PaymentQueuedEvent event) {
+        submit(event.outboxId());
+    }
+
+    @Scheduled(initialDelayString = "${app.payments.outbox.poll-interval-ms:1000}",
+               fixedDelayString = "${app.payments.outbox.poll-interval-ms:1000}")
+    public void pollDueEntries() {
+        int room = executor.getQueue().remainingCapacity();
+        if (room == 0) {
+            return;
+        }
+        try {
+            List<Long> due = outboxRepository.findDueIds(LocalDateTime.now(), PageRequest.of(0, Math.min(room, batchSize)));
+            due.forEach(this::submit);
+        } catch (Exception e) {
+            logger.error("Polling the payment outbox failed", e);
+        }
+    }
+
+    private void submit(Long outboxId) {
+        try {
+            executor.execute(() -> process(outboxId));
+        } catch (RejectedExecutionException e) {
+            // Pool is saturated; the entry stays PENDING and the poller picks it up
+            logger.debug("Payment outbox pool full, deferring entry {}", outboxId);
+        }
+    }
+
+    void process(Long outboxId) {
+        LocalDateTime now = LocalDateTime.now();
+        // Millisecond precision, so finish() matches the stored lease whatever the column's precision
+        LocalDateTime lease = now.plusSeconds(leaseSeconds).truncatedTo(ChronoUnit.MILLIS);
+        Integer claimed = transaction.execute(status -> outboxRepository.claim(outboxId, now, lease));
+        if (claimed == null || claimed == 0) {
+            return;
+        }
+        PaymentOutbox entry = outboxRepository.findById(outboxId).orElseThrow();
+
+        try {
+            attempt(entry, lease);
+        } catch (LeaseLostException e) {
+            logger.warn("Lease on outbox entry {} for payment {} lapsed during the Stripe call; another worker owns it now",
+                outboxId, entry.getPaymentId());
+        }
+    }
+
+    private void attempt(PaymentOutbox entry, LocalDateTime lease) {
+        try {
+            PaymentIntentCreateParams params = paymentService.buildIntentParams(entry.getPaymentId(), entry.getStripePaymentMethodId());
+            PaymentIntent intent = stripeGateway.createPaymentIntent(params, entry.getIdempotencyKey());
+
+            transaction.executeWithoutResult(status -> {
+                paymentService.recordIntent(entry.getPaymentId(), intent);
+                finish(entry, lease, OutboxStatus.DONE, null);
+            });
+        } catch (LeaseLostException e) {
+            throw e;
+        } catch (StripeUnavailableException e) {
+            // Stripe was never reached; the payment stays PROCESSING and the attempt is not counted
+            entry.setAttempts(entry.getAttempts() - 1);
+            retryLater(entry, lease, e);
+        } catch (StripeException e) {
+            if (StripeGateway.isTransient(e) && entry.getAttempts() < maxAttempts) {
+                retryLater(entry, lease, e);
+            } else {
+                fail(entry, lease, e.getMessage());
+            }
+        } catch (RuntimeException e) {
+            if (entry.getAttempts() < maxAttempts) {
+                retryLater(entry, lease, e);
+            } else {
+                fail(entry, lease, e.getMessage());
+            }
+        }
+    }
+
+    private void retryLater(PaymentOutbox entry, LocalDateTime lease, Exception e) {
+        long delay = Math.min(backoffMaxSeconds, backoffBaseSeconds << Math.min(20, Math.max(0, entry.getAttempts() - 1)));
+        logger.warn("Stripe call for payment {} failed (attempt {}), retrying in {}s: {}",
+            entry.getPaymentId(), entry.getAttempts(), delay, e.getMessage());
+        entry.setNextAttemptAt(LocalDateTime.now().plusSeconds(delay));
+        transaction.executeWithoutResult(status -> finish(entry, lease, OutboxStatus.PENDING, e.getMessage()));
+    }
+
+    private void fail(PaymentOutbox entry, LocalDateTime lease, String reason) {
+        logger.warn("Payment {} failed after {} attempt(s): {}", entry.getPaymentId(), entry.getAttempts(), reason);
+        try {
+            transaction.executeWithoutResult(status -> {
+                paymentService.recordFailure(entry.getPaymentId(), reason);
+                finish(entry, lease, OutboxStatus.FAILED, reason);
+            });
+        } catch (LeaseLostException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // Still retire the entry so it is not claimed again forever
+            logger.error("Could not mark payment {} failed", entry.getPaymentId(), e);
+            transaction.executeWithoutResult(status -> finish(entry, lease, OutboxStatus.FAILED, reason));
+        }
+    }
+
+    // Conditional on the lease, so a stale worker cannot overwrite the entry's new owner
+    private void finish(PaymentOutbox entry, LocalDateTime lease, OutboxStatus status, String error) {
+        String lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+        int updated = outboxRepository.finish(entry.getId(), lease, status, entry.getAttempts(),
+            entry.getNextAttemptAt(), lastError, LocalDateTime.now());
+        if (updated == 0) {
+            throw new LeaseLostException();
+        }
+    }
+
+    // The entry was re-claimed while this worker was still on it; rolls back what it wrote
+    private static class LeaseLostException extends RuntimeException {
+        LeaseLostException() {
+            super(null, null, false, false);
+        }
+    }
+}
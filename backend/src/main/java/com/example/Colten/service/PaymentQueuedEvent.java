@@ -0,0 +1,7 @@
+package com.example.Colten.service;
+
+/**
+ * Published when a payment outbox entry is written, so the processor can pick it up as soon
+ * as the transaction commits instead of on its next poll.
+ */
+public record PaymentQueuedEvent(Long outboxId) {}
@@ -2,17 +2,20 @@ package com.example.Colten.service;
 
 import com.example.Colten.dto.PaymentRequest;
 import com.example.Colten.model.Payment;
+import com.example.Colten.model.PaymentOutbox;
 import com.example.Colten.model.PaymentStatus;
 import com.example.Colten.model.Tenant;
 import com.example.Colten.model.Unit;
+import com.example.Colten.repository.PaymentOutboxRepository;
 import com.example.Colten.repository.PaymentRepository;
-import com.stripe.Stripe;
+import com.stripe.exception.ApiConnectionException;
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
 import com.stripe.param.PaymentIntentCreateParams;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -24,106 +27,134 @@ public class PaymentService {
     @Autowired
     private PaymentRepository paymentRepository;
 
-    @Value("${stripe.secret.key:sk_test_...}")
-    private String stripeSecretKey;
+    @Autowired
+    private KpiService kpiService;
+
+    @Autowired
+    private PaymentOutboxRepository outboxRepository;
 
-    public PaymentService() {
-        // Initialize Stripe with the secret key
-        // In production, this should be set through application properties
-        Stripe.apiKey = stripeSecretKey;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private StripeGateway stripeGateway;
+
+    /**
+     * Records a PROCESSING payment and its outbox entry in one transaction; the Stripe call
+     * happens later on PaymentOutboxProcessor's workers, so the request never waits on Stripe
+     * and no intent can be created without a payment row to attach it to.
+     */
+    @Transactional
+    public Payment enqueueStripePayment(PaymentRequest paymentRequest, Tenant tenant, Unit unit) {
+        Payment payment = new Payment();
+        payment.setTenant(tenant);
+        payment.setUnit(unit);
+        payment.setAmount(paymentRequest.getAmount());
+        payment.setPaymentType(paymentRequest.getPaymentType());
+        payment.setPaymentMethod(paymentRequest.getPaymentMethod());
+        payment.setStatus(PaymentStatus.PROCESSING);
+        payment.setPaymentDate(LocalDateTime.now());
+        payment.setDueDate(paymentRequest.getDueDate());
+        payment.setPaymentPeriodStart(paymentRequest.getPaymentPeriodStart());
+        payment.setPaymentPeriodEnd(paymentRequest.getPaymentPeriodEnd());
+        payment.setDescription(paymentRequest.getDescription());
+        payment.setReferenceNumber(generateReferenceNumber());
+        payment.setCreatedAt(LocalDateTime.now());
+
+        Payment savedPayment = paymentRepository.save(payment);
+        kpiService.recordPayment(null, savedPayment);
+
+        PaymentOutbox outbox = outboxRepository.save(
+            new PaymentOutbox(savedPayment.getId(), paymentRequest.getStripePaymentMethodId()));
+        eventPublisher.publishEvent(new PaymentQueuedEvent(outbox.getId()));
+        return savedPayment;
     }
 
-    public Payment processStripePayment(PaymentRequest paymentRequest, Tenant tenant, Unit unit) throws StripeException {
-        try {
-            // Convert amount to cents for Stripe (Stripe expects amounts in smallest currency unit)
-            long amountInCents = paymentRequest.getAmount().multiply(BigDecimal.valueOf(100)).longValue();
-
-            // Create Stripe Payment Intent
-            PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
-                .setAmount(amountInCents)
-                .setCurrency("usd")
-                .setDescription("Rent payment for " + unit.getUnitNumber() + " - " + unit.getBuilding().getName())
-                .putMetadata("tenant_id", tenant.getId().toString())
-                .putMetadata("unit_id", unit.getId().toString())
-                .putMetadata("building_id", unit.getBuilding().getId().toString())
-                .setPaymentMethod(paymentRequest.getStripePaymentMethodId())
-                .setConfirmationMethod(PaymentIntentCreateParams.ConfirmationMethod.MANUAL)
-                .setConfirm(true)
-                .build();
-
-            PaymentIntent intent = PaymentIntent.create(params);
-
-            // Create payment record
-            Payment payment = new Payment();
-            payment.setTenant(tenant);
-            payment.setUnit(unit);
-            payment.setAmount(paymentRequest.getAmount());
-            payment.setPaymentType(paymentRequest.getPaymentType());
-            payment.setPaymentMethod(paymentRequest.getPaymentMethod());
-            payment.setPaymentDate(LocalDateTime.now());
-            payment.setDueDate(paymentRequest.getDueDate());
-            payment.setPaymentPeriodStart(paymentRequest.getPaymentPeriodStart());
-            payment.setPaymentPeriodEnd(paymentRequest.getPaymentPeriodEnd());
-            payment.setDescription(paymentRequest.getDescription());
-            payment.setStripePaymentIntentId(intent.getId());
-            payment.setReferenceNumber(generateReferenceNumber());
-            payment.setCreatedAt(LocalDateTime.now());
-
-            // Set status based on Stripe response
-            if ("succeeded".equals(intent.getStatus())) {
-                payment.setStatus(PaymentStatus.COMPLETED);
-                payment.setProcessedAt(LocalDateTime.now());
-                payment.setStripeChargeId(intent.getLatestCharge());
-            } else if ("requires_action".equals(intent.getStatus())) {
-                payment.setStatus(PaymentStatus.PENDING);
-            } else {
-                payment.setStatus(PaymentStatus.FAILED);
-            }
+    /**
+     * Builds the PaymentIntent request for a queued payment. Runs in a read-only transaction
+     * so the unit and building can be read; the Stripe call itself happens outside it.
+     */
+    @Transactional(readOnly = true)
+    public PaymentIntentCreateParams buildIntentParams(Long paymentId, String stripePaymentMethodId) {
+        Payment payment = paymentRepository.findById(paymentId)
+            .orElseThrow(() -> new RuntimeException("Payment not found: " + paymentId));
+        Unit unit = payment.getUnit();
+
+        // Convert amount to cents for Stripe (Stripe expects amounts in smallest currency unit)
+        long amountInCents = payment.getAmount().multiply(BigDecimal.valueOf(100)).longValue();
+
+        return PaymentIntentCreateParams.builder()
+            .setAmount(amountInCents)
+            .setCurrency("usd")
+            .setDescription("Rent payment for " + unit.getUnitNumber() + " - " + unit.getBuilding().getName())
+            .putMetadata("payment_id", payment.getId().toString())
+            .putMetadata("tenant_id", payment.getTenant().getId().toString())
+            .putMetadata("unit_id", unit.getId().toString())
+            .putMetadata("building_id", unit.getBuilding().getId().toString())
+            .setPaymentMethod(stripePaymentMethodId)
+            .setConfirmationMethod(PaymentIntentCreateParams.ConfirmationMethod.MANUAL)
+            .setConfirm(true)
+            .build();
+    }
 
-            return paymentRepository.save(payment);
-
-        } catch (StripeException e) {
-            // Create failed payment record
-            Payment payment = new Payment();
-            payment.setTenant(tenant);
-            payment.setUnit(unit);
-            payment.setAmount(paymentRequest.getAmount());
-            payment.setPaymentType(paymentRequest.getPaymentType());
-            payment.setPaymentMethod(paymentRequest.getPaymentMethod());
-            payment.setPaymentDate(LocalDateTime.now());
-            payment.setStatus(PaymentStatus.FAILED);
-            payment.setDescription("Payment failed: " + e.getMessage());
-            payment.setReferenceNumber(generateReferenceNumber());
-            payment.setCreatedAt(LocalDateTime.now());
+    // Applies the outcome of a created intent to the queued payment
+    @Transactional
+    public Payment recordIntent(Long paymentId, PaymentIntent intent) {
+        Payment payment = paymentRepository.findById(paymentId)
+            .orElseThrow(() -> new RuntimeException("Payment not found: " + paymentId));
+        KpiDelta before = KpiDelta.forPayment(payment);
+        payment.setStripePaymentIntentId(intent.getId());
+        applyIntentStatus(payment, intent);
+        payment.setUpdatedAt(LocalDateTime.now());
 
-            paymentRepository.save(payment);
-            throw e;
-        }
+        Payment savedPayment = paymentRepository.save(payment);
+        kpiService.recordPayment(before, savedPayment);
+        return savedPayment;
     }
 
+    // Marks a queued payment failed once Stripe declined it or retries ran out
+    @Transactional
+    public Payment recordFailure(Long paymentId, String reason) {
+        Payment payment = paymentRepository.findById(paymentId)
+            .orElseThrow(() -> new RuntimeException("Payment not found: " + paymentId));
+        KpiDelta before = KpiDelta.forPayment(payment);
+        payment.setStatus(PaymentStatus.FAILED);
+        payment.setDescription("Payment failed: " + reason);
+        payment.setUpdatedAt(LocalDateTime.now());
+
+        Payment savedPayment = paymentRepository.save(payment);
+        kpiService.recordPayment(before, savedPayment);
+        return savedPayment;
+    }
+
+    @Transactional
     public Payment confirmStripePayment(String paymentIntentId) throws StripeException {
-        PaymentIntent intent = PaymentIntent.retrieve(paymentIntentId);
-        intent = intent.confirm();
+        PaymentIntent intent;
+        try {
+            intent = stripeGateway.confirmPaymentIntent(paymentIntentId);
+        } catch (ApiConnectionException e) {
+            // Stripe is unreachable or shedding load; the outcome is unknown until its webhook arrives
+            intent = null;
+        }
 
         Payment payment = paymentRepository.findByStripePaymentIntentId(paymentIntentId);
         if (payment != null) {
-            if ("succeeded".equals(intent.getStatus())) {
-                payment.setStatus(PaymentStatus.COMPLETED);
-                payment.setProcessedAt(LocalDateTime.now());
-                payment.setStripeChargeId(intent.getLatestCharge());
-            } else if ("requires_action".equals(intent.getStatus())) {
-                payment.setStatus(PaymentStatus.PENDING);
-            } else {
-                payment.setStatus(PaymentStatus.FAILED);
+            KpiDelta before = KpiDelta.forPayment(payment);
+            if (intent != null) {
+                applyIntentStatus(payment, intent);
+            } else if (payment.getStatus().isInProgress()) {
+                payment.setStatus(PaymentStatus.PROCESSING);
             }
-            
             payment.setUpdatedAt(LocalDateTime.now());
-            return paymentRepository.save(payment);
+            Payment savedPayment = paymentRepository.save(payment);
+            kpiService.recordPayment(before, savedPayment);
+            return savedPayment;
         }
 
         throw new RuntimeException("Payment not found for PaymentIntent: " + paymentIntentId);
     }
 
+    @Transactional
     public Payment refundPayment(Long paymentId, BigDecimal refundAmount, String reason) throws StripeException {
         Payment payment = paymentRepository.findById(paymentId)
             .orElseThrow(() -> new RuntimeException("Payment not found"));
@@ -140,9 +171,10 @@ public class PaymentService {
             .putMetadata("reason", reason)
             .build();
 
-        com.stripe.model.Refund.create(params);
+        stripeGateway.createRefund(params);
 
         // Update payment record
+        KpiDelta before = KpiDelta.forPayment(payment);
         if (refundAmount.compareTo(payment.getAmount()) == 0) {
             payment.setStatus(PaymentStatus.REFUNDED);
         } else {
@@ -154,7 +186,21 @@ public class PaymentService {
         payment.setRefundReason(reason);
         payment.setUpdatedAt(LocalDateTime.now());
 
-        return paymentRepository.save(payment);
+        Payment savedPayment = paymentRepository.save(payment);
+        kpiService.recordPayment(before, savedPayment);
+        return savedPayment;
+    }
+
+    private static void applyIntentStatus(Payment payment, PaymentIntent intent) {
+        if ("succeeded".equals(intent.getStatus())) {
+            payment.setStatus(PaymentStatus.COMPLETED);
+            payment.setProcessedAt(LocalDateTime.now());
+            payment.setStripeChargeId(intent.getLatestCharge());
+        } else if ("requires_action".equals(intent.getStatus())) {
+            payment.setStatus(PaymentStatus.PENDING);
+        } else {
+            payment.setStatus(PaymentStatus.FAILED);
+        }
     }
 
     private String generateReferenceNumber() {
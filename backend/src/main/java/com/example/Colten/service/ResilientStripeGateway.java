@@ -0,0 +1,212 @@
+package com.example.Colten.service;
+
+import com.example.Colten.util.CircuitBreaker;
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.Refund;
+import com.stripe.param.PaymentIntentCreateParams;
+import com.stripe.param.RefundCreateParams;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The StripeGateway the rest of the application uses: the configured transport behind a
+ * bulkhead, a deadline and a circuit breaker, so a Stripe brownout costs a bounded number of
+ * threads and then fails fast instead of taking every request thread with it.
+ *
+ * Calls run on a small dedicated pool with a short bounded queue; when both are full the call
+ * is refused at once. The caller waits at most the deadline and gets a connection error after
+ * that; a timed-out create is safe to retry because it carries an idempotency key. Timeouts,
+ * connection errors, rate limiting and 5xx count as failures for the breaker (declines do not),
+ * and while it is open calls are refused without touching the pool. Refusals throw
+ * StripeUnavailableException: the outbox keeps the payment PROCESSING and tries again later,
+ * and webhooks settle whatever happened meanwhile.
+ *
+ * Every call is timed under stripe.gateway.calls, tagged by operation and outcome (success,
+ * declined, error, timeout, rejected); the breaker state, window failure rate and pool usage
+ * are exported as gauges.
+ */
+@Component
+@Primary
+public class ResilientStripeGateway implements StripeGateway {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResilientStripeGateway.class);
+
+    @Autowired
+    @Qualifier(StripeGateway.TRANSPORT)
+    private StripeGateway transport;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.stripe.resilience.max-concurrent-calls:32}")
+    private int maxConcurrentCalls;
+
+    @Value("${app.stripe.resilience.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Value("${app.stripe.resilience.timeout-ms:10000}")
+    private long timeoutMs;
+
+    @Value("${app.stripe.resilience.window-size:50}")
+    private int windowSize;
+
+    @Value("${app.stripe.resilience.minimum-calls:20}")
+    private int minimumCalls;
+
+    @Value("${app.stripe.resilience.failure-rate-threshold:0.5}")
+    private double failureRateThreshold;
+
+    @Value("${app.stripe.resilience.open-seconds:30}")
+    private long openSeconds;
+
+    @Value("${app.stripe.resilience.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    private ThreadPoolExecutor executor;
+    private CircuitBreaker breaker;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threads = new AtomicInteger();
+        BlockingQueue<Runnable> queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>();
+        executor = new ThreadPoolExecutor(maxConcurrentCalls, maxConcurrentCalls, 60, TimeUnit.SECONDS, queue,
+            runnable -> {
+                Thread thread = new Thread(runnable, "stripe-gateway-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+        breaker = new CircuitBreaker(windowSize, minimumCalls, failureRateThreshold,
+            Duration.ofSeconds(openSeconds), halfOpenCalls);
+
+        Gauge.builder("stripe.gateway.circuit.state", breaker, b -> b.getState().ordinal())
+            .description("0 closed, 1 open, 2 half-open")
+            .register(meterRegistry);
+        Gauge.builder("stripe.gateway.failure.rate", breaker, CircuitBreaker::failureRate)
+            .description("Share of failed calls in the breaker's window")
+            .register(meterRegistry);
+        Gauge.builder("stripe.gateway.bulkhead.active", executor, ThreadPoolExecutor::getActiveCount)
+            .register(meterRegistry);
+        Gauge.builder("stripe.gateway.bulkhead.queued", executor, e -> e.getQueue().size())
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public PaymentIntent createPaymentIntent(PaymentIntentCreateParams params, String idempotencyKey) throws StripeException {
+        return call("payment_intent.create", () -> transport.createPaymentIntent(params, idempotencyKey));
+    }
+
+    @Override
+    public PaymentIntent retrievePaymentIntent(String paymentIntentId) throws StripeException {
+        return call("payment_intent.retrieve", () -> transport.retrievePaymentIntent(paymentIntentId));
+    }
+
+    @Override
+    public PaymentIntent confirmPaymentIntent(String paymentIntentId) throws StripeException {
+        return call("payment_intent.confirm", () -> transport.confirmPaymentIntent(paymentIntentId));
+    }
+
+    @Override
+    public Refund createRefund(RefundCreateParams params) throws StripeException {
+        return call("refund.create", () -> transport.createRefund(params));
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return breaker.getState();
+    }
+
+    private <T> T call(String operation, Callable<T> stripeCall) throws StripeException {
+        CircuitBreaker.Permit permit = breaker.tryAcquire();
+        if (permit == null) {
+            record(operation, "rejected", 0L);
+            throw new StripeUnavailableException("Stripe circuit is open; " + operation + " not attempted");
+        }
+
+        long started = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(stripeCall);
+        } catch (RejectedExecutionException e) {
+            breaker.release(permit);
+            record(operation, "rejected", 0L);
+            throw new StripeUnavailableException("Stripe gateway is at capacity; " + operation + " not attempted");
+        }
+
+        try {
+            T result = future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            breaker.onSuccess(permit);
+            record(operation, "success", System.nanoTime() - started);
+            return result;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof StripeException stripeException && !StripeGateway.isTransient(stripeException)) {
+                // Stripe answered; a decline or a bad request says nothing about its health
+                breaker.onSuccess(permit);
+                record(operation, "declined", System.nanoTime() - started);
+                throw stripeException;
+            }
+            breaker.onFailure(permit);
+            record(operation, "error", System.nanoTime() - started);
+            if (cause instanceof StripeException stripeException) {
+                throw stripeException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            breaker.onFailure(permit);
+            record(operation, "timeout", System.nanoTime() - started);
+            logger.warn("Stripe {} did not complete within {} ms", operation, timeoutMs);
+            throw new ApiConnectionException("Stripe " + operation + " did not complete within " + timeoutMs + " ms");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            breaker.release(permit);
+            Thread.currentThread().interrupt();
+            throw new ApiConnectionException("Interrupted while waiting for Stripe " + operation, e);
+        }
+    }
+
+    private void record(String operation, String outcome, long nanos) {
+        Timer timer = Timer.builder("stripe.gateway.calls")
+            .description("Stripe gateway calls by operation and outcome")
+            .tag("operation", operation)
+            .tag("outcome", outcome)
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.Colten.service;
+
+import com.example.Colten.repository.UnitRepository;
+import com.example.Colten.util.BloomFilter;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.SecureRandom;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Hands out room codes without a database round trip per attempt.
+ *
+ * Every code already issued is recorded in a Bloom filter, loaded once from the units table
+ * at startup. Random candidates the filter has never seen are certainly unused on this
+ * instance and are kept in a small pool, topped up in the background, so allocate() is a
+ * queue poll. Codes written elsewhere (another instance, a bulk import) are not in the filter;
+ * the unique constraint on units.room_code still rejects them, and withUniqueCode retries
+ * the write with a fresh code.
+ */
+@Component
+public class RoomCodeAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomCodeAllocator.class);
+
+    private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final int LENGTH = 8;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final int MAX_CANDIDATES = 10_000;
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.room-codes.expected-codes:1000000}")
+    private long expectedCodes;
+
+    @Value("${app.room-codes.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${app.room-codes.pool-size:256}")
+    private int poolSize;
+
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final ExecutorService refiller = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "room-code-refill");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile BloomFilter issued;
+    private BlockingQueue<String> pool;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        ensureLoaded();
+        scheduleRefill();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refiller.shutdownNow();
+    }
+
+    /**
+     * Returns a code not issued by this instance before. Never queries the database once the
+     * filter is loaded.
+     */
+    public String allocate() {
+        ensureLoaded();
+        String code = pool.poll();
+        if (pool.size() < poolSize / 2) {
+            scheduleRefill();
+        }
+        return code != null ? code : reserve();
+    }
+
+    /**
+     * Runs the write with a freshly allocated code in its own transaction, retrying with a new
+     * code if the database reports the code as taken. Must be called outside a transaction:
+     * a failed insert marks the surrounding one rollback-only.
+     */
+    public <T> T withUniqueCode(Function<String, T> write) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            String code = allocate();
+            try {
+                return transaction.execute(status -> write.apply(code));
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_ATTEMPTS || !isRoomCodeConflict(e)) {
+                    throw e;
+                }
+                logger.warn("Room code {} already taken, retrying with a new code (attempt {})", code, attempt);
+            }
+        }
+    }
+
+    // Whether the code has the shape of one this allocator issues
+    public static boolean isWellFormed(String code) {
+        if (code == null || code.length() != LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            if (CHARACTERS.indexOf(code.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensureLoaded() {
+        if (issued != null) {
+            return;
+        }
+        synchronized (this) {
+            if (issued != null) {
+                return;
+            }
+            BloomFilter filter = new BloomFilter(expectedCodes, falsePositiveRate);
+            long count = new TransactionTemplate(transactionManager).execute(status -> {
+                try (Stream<String> codes = unitRepository.streamRoomCodes()) {
+                    return codes.mapToLong(code -> {
+                        filter.add(code);
+                        return 1;
+                    }).sum();
+                }
+            });
+            pool = new ArrayBlockingQueue<>(poolSize);
+            issued = filter;
+            logger.info("Loaded {} issued room codes into the allocation filter", count);
+        }
+    }
+
+    private void scheduleRefill() {
+        if (refilling.compareAndSet(false, true)) {
+            refiller.execute(() -> {
+                try {
+                    while (pool.remainingCapacity() > 0) {
+                        if (!pool.offer(reserve())) {
+                            break;
+                        }
+                    }
+                } finally {
+                    refilling.set(false);
+                }
+            });
+        }
+    }
+
+    // Picks a candidate the filter has not seen and records it, so it is never handed out twice
+    private String reserve() {
+        for (int i = 0; i < MAX_CANDIDATES; i++) {
+            String candidate = generate();
+            synchronized (issued) {
+                if (!issued.mightContain(candidate)) {
+                    issued.add(candidate);
+                    return candidate;
+                }
+            }
+        }
+        throw new IllegalStateException("Room code filter is saturated; raise app.room-codes.expected-codes");
+    }
+
+    private String generate() {
+        char[] code = new char[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            code[i] = CHARACTERS.charAt(random.nextInt(CHARACTERS.length()));
+        }
+        return new String(code);
+    }
+
+    private static boolean isRoomCodeConflict(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains("room_code");
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.Colten.service;
+
+import com.example.Colten.dto.RoomCodeValidationResponse;
+import com.example.Colten.repository.UnitRepository;
+import com.example.Colten.util.ExpiringCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Caches the public room code lookup, including misses for well-formed codes, so repeated
+ * guesses at the validate-room-code endpoint do not each cost a query. Input that could
+ * never be an issued code is looked up but not cached, so it cannot push out real entries.
+ *
+ * Entries are evicted by key whenever a unit is created, updated or deleted (see
+ * UnitCacheEvictionListener): its current code, which drops a cached miss for a newly issued
+ * code, and the code it replaced, if a regenerate changed it. Building name and address
+ * changes show up after the TTL.
+ */
+@Component
+public class RoomCodeCache {
+
+    @Autowired
+    private UnitRepository unitRepository;
+
+    @Value("${app.room-codes.validation.cache-ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${app.room-codes.validation.cache-max-size:20000}")
+    private int maxSize;
+
+    private ExpiringCache<String, Optional<RoomCodeValidationResponse>> cache;
+
+    @PostConstruct
+    void init() {
+        cache = new ExpiringCache<>(Duration.ofSeconds(ttlSeconds), maxSize);
+    }
+
+    public Optional<RoomCodeValidationResponse> find(String roomCode) {
+        Optional<RoomCodeValidationResponse> cached = cache.getIfPresent(roomCode);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<RoomCodeValidationResponse> unit = unitRepository.findRoomCodeValidation(roomCode);
+        // A miss is only worth remembering for a code that could be issued; junk would just crowd out real entries
+        if (unit.isPresent() || RoomCodeAllocator.isWellFormed(roomCode)) {
+            cache.put(roomCode, unit);
+        }
+        return unit;
+    }
+
+    public void evict(String roomCode, String replacedRoomCode) {
+        if (roomCode != null) {
+            cache.invalidate(roomCode);
+        }
+        if (replacedRoomCode != null) {
+            cache.invalidate(replacedRoomCode);
+        }
+    }
+
+    /**
+     * Evicts now and again once the surrounding transaction completes, so a concurrent lookup
+     * cannot re-cache the pre-update row between the eviction and the commit.
+     */
+    public void evictAfterCommit(String roomCode, String replacedRoomCode) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(roomCode, replacedRoomCode);
+                }
+            });
+        }
+        evict(roomCode, replacedRoomCode);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.Colten.service;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.RateLimitException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.Refund;
+import com.stripe.param.PaymentIntentCreateParams;
+import com.stripe.param.RefundCreateParams;
+
+/**
+ * The Stripe calls the payment path makes. StripeSdkGateway talks to Stripe; FakeStripeGateway
+ * stands in for it in tests and load runs. Selected with app.stripe.gateway (sdk or fake), and
+ * always reached through ResilientStripeGateway, which is the one injected elsewhere.
+ */
+public interface StripeGateway {
+
+    // Qualifier of the implementation that does the calls; the primary gateway wraps it
+    String TRANSPORT = "stripeTransport";
+
+    // Creates (and, if the params ask for it, confirms) an intent; repeats with the same key return the first result
+    PaymentIntent createPaymentIntent(PaymentIntentCreateParams params, String idempotencyKey) throws StripeException;
+
+    PaymentIntent retrievePaymentIntent(String paymentIntentId) throws StripeException;
+
+    PaymentIntent confirmPaymentIntent(String paymentIntentId) throws StripeException;
+
+    Refund createRefund(RefundCreateParams params) throws StripeException;
+
+    // Network problems, rate limiting and Stripe-side errors are worth retrying; declines and bad requests are not
+    static boolean isTransient(StripeException e) {
+        if (e instanceof ApiConnectionException || e instanceof RateLimitException) {
+            return true;
+        }
+        Integer status = e.getStatusCode();
+        return status == null || status >= 500 || status == 409;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.Colten.service;
+
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.Refund;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.PaymentIntentCreateParams;
+import com.stripe.param.RefundCreateParams;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * StripeGateway backed by the Stripe SDK. The secret key travels with each request instead of
+ * being assigned to the static Stripe.apiKey, so it is always the configured one.
+ */
+@Component
+@Qualifier(StripeGateway.TRANSPORT)
+@ConditionalOnProperty(name = "app.stripe.gateway", havingValue = "sdk", matchIfMissing = true)
+public class StripeSdkGateway implements StripeGateway {
+
+    @Value("${stripe.api.key}")
+    private String apiKey;
+
+    // Same as the caller's deadline, so a call the caller gave up on also frees its bulkhead thread
+    @Value("${app.stripe.resilience.timeout-ms:10000}")
+    private int timeoutMs;
+
+    @Override
+    public PaymentIntent createPaymentIntent(PaymentIntentCreateParams params, String idempotencyKey) throws StripeException {
+        RequestOptions options = RequestOptions.builder()
+            .setApiKey(apiKey)
+            .setConnectTimeout(timeoutMs)
+            .setReadTimeout(timeoutMs)
+            .setIdempotencyKey(idempotencyKey)
+            .build();
+        return PaymentIntent.create(params, options);
+    }
+
+    @Override
+    public PaymentIntent retrievePaymentIntent(String paymentIntentId) throws StripeException {
+        return PaymentIntent.retrieve(paymentIntentId, options());
+    }
+
+    @Override
+    public PaymentIntent confirmPaymentIntent(String paymentIntentId) throws StripeException {
+        return PaymentIntent.retrieve(paymentIntentId, options()).confirm(options());
+    }
+
+    @Override
+    public Refund createRefund(RefundCreateParams params) throws StripeException {
+        return Refund.create(params, options());
+    }
+
+    private RequestOptions options() {
+        return RequestOptions.builder()
+            .setApiKey(apiKey)
+            .setConnectTimeout(timeoutMs)
+            .setReadTimeout(timeoutMs)
+            .build();
+    }
+}
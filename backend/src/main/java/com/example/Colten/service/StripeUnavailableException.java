@@ -0,0 +1,14 @@
+package com.example.Colten.service;
+
+import com.stripe.exception.ApiConnectionException;
+
+/**
+ * Thrown without reaching Stripe when the gateway's circuit is open or its bulkhead is full.
+ * It is a connection error to callers, so it is treated as transient.
+ */
+public class StripeUnavailableException extends ApiConnectionException {
+
+    public StripeUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.Colten.service;
+
+import com.example.Colten.model.Payment;
+import com.example.Colten.model.PaymentStatus;
+import com.example.Colten.model.StripeWebhookEvent;
+import com.example.Colten.model.WebhookEventStatus;
+import com.example.Colten.repository.PaymentRepository;
+import com.example.Colten.repository.StripeWebhookEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.stripe.exception.SignatureVerificationException;
+import com.stripe.net.Webhook;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Receives Stripe webhook events and applies them to payments in batches.
+ *
+ * receive() only verifies the signature and stores the event, keyed by its Stripe id, so the
+ * endpoint answers quickly and redeliveries are dropped by the primary key. A poller then takes
+ * the due events in Stripe's order, groups them by payment intent and folds each group into
+ * the payment in memory: a burst of events for one payment becomes a single row update, and a
+ * batch is one locking select, the payment updates and one statement per outcome for the
+ * events. Transitions only move forward (a late payment_failed does not undo a refund), which
+ * also makes applying an event twice harmless. Events that arrive before the outbox worker has
+ * recorded the intent on its payment are retried for a while and then ignored.
+ */
+@Service
+public class StripeWebhookService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StripeWebhookService.class);
+
+    public static final String SIGNATURE_HEADER = "Stripe-Signature";
+
+    static final String PAYMENT_SUCCEEDED = "payment_intent.succeeded";
+    static final String PAYMENT_FAILED = "payment_intent.payment_failed";
+    static final String CHARGE_REFUNDED = "charge.refunded";
+    static final String DISPUTE_CREATED = "charge.dispute.created";
+    private static final Set<String> HANDLED_TYPES = Set.of(PAYMENT_SUCCEEDED, PAYMENT_FAILED, CHARGE_REFUNDED, DISPUTE_CREATED);
+
+    @Autowired
+    private StripeWebhookEventRepository eventRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private KpiService kpiService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${stripe.webhook.secret:}")
+    private String webhookSecret;
+
+    @Value("${app.stripe.webhooks.tolerance-seconds:300}")
+    private long toleranceSeconds;
+
+    @Value("${app.stripe.webhooks.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.stripe.webhooks.retry-delay-seconds:5}")
+    private long retryDelaySeconds;
+
+    @Value("${app.stripe.webhooks.max-attempts:12}")
+    private int maxAttempts;
+
+    private TransactionTemplate transaction;
+
+    @PostConstruct
+    void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Verifies and stores one delivery. Returns false if the event was already received.
+     */
+    public boolean receive(String payload, String signatureHeader) throws SignatureVerificationException {
+        if (signatureHeader == null || webhookSecret.isBlank()) {
+            throw new SignatureVerificationException("Missing signature or webhook secret", signatureHeader);
+        }
+        Webhook.Signature.verifyHeader(payload, signatureHeader, webhookSecret, toleranceSeconds);
+
+        JsonNode event = parse(payload);
+        String eventId = event.path("id").asText(null);
+        String type = event.path("type").asText(null);
+        if (eventId == null || type == null) {
+            throw new IllegalArgumentException("Event without id or type");
+        }
+        JsonNode object = event.path("data").path("object");
+        String intentId = type.startsWith("payment_intent.")
+            ? object.path("id").asText(null)
+            : object.path("payment_intent").asText(null);
+        boolean handled = HANDLED_TYPES.contains(type) && intentId != null;
+        LocalDateTime createdAt = LocalDateTime.ofInstant(
+            Instant.ofEpochSecond(event.path("created").asLong()), ZoneId.systemDefault());
+
+        try {
+            transaction.executeWithoutResult(status -> eventRepository.insert(eventId, type, intentId, createdAt, payload,
+                (handled ? WebhookEventStatus.PENDING : WebhookEventStatus.IGNORED).name(), LocalDateTime.now()));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Stripe event {} already received", eventId);
+            return false;
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.stripe.webhooks.poll-interval-ms:500}",
+               fixedDelayString = "${app.stripe.webhooks.poll-interval-ms:500}")
+    public void processPending() {
+        try {
+            while (processBatch() == batchSize) {
+                // Keep draining a backlog before waiting for the next poll
+            }
+        } catch (Exception e) {
+            logger.error("Applying Stripe webhook events failed", e);
+        }
+    }
+
+    // Applies one batch of due events in a single transaction; returns how many were taken
+    public int processBatch() {
+        Integer taken = transaction.execute(status -> applyBatch(LocalDateTime.now()));
+        return taken != null ? taken : 0;
+    }
+
+    private int applyBatch(LocalDateTime now) {
+        List<StripeWebhookEvent> events = eventRepository.findDue(now, PageRequest.of(0, batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, List<StripeWebhookEvent>> byIntent = events.stream()
+            .collect(Collectors.groupingBy(StripeWebhookEvent::getPaymentIntentId, LinkedHashMap::new, Collectors.toList()));
+        Map<String, Payment> payments = paymentRepository.findForUpdateByStripePaymentIntentIdIn(byIntent.keySet()).stream()
+            .collect(Collectors.toMap(Payment::getStripePaymentIntentId, Function.identity(), (first, second) -> first));
+
+        List<String> applied = new ArrayList<>();
+        List<String> deferred = new ArrayList<>();
+        List<String> unmatched = new ArrayList<>();
+        byIntent.forEach((intentId, intentEvents) -> {
+            List<String> ids = intentEvents.stream().map(StripeWebhookEvent::getEventId).toList();
+            Payment payment = payments.get(intentId);
+            if (payment == null) {
+                boolean retriesLeft = intentEvents.stream().anyMatch(event -> event.getAttempts() < maxAttempts);
+                (retriesLeft ? deferred : unmatched).addAll(ids);
+                return;
+            }
+
+            KpiDelta before = KpiDelta.forPayment(payment);
+            boolean changed = false;
+            for (StripeWebhookEvent event : intentEvents) {
+                changed |= apply(payment, event);
+            }
+            if (changed) {
+                payment.setUpdatedAt(now);
+                kpiService.recordPayment(before, payment);
+            }
+            applied.addAll(ids);
+        });
+
+        if (!applied.isEmpty()) {
+            eventRepository.finish(applied, WebhookEventStatus.PROCESSED, null, now);
+        }
+        if (!deferred.isEmpty()) {
+            eventRepository.defer(deferred, now.plusSeconds(retryDelaySeconds));
+        }
+        if (!unmatched.isEmpty()) {
+            logger.warn("Ignoring {} Stripe event(s) with no matching payment", unmatched.size());
+            eventRepository.finish(unmatched, WebhookEventStatus.IGNORED, "No payment for payment intent", now);
+        }
+        logger.debug("Applied {} Stripe event(s) to {} payment(s), deferred {}", applied.size(), payments.size(), deferred.size());
+        return events.size();
+    }
+
+    // Folds one event into the payment; returns false if it is stale or changes nothing
+    private boolean apply(Payment payment, StripeWebhookEvent event) {
+        JsonNode object = parse(event.getPayload()).path("data").path("object");
+        PaymentStatus target = switch (event.getType()) {
+            case PAYMENT_SUCCEEDED -> PaymentStatus.COMPLETED;
+            case PAYMENT_FAILED -> PaymentStatus.FAILED;
+            case CHARGE_REFUNDED -> object.path("amount_refunded").asLong() >= object.path("amount").asLong()
+                ? PaymentStatus.REFUNDED
+                : PaymentStatus.PARTIALLY_REFUNDED;
+            case DISPUTE_CREATED -> PaymentStatus.DISPUTED;
+            default -> null;
+        };
+        if (target == null || rank(target) < rank(payment.getStatus())) {
+            return false;
+        }
+
+        switch (event.getType()) {
+            case PAYMENT_SUCCEEDED -> {
+                if (payment.getProcessedAt() == null) {
+                    payment.setProcessedAt(event.getStripeCreatedAt());
+                }
+                if (object.hasNonNull("latest_charge")) {
+                    payment.setStripeChargeId(object.get("latest_charge").asText());
+                }
+            }
+            case PAYMENT_FAILED -> {
+                String reason = object.path("last_payment_error").path("message").asText(null);
+                if (reason != null) {
+                    payment.setDescription("Payment failed: " + reason);
+                }
+            }
+            case CHARGE_REFUNDED -> {
+                // amount_refunded is cumulative, so a redelivered or reordered refund event sets the same total
+                payment.setRefundAmount(BigDecimal.valueOf(object.path("amount_refunded").asLong(), 2));
+                payment.setRefundDate(event.getStripeCreatedAt());
+                if (payment.getStripeChargeId() == null) {
+                    payment.setStripeChargeId(object.path("id").asText(null));
+                }
+            }
+            default -> {
+            }
+        }
+        payment.setStatus(target);
+        return true;
+    }
+
+    // Order in which a payment's status may move; events for an earlier stage are stale
+    private static int rank(PaymentStatus status) {
+        return switch (status) {
+            case PENDING, PROCESSING -> 0;
+            case FAILED, CANCELLED -> 1;
+            case COMPLETED, CONFIRMED -> 2;
+            case PARTIALLY_REFUNDED -> 3;
+            case REFUNDED -> 4;
+            case DISPUTED, CHARGEBACK -> 5;
+        };
+    }
+
+    private JsonNode parse(String payload) {
+        try {
+            return objectMapper.readTree(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed event payload", e);
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package com.example.Colten.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the database with a synthetic portfolio for load tests and benchmarks: owners,
+ * buildings, units, tenants and several years of monthly rent payments and issues.
+ *
+ * Rows are written with JDBC batch inserts and explicit ids (continuing after the current
+ * maximum), one transaction per building, and the identity columns are moved past the new
+ * rows at the end. The denormalized owner/building ids are written directly and the KPI
+ * counters are rebuilt once generation finishes.
+ *
+ * Enable with the synthetic-data profile; sizes and the random seed are configured under
+ * app.synthetic.* (see application-synthetic-data.properties). The defaults produce
+ * roughly 1M payments and 200k issues.
+ */
+@Component
+@Profile("synthetic-data")
+@Order(1)
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final String[] FIRST_NAMES = { "James", "Mary", "Robert", "Patricia", "John", "Jennifer",
+            "Michael", "Linda", "David", "Elizabeth", "Maria", "Wei", "Aisha", "Carlos", "Priya", "Omar" };
+    private static final String[] LAST_NAMES = { "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia",
+            "Miller", "Davis", "Rodriguez", "Martinez", "Nguyen", "Kim", "Patel", "Khan", "Silva", "Cohen" };
+    private static final String[] CITIES = { "New York,NY", "Chicago,IL", "Austin,TX", "Seattle,WA",
+            "Denver,CO", "Atlanta,GA", "Boston,MA", "Phoenix,AZ", "Portland,OR", "Miami,FL" };
+    private static final String[] STREETS = { "Main", "Oak", "Maple", "Cedar", "Park", "Lake", "Hill", "River" };
+
+    private static final Weighted<String> CATEGORIES = new Weighted<>(
+            new String[] { "PLUMBING", "ELECTRICAL", "HEATING_COOLING", "APPLIANCES", "PEST_CONTROL",
+                    "WINDOWS_DOORS", "LOCKS_KEYS", "NOISE_COMPLAINT", "WATER_DAMAGE", "LIGHTING", "OTHER" },
+            new int[] { 24, 12, 14, 14, 6, 7, 5, 5, 4, 5, 4 });
+    private static final Weighted<String> PRIORITIES = new Weighted<>(
+            new String[] { "LOW", "MEDIUM", "HIGH", "URGENT", "EMERGENCY" },
+            new int[] { 30, 45, 17, 6, 2 });
+    private static final Weighted<String> OPEN_STATUSES = new Weighted<>(
+            new String[] { "OPEN", "IN_PROGRESS", "SCHEDULED", "PENDING_PARTS", "RESOLVED" },
+            new int[] { 45, 30, 10, 8, 7 });
+    private static final Weighted<String> CLOSED_STATUSES = new Weighted<>(
+            new String[] { "RESOLVED", "CLOSED", "CANCELLED", "DUPLICATE", "IN_PROGRESS" },
+            new int[] { 60, 30, 5, 2, 3 });
+    private static final Weighted<String> PAYMENT_METHODS = new Weighted<>(
+            new String[] { "ACH", "CREDIT_CARD", "BANK_TRANSFER", "DEBIT_CARD", "CHECK", "CASH" },
+            new int[] { 40, 25, 15, 10, 7, 3 });
+    private static final Weighted<Integer> BEDROOMS = new Weighted<>(
+            new Integer[] { 0, 1, 2, 3 },
+            new int[] { 15, 40, 30, 15 });
+    private static final int[] BASE_RENT_BY_BEDROOMS = { 1100, 1450, 1900, 2500 };
+
+    private static final String USER_INSERT = "INSERT INTO users (id, first_name, last_name, email, password, phone, " +
+            "role, is_active, created_at, email_verified, token_version) VALUES (?, ?, ?, ?, ?, ?, ?, TRUE, ?, TRUE, 0)";
+    private static final String OWNER_INSERT = "INSERT INTO owners (user_id, company_name) VALUES (?, ?)";
+    private static final String TENANT_INSERT = "INSERT INTO tenants (user_id, unit_id, lease_start_date, " +
+            "lease_end_date, move_in_date, number_of_occupants, has_pets, smoker, background_check_status, " +
+            "monthly_income) VALUES (?, ?, ?, ?, ?, ?, ?, FALSE, 'APPROVED', ?)";
+    private static final String BUILDING_INSERT = "INSERT INTO buildings (id, name, address, city, state, zip_code, " +
+            "country, floors, year_built, has_elevator, has_laundry, has_gym, has_pool, pet_friendly, created_at, " +
+            "owner_id) VALUES (?, ?, ?, ?, ?, ?, 'USA', ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UNIT_INSERT = "INSERT INTO units (id, unit_number, floor, bedrooms, bathrooms, " +
+            "square_feet, monthly_rent, security_deposit, unit_type, is_available, room_code, pets_allowed, " +
+            "furnished, has_balcony, has_dishwasher, has_washing_machine, has_air_conditioning, smoking_allowed, " +
+            "lease_start_date, lease_end_date, created_at, building_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, FALSE, ?, ?, ?, ?, FALSE, ?, ?, ?, ?)";
+    private static final String PAYMENT_INSERT = "INSERT INTO payments (id, amount, payment_type, payment_method, " +
+            "status, payment_date, due_date, processed_at, description, reference_number, late_fee, is_late, " +
+            "refund_amount, created_at, tenant_id, unit_id, owner_id, building_id, payment_period_start, " +
+            "payment_period_end) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String ISSUE_INSERT = "INSERT INTO issues (id, title, description, category, priority, " +
+            "status, created_at, updated_at, resolved_at, tenant_id, unit_id, owner_id, building_id, assigned_to_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private KpiService kpiService;
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @Value("${app.synthetic.owners:50}")
+    private int owners;
+
+    @Value("${app.synthetic.buildings-per-owner:20}")
+    private double buildingsPerOwner;
+
+    @Value("${app.synthetic.units-per-building:30}")
+    private double unitsPerBuilding;
+
+    @Value("${app.synthetic.occupancy:0.92}")
+    private double occupancy;
+
+    @Value("${app.synthetic.years:3}")
+    private int years;
+
+    @Value("${app.synthetic.issues-per-unit-month:0.2}")
+    private double issuesPerUnitMonth;
+
+    @Value("${app.synthetic.seed:42}")
+    private long seed;
+
+    @Value("${app.synthetic.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.synthetic.password:password123}")
+    private String password;
+
+    @Value("${app.synthetic.exit-when-done:false}")
+    private boolean exitWhenDone;
+
+    private Random random;
+    private String passwordHash;
+    private LocalDateTime now;
+    private LocalDateTime historyStart;
+    private long nextUserId;
+    private long nextBuildingId;
+    private long nextUnitId;
+    private long nextPaymentId;
+    private long nextIssueId;
+    private final Counts counts = new Counts();
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long started = System.currentTimeMillis();
+        random = new Random(seed);
+        passwordHash = passwordEncoder.encode(password);
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        historyStart = now.minusYears(years).withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
+
+        nextUserId = nextId("users");
+        nextBuildingId = nextId("buildings");
+        nextUnitId = nextId("units");
+        nextPaymentId = nextId("payments");
+        nextIssueId = nextId("issues");
+
+        logger.info("Generating synthetic portfolio: {} owners, ~{} buildings/owner, ~{} units/building, {} years (seed {})",
+                owners, buildingsPerOwner, unitsPerBuilding, years, seed);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int o = 0; o < owners; o++) {
+            long ownerId = transaction.execute(status -> createOwner());
+            int buildings = around(buildingsPerOwner);
+            for (int b = 0; b < buildings; b++) {
+                transaction.executeWithoutResult(status -> createBuilding(ownerId));
+            }
+            logger.info("Owner {}/{} done: {}", o + 1, owners, counts);
+        }
+
+        restartIdentity("users", nextUserId);
+        restartIdentity("buildings", nextBuildingId);
+        restartIdentity("units", nextUnitId);
+        restartIdentity("payments", nextPaymentId);
+        restartIdentity("issues", nextIssueId);
+
+        kpiService.reconcile();
+        logger.info("Synthetic data generated in {} s: {}", (System.currentTimeMillis() - started) / 1000, counts);
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    private long createOwner() {
+        long id = nextUserId++;
+        LocalDateTime createdAt = historyStart.minusDays(30 + random.nextInt(700));
+        String lastName = pick(LAST_NAMES);
+        jdbcTemplate.update(USER_INSERT, id, pick(FIRST_NAMES), lastName, "owner" + id + "@synthetic.colten",
+                passwordHash, phone(), "OWNER", createdAt);
+        jdbcTemplate.update(OWNER_INSERT, id, lastName + " Properties " + id);
+        counts.owners++;
+        return id;
+    }
+
+    private void createBuilding(long ownerId) {
+        long buildingId = nextBuildingId++;
+        String[] city = pick(CITIES).split(",");
+        int floors = 2 + random.nextInt(12);
+        LocalDateTime createdAt = historyStart.minusDays(random.nextInt(400));
+        jdbcTemplate.update(BUILDING_INSERT, buildingId, pick(STREETS) + " " + (char) ('A' + random.nextInt(26)) + " Residences",
+                (100 + random.nextInt(9900)) + " " + pick(STREETS) + " Street", city[0], city[1],
+                String.format("%05d", random.nextInt(100000)), floors, 1950 + random.nextInt(74),
+                floors > 4, random.nextDouble() < 0.6, random.nextDouble() < 0.3, random.nextDouble() < 0.15,
+                random.nextDouble() < 0.5, createdAt, ownerId);
+        counts.buildings++;
+
+        Batch units = new Batch(UNIT_INSERT);
+        Batch users = new Batch(USER_INSERT);
+        Batch tenants = new Batch(TENANT_INSERT);
+        Batch payments = new Batch(PAYMENT_INSERT);
+        Batch issues = new Batch(ISSUE_INSERT);
+
+        int unitCount = around(unitsPerBuilding);
+        for (int u = 0; u < unitCount; u++) {
+            long unitId = nextUnitId++;
+            int floor = 1 + u * floors / unitCount;
+            int bedrooms = BEDROOMS.pick(random);
+            BigDecimal rent = rent(bedrooms);
+            boolean occupied = random.nextDouble() < occupancy;
+            LocalDateTime moveIn = occupied ? moveInDate() : null;
+            LocalDateTime leaseEnd = occupied ? moveIn.plusYears(1 + (int) ChronoUnit.YEARS.between(moveIn, now)) : null;
+
+            units.add(unitId, floor + String.format("%02d", u % 100), floor, bedrooms, bathrooms(bedrooms),
+                    450 + 350 * bedrooms + random.nextInt(150), rent, rent, bedrooms == 0 ? "STUDIO" : "APARTMENT",
+                    !occupied, roomCode(unitId), random.nextDouble() < 0.4, random.nextDouble() < 0.5,
+                    random.nextDouble() < 0.6, random.nextDouble() < 0.3, random.nextDouble() < 0.7,
+                    moveIn, leaseEnd, createdAt, buildingId);
+            counts.units++;
+            if (!occupied) {
+                continue;
+            }
+
+            long tenantId = nextUserId++;
+            users.add(tenantId, pick(FIRST_NAMES), pick(LAST_NAMES), "tenant" + tenantId + "@synthetic.colten",
+                    passwordHash, phone(), "TENANT", moveIn.minusDays(14));
+            tenants.add(tenantId, unitId, moveIn, leaseEnd, moveIn, 1 + random.nextInt(4), random.nextDouble() < 0.3,
+                    rent.multiply(BigDecimal.valueOf(3 + random.nextDouble() * 2)).setScale(2, RoundingMode.HALF_UP));
+            counts.tenants++;
+
+            addPayments(payments, tenantId, unitId, ownerId, buildingId, rent, moveIn);
+            addIssues(issues, tenantId, unitId, ownerId, buildingId, moveIn);
+        }
+
+        // Parents before children so the foreign keys resolve
+        units.flush();
+        users.flush();
+        tenants.flush();
+        payments.flush();
+        issues.flush();
+    }
+
+    private void addPayments(Batch payments, long tenantId, long unitId, long ownerId, long buildingId,
+                             BigDecimal rent, LocalDateTime moveIn) {
+        LocalDateTime period = moveIn.isBefore(historyStart) ? historyStart : moveIn.withDayOfMonth(1).plusMonths(1);
+        String method = PAYMENT_METHODS.pick(random);
+        for (; !period.isAfter(now); period = period.plusMonths(1)) {
+            boolean currentMonth = period.plusMonths(1).isAfter(now);
+            double roll = random.nextDouble();
+            String status;
+            LocalDateTime paidAt;
+            boolean late = false;
+            if (currentMonth && roll < 0.6) {
+                status = "PENDING";
+                paidAt = period;
+            } else if (roll < 0.025) {
+                status = "FAILED";
+                paidAt = period.plusDays(random.nextInt(5));
+            } else if (roll < 0.125) {
+                status = "COMPLETED";
+                late = true;
+                paidAt = period.plusDays(4 + random.nextInt(17));
+            } else {
+                status = "COMPLETED";
+                paidAt = period.minusDays(3).plusDays(random.nextInt(7));
+            }
+            paidAt = paidAt.plusMinutes(random.nextInt(24 * 60));
+            if (paidAt.isAfter(now)) {
+                paidAt = now;
+            }
+
+            long id = nextPaymentId++;
+            payments.add(id, rent, "RENT", method, status, paidAt, period,
+                    "COMPLETED".equals(status) ? paidAt : null, "Rent for " + period.getMonth() + " " + period.getYear(),
+                    "SYN-" + id, late ? new BigDecimal("50.00") : BigDecimal.ZERO, late, paidAt,
+                    tenantId, unitId, ownerId, buildingId, period, period.plusMonths(1).minusSeconds(1));
+            counts.payments++;
+        }
+    }
+
+    private void addIssues(Batch issues, long tenantId, long unitId, long ownerId, long buildingId, LocalDateTime moveIn) {
+        LocalDateTime from = moveIn.isBefore(historyStart) ? historyStart : moveIn;
+        for (LocalDateTime month = from; month.isBefore(now); month = month.plusMonths(1)) {
+            int count = poisson(issuesPerUnitMonth);
+            for (int i = 0; i < count; i++) {
+                LocalDateTime createdAt = month.plusMinutes(random.nextInt(30 * 24 * 60));
+                if (createdAt.isAfter(now)) {
+                    continue;
+                }
+                boolean recent = createdAt.isAfter(now.minusDays(30));
+                String status = (recent ? OPEN_STATUSES : CLOSED_STATUSES).pick(random);
+                boolean done = status.equals("RESOLVED") || status.equals("CLOSED");
+                LocalDateTime resolvedAt = done ? min(createdAt.plusHours(2 + (long) exponential(96)), now) : null;
+                String category = CATEGORIES.pick(random);
+
+                issues.add(nextIssueId++, title(category), "Synthetic " + category.toLowerCase().replace('_', ' ') + " issue",
+                        category, PRIORITIES.pick(random), status, createdAt, resolvedAt != null ? resolvedAt : createdAt,
+                        resolvedAt, tenantId, unitId, ownerId, buildingId, status.equals("OPEN") ? null : ownerId);
+                counts.issues++;
+            }
+        }
+    }
+
+    private LocalDateTime moveInDate() {
+        // Most tenants were already in place when the history window starts
+        if (random.nextDouble() < 0.6) {
+            return historyStart.minusDays(1 + random.nextInt(900));
+        }
+        long windowDays = ChronoUnit.DAYS.between(historyStart, now);
+        return historyStart.plusDays(random.nextInt((int) Math.max(1, windowDays)));
+    }
+
+    private BigDecimal rent(int bedrooms) {
+        double marketFactor = Math.exp(random.nextGaussian() * 0.25);
+        long rent = Math.round(BASE_RENT_BY_BEDROOMS[bedrooms] * marketFactor / 5.0) * 5;
+        return BigDecimal.valueOf(rent).setScale(2, RoundingMode.UNNECESSARY);
+    }
+
+    private BigDecimal bathrooms(int bedrooms) {
+        if (bedrooms <= 1) {
+            return new BigDecimal("1.0");
+        }
+        return bedrooms == 2 ? new BigDecimal(random.nextBoolean() ? "1.0" : "2.0") : new BigDecimal("2.5");
+    }
+
+    private static String roomCode(long unitId) {
+        String code = Long.toString(unitId, 36).toUpperCase();
+        return "S" + "0".repeat(Math.max(0, 7 - code.length())) + code;
+    }
+
+    private static String title(String category) {
+        return switch (category) {
+            case "PLUMBING" -> "Leaking tap";
+            case "ELECTRICAL" -> "Outlet not working";
+            case "HEATING_COOLING" -> "Heating not working";
+            case "APPLIANCES" -> "Appliance broken";
+            case "PEST_CONTROL" -> "Pests spotted";
+            case "WINDOWS_DOORS" -> "Window will not close";
+            case "LOCKS_KEYS" -> "Lock is sticking";
+            case "NOISE_COMPLAINT" -> "Noise from neighbours";
+            case "WATER_DAMAGE" -> "Water stain on ceiling";
+            case "LIGHTING" -> "Hallway light out";
+            default -> "General maintenance request";
+        };
+    }
+
+    // Log-normal around the mean, so a few owners and buildings are much larger than the rest
+    private int around(double mean) {
+        return Math.max(1, (int) Math.round(mean * Math.exp(random.nextGaussian() * 0.5 - 0.125)));
+    }
+
+    private int poisson(double lambda) {
+        double limit = Math.exp(-lambda);
+        double product = random.nextDouble();
+        int count = 0;
+        while (product > limit) {
+            product *= random.nextDouble();
+            count++;
+        }
+        return count;
+    }
+
+    private double exponential(double mean) {
+        return -mean * Math.log(1 - random.nextDouble());
+    }
+
+    private String phone() {
+        return String.format("555-%03d-%04d", random.nextInt(1000), random.nextInt(10000));
+    }
+
+    private <T> T pick(T[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static LocalDateTime min(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private long nextId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        return max != null ? max + 1 : 1;
+    }
+
+    // Explicit ids do not advance the identity columns; move them past the generated rows
+    private void restartIdentity(String table, long next) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+    }
+
+    private final class Batch {
+        private final String sql;
+        private final List<Object[]> rows = new ArrayList<>();
+
+        private Batch(String sql) {
+            this.sql = sql;
+        }
+
+        private void add(Object... row) {
+            rows.add(row);
+        }
+
+        private void flush() {
+            for (int from = 0; from < rows.size(); from += batchSize) {
+                jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + batchSize)));
+            }
+            rows.clear();
+        }
+    }
+
+    private static final class Weighted<T> {
+        private final T[] values;
+        private final int[] cumulative;
+
+        private Weighted(T[] values, int[] weights) {
+            this.values = values;
+            this.cumulative = new int[weights.length];
+            int total = 0;
+            for (int i = 0; i < weights.length; i++) {
+                total += weights[i];
+                cumulative[i] = total;
+            }
+        }
+
+        private T pick(Random random) {
+            int roll = random.nextInt(cumulative[cumulative.length - 1]);
+            for (int i = 0; i < cumulative.length; i++) {
+                if (roll < cumulative[i]) {
+                    return values[i];
+                }
+            }
+            return values[values.length - 1];
+        }
+    }
+
+    private static final class Counts {
+        private long owners;
+        private long buildings;
+        private long units;
+        private long tenants;
+        private long payments;
+        private long issues;
+
+        @Override
+        public String toString() {
+            return owners + " owners, " + buildings + " buildings, " + units + " units, " + tenants + " tenants, " +
+                    payments + " payments, " + issues + " issues";
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.Colten.service;
+
+import com.example.Colten.model.Unit;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * JPA listener that drops cached room code lookups whenever a unit row is written.
+ * Instantiated through Hibernate's Spring bean container while the EntityManagerFactory is
+ * still being built; RoomCodeCache needs a repository and with it that same factory, so it is
+ * looked up on first use rather than injected.
+ */
+public class UnitCacheEvictionListener {
+
+    @Autowired
+    private ObjectProvider<RoomCodeCache> roomCodeCache;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void evict(Unit unit) {
+        roomCodeCache.getObject().evictAfterCommit(unit.getRoomCode(), unit.getReplacedRoomCode());
+        unit.clearReplacedRoomCode();
+    }
+}
@@ -4,13 +4,14 @@ import com.example.Colten.model.User;
 import com.example.Colten.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     
     @Autowired
     UserRepository userRepository;
@@ -23,4 +24,22 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         
         return UserPrincipal.create(user);
     }
+    
+    // Typed variant used by the JWT filter's principal cache
+    @Transactional(readOnly = true)
+    public UserPrincipal loadPrincipalByEmail(String email) throws UsernameNotFoundException {
+        return (UserPrincipal) loadUserByUsername(email);
+    }
+    
+    // Called by DaoAuthenticationProvider after a successful login when the stored hash
+    // was produced with a lower BCrypt cost than the one currently configured
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with email: " + userDetails.getUsername()));
+        
+        user.setPassword(newPassword);
+        return UserPrincipal.create(userRepository.save(user));
+    }
 }
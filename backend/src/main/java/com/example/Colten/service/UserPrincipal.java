@@ -1,5 +1,8 @@
 package com.example.Colten.service;
 
+import com.example.Colten.model.Owner;
+import com.example.Colten.model.Role;
+import com.example.Colten.model.Tenant;
 import com.example.Colten.model.User;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -15,6 +18,12 @@ public class UserPrincipal implements UserDetails {
     private String password;
     private Collection<? extends GrantedAuthority> authorities;
     private boolean isActive;
+    private Role role;
+    // Set only when the user row is an Owner / Tenant subclass (JOINED inheritance shares the id)
+    private Long ownerId;
+    private Long tenantId;
+    private Long unitId;
+    private int tokenVersion;
     
     public UserPrincipal(Long id, String email, String password, 
                         Collection<? extends GrantedAuthority> authorities, boolean isActive) {
@@ -30,19 +39,47 @@ public class UserPrincipal implements UserDetails {
             new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
         );
         
-        return new UserPrincipal(
+        UserPrincipal principal = new UserPrincipal(
             user.getId(),
             user.getEmail(),
             user.getPassword(),
             authorities,
             user.getIsActive()
         );
+        principal.role = user.getRole();
+        principal.ownerId = user instanceof Owner ? user.getId() : null;
+        principal.tenantId = user instanceof Tenant ? user.getId() : null;
+        if (user instanceof Tenant tenant && tenant.getUnit() != null) {
+            principal.unitId = tenant.getUnit().getId();
+        }
+        principal.tokenVersion = user.getTokenVersion() != null ? user.getTokenVersion() : 0;
+        return principal;
     }
     
     public Long getId() {
         return id;
     }
     
+    public Role getRole() {
+        return role;
+    }
+    
+    public Long getOwnerId() {
+        return ownerId;
+    }
+    
+    public Long getTenantId() {
+        return tenantId;
+    }
+    
+    public Long getUnitId() {
+        return unitId;
+    }
+    
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+    
     @Override
     public String getUsername() {
         return email;
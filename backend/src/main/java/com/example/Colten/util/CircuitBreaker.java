@@ -0,0 +1,177 @@
+package com.example.Colten.util;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker around calls to a remote dependency.
+ *
+ * The outcomes of the last windowSize calls are kept in a ring. Once at least minimumCalls are
+ * recorded and the share of failures reaches the threshold, the breaker opens and tryAcquire()
+ * refuses every call for openDuration. After that it lets halfOpenCalls trial calls through:
+ * if they all succeed it closes with a clean window, the first failure opens it again.
+ *
+ * Each granted call carries a Permit stamped with the breaker's epoch, which moves on every
+ * state change. Outcomes are only counted for permits of the current epoch, so a slow call
+ * granted while closed cannot pass for a half-open trial, nor reopen a breaker that has
+ * since recovered.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * Handed out by tryAcquire() and passed back with the call's outcome.
+     */
+    public static final class Permit {
+        private final long epoch;
+
+        private Permit(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+
+    private final boolean[] failures;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier nanoTime;
+
+    private State state = State.CLOSED;
+    private long epoch;
+    private int recorded;
+    private int next;
+    private int failed;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, int halfOpenCalls) {
+        this(windowSize, minimumCalls, failureRateThreshold, openDuration, halfOpenCalls, System::nanoTime);
+    }
+
+    public CircuitBreaker(int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, int halfOpenCalls, LongSupplier nanoTime) {
+        if (windowSize <= 0 || minimumCalls <= 0 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("Need 0 < minimumCalls <= windowSize");
+        }
+        if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("Failure rate threshold must be in (0, 1]");
+        }
+        if (halfOpenCalls <= 0) {
+            throw new IllegalArgumentException("Half-open calls must be positive");
+        }
+        this.failures = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.halfOpenCalls = halfOpenCalls;
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * A permit if a call may go ahead now, otherwise null. Every permit must be handed back
+     * through onSuccess, onFailure or release.
+     */
+    public synchronized Permit tryAcquire() {
+        if (state == State.OPEN) {
+            if (nanoTime.getAsLong() - openedAt < openNanos) {
+                return null;
+            }
+            state = State.HALF_OPEN;
+            epoch++;
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenCalls) {
+                return null;
+            }
+            trialsStarted++;
+        }
+        return new Permit(epoch);
+    }
+
+    public synchronized void onSuccess(Permit permit) {
+        if (permit.epoch != epoch) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            if (++trialsSucceeded >= halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure(Permit permit) {
+        if (permit.epoch != epoch) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+    }
+
+    // For a granted call that never ran (rejected by a full pool, interrupted); frees its trial slot
+    public synchronized void release(Permit permit) {
+        if (permit.epoch == epoch && state == State.HALF_OPEN) {
+            trialsStarted--;
+        }
+    }
+
+    public synchronized State getState() {
+        // Report an elapsed open period as half-open even before the next call arrives
+        if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    // Failure share of the current window, 0 until anything is recorded
+    public synchronized double failureRate() {
+        return recorded == 0 ? 0 : (double) failed / recorded;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == failures.length) {
+            if (failures[next]) {
+                failed--;
+            }
+        } else {
+            recorded++;
+        }
+        failures[next] = failure;
+        if (failure) {
+            failed++;
+        }
+        next = (next + 1) % failures.length;
+
+        if (recorded >= minimumCalls && (double) failed / recorded >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        epoch++;
+        openedAt = nanoTime.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        epoch++;
+        recorded = 0;
+        next = 0;
+        failed = 0;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.Colten.util;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Token bucket rate limiter keyed by an arbitrary string (a client IP, say).
+ *
+ * Each key gets a bucket of capacity tokens that refills at one token per refill interval;
+ * a call is allowed when a token can be taken. Buckets are kept in least-recently-used order
+ * and, once maxKeys are tracked, the bucket of the client seen longest ago is dropped, in
+ * constant time. A client that keeps calling stays at the hot end, so being throttled never
+ * gets its bucket evicted and refilled; a bucket recreated after eviction starts full, which
+ * is where an idle client's bucket would have been anyway.
+ */
+public class TokenBucketLimiter {
+
+    private final Map<String, Bucket> buckets;
+    private final int capacity;
+    private final long refillIntervalNanos;
+
+    public TokenBucketLimiter(int capacity, Duration refillInterval, int maxKeys) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (refillInterval.isNegative() || refillInterval.isZero()) {
+            throw new IllegalArgumentException("Refill interval must be positive");
+        }
+        if (maxKeys <= 0) {
+            throw new IllegalArgumentException("Max keys must be positive");
+        }
+        this.capacity = capacity;
+        this.refillIntervalNanos = refillInterval.toNanos();
+        this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                return size() > maxKeys;
+            }
+        };
+    }
+
+    public boolean tryAcquire(String key) {
+        long now = System.nanoTime();
+        Bucket bucket;
+        synchronized (buckets) {
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, now));
+        }
+        return bucket.tryTake(now);
+    }
+
+    /**
+     * Seconds until the next token, for a Retry-After header.
+     */
+    public long retryAfterSeconds() {
+        return Math.max(1, Duration.ofNanos(refillIntervalNanos).toSeconds());
+    }
+
+    private final class Bucket {
+        private double tokens;
+        private long refilledAt;
+
+        private Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.refilledAt = now;
+        }
+
+        private synchronized boolean tryTake(long now) {
+            // Calls racing on the same bucket may arrive with slightly older timestamps
+            if (now > refilledAt) {
+                tokens = Math.min(capacity, tokens + (double) (now - refilledAt) / refillIntervalNanos);
+                refilledAt = now;
+            }
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+}
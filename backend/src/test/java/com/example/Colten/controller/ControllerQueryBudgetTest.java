@@ -0,0 +1,277 @@
+package com.example.Colten.controller;
+
+import com.example.Colten.model.Building;
+import com.example.Colten.model.Issue;
+import com.example.Colten.model.IssueCategory;
+import com.example.Colten.model.IssuePriority;
+import com.example.Colten.model.Owner;
+import com.example.Colten.model.Payment;
+import com.example.Colten.model.PaymentStatus;
+import com.example.Colten.model.PaymentType;
+import com.example.Colten.model.Tenant;
+import com.example.Colten.model.Unit;
+import com.example.Colten.querycount.QueryBudget;
+import com.example.Colten.querycount.QueryCountConfiguration;
+import com.example.Colten.security.JwtUtils;
+import com.example.Colten.security.PrincipalCache;
+import com.example.Colten.service.KpiService;
+import com.example.Colten.service.UserDetailsServiceImpl;
+import com.example.Colten.service.UserPrincipal;
+import com.example.Colten.repository.BuildingKpiRepository;
+import com.example.Colten.repository.OwnerKpiRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets for the read endpoints, one per endpoint, measured per request against a
+ * small seeded portfolio. Budgets are set to the current counts: a lazy load or an extra lookup
+ * in any of these paths fails the build instead of showing up as latency in production.
+ *
+ * The portfolio is committed once for the class and removed afterwards. Nothing runs in a test
+ * transaction, so every request gets its own persistence context and cannot lean on entities
+ * an earlier request already loaded. Principals are cached before each test, so the counts
+ * cover the controller only.
+ */
+@SpringBootTest(properties = {
+        "app.kpi.reconcile.enabled=false",
+        "app.backfill.ownership.enabled=false",
+        "app.payments.outbox.enabled=false",
+        "app.stripe.webhooks.poll-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+@Import(QueryCountConfiguration.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ControllerQueryBudgetTest {
+
+    private static final int UNITS = 6;
+    private static final String OWNER_EMAIL = "owner@budget.test";
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private EntityManager entityManager;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private JwtUtils jwtUtils;
+    @Autowired private PrincipalCache principalCache;
+    @Autowired private UserDetailsServiceImpl userDetailsService;
+    @Autowired private KpiService kpiService;
+    @Autowired private OwnerKpiRepository ownerKpiRepository;
+    @Autowired private BuildingKpiRepository buildingKpiRepository;
+
+    private String ownerToken;
+    private String tenantToken;
+    private String tenantEmail;
+    private Long ownerId;
+    private Long buildingId;
+    private Long unitId;
+    private Long issueId;
+    private Long paymentId;
+
+    @BeforeAll
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Owner owner = new Owner("Olive", "Owner", OWNER_EMAIL, "secret", "Budget Homes");
+            entityManager.persist(owner);
+            Building building = new Building("Budget Tower", "1 Budget Street", 5, owner);
+            entityManager.persist(building);
+
+            for (int u = 0; u < UNITS; u++) {
+                Unit unit = new Unit("10" + u, 1, 2, new BigDecimal("1.0"), 750, new BigDecimal("1200.00"), building);
+                unit.setRoomCode("BUDGET0" + u);
+                entityManager.persist(unit);
+
+                Tenant occupant = new Tenant("Tia", "Tenant" + u, "tenant" + u + "@budget.test", "secret");
+                occupant.setUnit(unit);
+                entityManager.persist(occupant);
+
+                for (int i = 0; i < 3; i++) {
+                    Issue issue = new Issue("Issue " + i, "Something broke", IssueCategory.PLUMBING, occupant, unit);
+                    issue.setPriority(IssuePriority.URGENT);
+                    issue.setAssignedTo(owner);
+                    issue.addAttachment("https://files.test/" + u + "/" + i + ".jpg");
+                    entityManager.persist(issue);
+                    issueId = issue.getId();
+                }
+                for (int p = 0; p < 3; p++) {
+                    Payment payment = new Payment(new BigDecimal("1200.00"), PaymentType.RENT, occupant, unit);
+                    payment.setStatus(p == 0 ? PaymentStatus.PENDING : PaymentStatus.COMPLETED);
+                    payment.setPaymentDate(LocalDateTime.now().minusMonths(p));
+                    payment.setReferenceNumber("BUDGET-" + u + p);
+                    entityManager.persist(payment);
+                    paymentId = payment.getId();
+                }
+                unitId = unit.getId();
+                tenantEmail = occupant.getEmail();
+            }
+            ownerId = owner.getId();
+            buildingId = building.getId();
+        });
+        kpiService.reconcile();
+    }
+
+    @AfterAll
+    void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            buildingKpiRepository.deleteById(buildingId);
+            ownerKpiRepository.deleteById(ownerId);
+            // Cascades to the building, its units and their tenants, issues and payments
+            entityManager.remove(entityManager.find(Owner.class, ownerId));
+        });
+    }
+
+    @BeforeEach
+    void cachePrincipals() {
+        ownerToken = tokenFor(OWNER_EMAIL);
+        tenantToken = tokenFor(tenantEmail);
+    }
+
+    @Test
+    @QueryBudget(2)
+    void ownerBuildings() throws Exception {
+        ownerGet("/api/buildings").andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void ownerBuilding() throws Exception {
+        ownerGet("/api/buildings/" + buildingId).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void ownerUnits() throws Exception {
+        ownerGet("/api/units").andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void buildingUnits() throws Exception {
+        ownerGet("/api/units/building/" + buildingId).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void ownerUnit() throws Exception {
+        ownerGet("/api/units/" + unitId).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void ownerIssues() throws Exception {
+        ownerGet("/api/issues/owner-issues").andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void buildingIssues() throws Exception {
+        ownerGet("/api/issues/building/" + buildingId).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void urgentIssues() throws Exception {
+        ownerGet("/api/issues/urgent").andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void issuesByStatus() throws Exception {
+        ownerGet("/api/issues/status/OPEN").andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void issueById() throws Exception {
+        ownerGet("/api/issues/" + issueId).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void ownerPayments() throws Exception {
+        ownerGet("/api/payments/owner-payments").andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void buildingPayments() throws Exception {
+        ownerGet("/api/payments/building/" + buildingId).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void pendingPayments() throws Exception {
+        ownerGet("/api/payments/pending").andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void paymentById() throws Exception {
+        ownerGet("/api/payments/" + paymentId).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void ownerDashboard() throws Exception {
+        ownerGet("/api/dashboard/owner").andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void paymentStats() throws Exception {
+        ownerGet("/api/payments/stats").andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(3)
+    void buildingDashboard() throws Exception {
+        ownerGet("/api/dashboard/building/" + buildingId).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void tenantIssues() throws Exception {
+        tenantGet("/api/issues/my-issues").andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void tenantPayments() throws Exception {
+        tenantGet("/api/payments/my-payments").andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void tenantDashboard() throws Exception {
+        tenantGet("/api/dashboard/tenant").andExpect(status().isOk());
+    }
+
+    private ResultActions ownerGet(String url) throws Exception {
+        return mockMvc.perform(get(url).header("Authorization", "Bearer " + ownerToken));
+    }
+
+    private ResultActions tenantGet(String url) throws Exception {
+        return mockMvc.perform(get(url).header("Authorization", "Bearer " + tenantToken));
+    }
+
+    private String tokenFor(String email) {
+        principalCache.evict(email);
+        UserPrincipal principal = principalCache.get(email, userDetailsService::loadPrincipalByEmail);
+        return jwtUtils.generateJwtToken(principal);
+    }
+}
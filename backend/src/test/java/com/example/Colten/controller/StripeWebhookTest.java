@@ -0,0 +1,197 @@
+package com.example.Colten.controller;
+
+import com.example.Colten.model.Building;
+import com.example.Colten.model.Owner;
+import com.example.Colten.model.Payment;
+import com.example.Colten.model.PaymentStatus;
+import com.example.Colten.model.PaymentType;
+import com.example.Colten.model.StripeWebhookEvent;
+import com.example.Colten.model.Tenant;
+import com.example.Colten.model.Unit;
+import com.example.Colten.model.WebhookEventStatus;
+import com.example.Colten.repository.PaymentRepository;
+import com.example.Colten.repository.StripeWebhookEventRepository;
+import com.example.Colten.service.StripeWebhookService;
+import com.stripe.net.Webhook;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Webhook ingestion and batch application against recorded Stripe events in
+ * src/test/resources/stripe, signed here with a test secret. No network involved.
+ *
+ * The poller is pushed out of the way; each test runs processBatch() itself.
+ */
+@SpringBootTest(properties = {
+        "app.kpi.reconcile.enabled=false",
+        "app.backfill.ownership.enabled=false",
+        "app.payments.outbox.enabled=false",
+        "stripe.webhook.secret=" + StripeWebhookTest.SECRET,
+        "app.stripe.webhooks.poll-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+class StripeWebhookTest {
+
+    static final String SECRET = "whsec_fixture_secret";
+    private static final String INTENT_ID = "pi_3QFixture0000000001";
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private EntityManager entityManager;
+    @Autowired private PlatformTransactionManager transactionManager;
+    @Autowired private StripeWebhookService webhookService;
+    @Autowired private StripeWebhookEventRepository eventRepository;
+    @Autowired private PaymentRepository paymentRepository;
+
+    @AfterEach
+    void cleanUp() {
+        eventRepository.deleteAll();
+        Payment payment = paymentRepository.findByStripePaymentIntentId(INTENT_ID);
+        if (payment != null) {
+            paymentRepository.delete(payment);
+        }
+    }
+
+    @Test
+    void rejectsUnsignedAndForgedEvents() throws Exception {
+        String payload = fixture("payment_intent.succeeded");
+
+        mockMvc.perform(post("/api/webhooks/stripe").contentType(MediaType.APPLICATION_JSON).content(payload))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/webhooks/stripe").contentType(MediaType.APPLICATION_JSON).content(payload)
+                .header(StripeWebhookService.SIGNATURE_HEADER, sign(payload, "whsec_someone_else")))
+            .andExpect(status().isBadRequest());
+
+        assertThat(eventRepository.count()).isZero();
+    }
+
+    @Test
+    void storesRedeliveredEventOnce() throws Exception {
+        deliver("payment_intent.succeeded").andExpect(status().isOk());
+        deliver("payment_intent.succeeded").andExpect(status().isOk());
+
+        assertThat(eventRepository.count()).isEqualTo(1);
+        assertThat(eventRepository.countByStatus(WebhookEventStatus.PENDING)).isEqualTo(1);
+    }
+
+    @Test
+    void appliesSucceededIntent() throws Exception {
+        Long paymentId = seedProcessingPayment();
+
+        deliver("payment_intent.succeeded").andExpect(status().isOk());
+        assertThat(webhookService.processBatch()).isEqualTo(1);
+
+        Payment payment = paymentRepository.findById(paymentId).orElseThrow();
+        assertThat(payment.getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+        assertThat(payment.getStripeChargeId()).isEqualTo("ch_3QFixture0000000001");
+        assertThat(payment.getProcessedAt()).isNotNull();
+        assertThat(eventRepository.findById("evt_3QFixture0000000001").orElseThrow().getStatus())
+            .isEqualTo(WebhookEventStatus.PROCESSED);
+    }
+
+    @Test
+    void coalescesBurstIntoFinalState() throws Exception {
+        Long paymentId = seedProcessingPayment();
+
+        // Delivered out of order; applied in Stripe's order
+        deliver("charge.dispute.created").andExpect(status().isOk());
+        deliver("charge.refunded").andExpect(status().isOk());
+        deliver("payment_intent.succeeded").andExpect(status().isOk());
+        assertThat(webhookService.processBatch()).isEqualTo(3);
+
+        Payment payment = paymentRepository.findById(paymentId).orElseThrow();
+        assertThat(payment.getStatus()).isEqualTo(PaymentStatus.DISPUTED);
+        assertThat(payment.getRefundAmount()).isEqualByComparingTo(new BigDecimal("500.00"));
+        assertThat(eventRepository.countByStatus(WebhookEventStatus.PROCESSED)).isEqualTo(3);
+    }
+
+    @Test
+    void ignoresStaleFailureAfterSuccess() throws Exception {
+        Long paymentId = seedProcessingPayment();
+
+        deliver("payment_intent.succeeded").andExpect(status().isOk());
+        webhookService.processBatch();
+        deliver("payment_intent.payment_failed").andExpect(status().isOk());
+        webhookService.processBatch();
+
+        assertThat(paymentRepository.findById(paymentId).orElseThrow().getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+        assertThat(eventRepository.countByStatus(WebhookEventStatus.PROCESSED)).isEqualTo(2);
+    }
+
+    @Test
+    void defersEventsForUnrecordedIntent() throws Exception {
+        deliver("payment_intent.succeeded").andExpect(status().isOk());
+        webhookService.processBatch();
+
+        StripeWebhookEvent event = eventRepository.findById("evt_3QFixture0000000001").orElseThrow();
+        assertThat(event.getStatus()).isEqualTo(WebhookEventStatus.PENDING);
+        assertThat(event.getAttempts()).isEqualTo(1);
+        // Not due again until the retry delay has passed
+        assertThat(webhookService.processBatch()).isZero();
+    }
+
+    @Test
+    void storesUnhandledTypesAsIgnored() throws Exception {
+        deliver("customer.created").andExpect(status().isOk());
+
+        assertThat(eventRepository.findById("evt_3QFixture0000000005").orElseThrow().getStatus())
+            .isEqualTo(WebhookEventStatus.IGNORED);
+        assertThat(webhookService.processBatch()).isZero();
+    }
+
+    private ResultActions deliver(String fixture) throws Exception {
+        String payload = fixture(fixture);
+        return mockMvc.perform(post("/api/webhooks/stripe").contentType(MediaType.APPLICATION_JSON).content(payload)
+            .header(StripeWebhookService.SIGNATURE_HEADER, sign(payload, SECRET)));
+    }
+
+    private Long seedProcessingPayment() {
+        int n = SEQUENCE.incrementAndGet();
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Owner owner = new Owner("Olive", "Owner", "owner" + n + "@webhook.test", "secret", "Webhook Homes");
+            entityManager.persist(owner);
+            Building building = new Building("Fixture Tower", "1 Fixture Street", 5, owner);
+            entityManager.persist(building);
+            Unit unit = new Unit("101", 1, 2, new BigDecimal("1.0"), 750, new BigDecimal("1200.00"), building);
+            unit.setRoomCode("WEBHOOK" + n);
+            entityManager.persist(unit);
+            Tenant tenant = new Tenant("Tia", "Tenant", "tenant" + n + "@webhook.test", "secret");
+            tenant.setUnit(unit);
+            entityManager.persist(tenant);
+
+            Payment payment = new Payment(new BigDecimal("1200.00"), PaymentType.RENT, tenant, unit);
+            payment.setStatus(PaymentStatus.PROCESSING);
+            payment.setStripePaymentIntentId(INTENT_ID);
+            payment.setReferenceNumber("WEBHOOK-" + n);
+            entityManager.persist(payment);
+            return payment.getId();
+        });
+    }
+
+    private static String fixture(String name) throws Exception {
+        return new ClassPathResource("stripe/" + name + ".json").getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private static String sign(String payload, String secret) throws Exception {
+        long timestamp = System.currentTimeMillis() / 1000;
+        return "t=" + timestamp + ",v1=" + Webhook.Util.computeHmacSha256(secret, timestamp + "." + payload);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.Colten.querycount;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maximum number of SQL statements a single HTTP call may execute. Every request the
+ * annotated test makes through MockMvc is checked against it once the test finishes.
+ *
+ * On a class it sets the default for all of its tests; a method annotation overrides it.
+ * The test context must include {@link QueryCountConfiguration}.
+ */
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+    int value();
+}
@@ -0,0 +1,55 @@
+package com.example.Colten.querycount;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Checks the statement count of every request a test made against its {@link QueryBudget}.
+ * Counting starts right before the test body, so fixtures built in @BeforeEach are free.
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        filter(context).reset();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+        int budget = budget(context);
+        List<StatementCountingFilter.RequestCount> requests = filter(context).getRequests();
+        assertFalse(requests.isEmpty(), "@QueryBudget test made no HTTP calls");
+
+        List<StatementCountingFilter.RequestCount> overBudget = requests.stream()
+                .filter(request -> request.statements() > budget)
+                .toList();
+        if (!overBudget.isEmpty()) {
+            fail("Query budget of " + budget + " exceeded:\n" + overBudget.stream()
+                    .map(request -> "  " + request.call() + " ran " + request.statements() + " statements")
+                    .collect(Collectors.joining("\n")));
+        }
+    }
+
+    private static int budget(ExtensionContext context) {
+        return AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), QueryBudget.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), QueryBudget.class))
+                .map(QueryBudget::value)
+                .orElseThrow(() -> new IllegalStateException("No @QueryBudget on " + context.getDisplayName()));
+    }
+
+    private static StatementCountingFilter filter(ExtensionContext context) {
+        return SpringExtension.getApplicationContext(context).getBean(StatementCountingFilter.class);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.Colten.querycount;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers {@link StatementCountingFilter} ahead of every other filter, so MockMvc
+ * requests are counted end to end. Import it alongside {@link QueryBudget}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class QueryCountConfiguration {
+
+    @Bean
+    StatementCountingFilter statementCountingFilter(EntityManagerFactory entityManagerFactory) {
+        return new StatementCountingFilter(entityManagerFactory.unwrap(SessionFactory.class).getStatistics());
+    }
+
+    @Bean
+    FilterRegistrationBean<StatementCountingFilter> statementCountingFilterRegistration(StatementCountingFilter filter) {
+        FilterRegistrationBean<StatementCountingFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.Colten.querycount;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outermost servlet filter that records how many statements Hibernate prepared while
+ * serving each request, security filters and JSON rendering included.
+ *
+ * Statistics are global to the session factory, so this is only meaningful for tests that
+ * issue one request at a time.
+ */
+public class StatementCountingFilter extends OncePerRequestFilter {
+
+    private final Statistics statistics;
+    private final List<RequestCount> requests = new ArrayList<>();
+
+    public StatementCountingFilter(Statistics statistics) {
+        this.statistics = statistics;
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        statistics.clear();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            String call = request.getMethod() + " " + request.getRequestURI();
+            synchronized (requests) {
+                requests.add(new RequestCount(call, statistics.getPrepareStatementCount()));
+            }
+        }
+    }
+
+    public void reset() {
+        synchronized (requests) {
+            requests.clear();
+        }
+    }
+
+    public List<RequestCount> getRequests() {
+        synchronized (requests) {
+            return new ArrayList<>(requests);
+        }
+    }
+
+    public record RequestCount(String call, long statements) {}
+}
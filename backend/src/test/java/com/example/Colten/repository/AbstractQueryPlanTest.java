@@ -0,0 +1,234 @@
+package com.example.Colten.repository;
+
+import com.example.Colten.model.Building;
+import com.example.Colten.model.Issue;
+import com.example.Colten.model.IssueCategory;
+import com.example.Colten.model.IssuePriority;
+import com.example.Colten.model.IssueStatus;
+import com.example.Colten.model.Owner;
+import com.example.Colten.model.Payment;
+import com.example.Colten.model.PaymentStatus;
+import com.example.Colten.model.PaymentType;
+import com.example.Colten.model.Tenant;
+import com.example.Colten.model.Unit;
+import com.example.Colten.security.PrincipalCache;
+import com.example.Colten.service.RoomCodeCache;
+import com.example.Colten.util.PageCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Runs every hot repository finder against a small fixture, captures the SQL Hibernate
+ * generates for it and asks the database for the plan. A finder fails the suite when any
+ * table in its plan is read with a full scan.
+ *
+ * Finders that filter only on low-selectivity columns are left out on purpose, because no
+ * index would be chosen for them on real data either: the LIKE/ignore-case building
+ * searches, the boolean unit flags (pets, furnished, availability on its own), the global
+ * status lists, the lease-date tenant sweeps and the KPI source totals, which aggregate
+ * every row by design.
+ */
+@DataJpaTest
+@Import({ PrincipalCache.class, RoomCodeCache.class, AbstractQueryPlanTest.RecordingConfig.class })
+abstract class AbstractQueryPlanTest {
+
+    @Autowired protected TestEntityManager entityManager;
+    @Autowired protected DataSource dataSource;
+    @Autowired protected IssueRepository issueRepository;
+    @Autowired protected PaymentRepository paymentRepository;
+    @Autowired protected UnitRepository unitRepository;
+    @Autowired protected TenantRepository tenantRepository;
+    @Autowired protected BuildingRepository buildingRepository;
+    @Autowired protected UserRepository userRepository;
+
+    protected Owner owner;
+    protected Building building;
+    protected Unit unit;
+    protected Tenant tenant;
+    protected Payment payment;
+
+    /**
+     * Returns true when a plan reads a table without using an index.
+     */
+    protected abstract boolean isFullScan(String plan);
+
+    /**
+     * Hook for session settings that must be in place before EXPLAIN runs.
+     */
+    protected void prepareSession(Connection connection) throws SQLException {
+    }
+
+    @BeforeEach
+    void seed() {
+        LocalDateTime now = LocalDateTime.now();
+        owner = entityManager.persist(new Owner("Olive", "Owner", "owner@plan.test", "secret", "Plan Properties"));
+        for (int b = 0; b < 3; b++) {
+            Building current = entityManager.persist(new Building("Building " + b, b + " Plan Street", 4, owner));
+            for (int u = 0; u < 4; u++) {
+                Unit currentUnit = new Unit(b + "0" + u, 1, 2, new BigDecimal("1.0"), 800,
+                        new BigDecimal(1000 + 100 * u), current);
+                currentUnit.setRoomCode("PLAN" + b + u);
+                currentUnit.setIsAvailable(u % 2 == 0);
+                entityManager.persist(currentUnit);
+
+                Tenant currentTenant = new Tenant("Tia", "Tenant", "tenant" + b + u + "@plan.test", "secret");
+                currentTenant.setUnit(currentUnit);
+                entityManager.persist(currentTenant);
+
+                Issue issue = new Issue("Leak", "Kitchen tap leaks", IssueCategory.PLUMBING, currentTenant, currentUnit);
+                issue.setPriority(IssuePriority.URGENT);
+                issue.setAssignedTo(owner);
+                entityManager.persist(issue);
+
+                for (int p = 0; p < 3; p++) {
+                    Payment currentPayment = new Payment(new BigDecimal("1000.00"), PaymentType.RENT, currentTenant, currentUnit);
+                    currentPayment.setStatus(p == 0 ? PaymentStatus.PENDING : PaymentStatus.COMPLETED);
+                    currentPayment.setDueDate(now.minusMonths(p));
+                    currentPayment.setReferenceNumber("PLAN-" + b + u + p);
+                    currentPayment.setStripePaymentIntentId("pi_plan_" + b + u + p);
+                    entityManager.persist(currentPayment);
+                    payment = currentPayment;
+                }
+                unit = currentUnit;
+                tenant = currentTenant;
+            }
+            building = current;
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    static Stream<Finder> finders() {
+        LocalDateTime now = LocalDateTime.now();
+        PageCursor cursor = PageCursor.decode(PageCursor.encode(now, Long.MAX_VALUE));
+        return Stream.of(
+                new Finder("issues by tenant", t -> t.issueRepository.findTenantIssues(t.tenant.getId())),
+                new Finder("issues by unit", t -> t.issueRepository.findByUnitIdOrderByCreatedAtDesc(t.unit.getId())),
+                new Finder("issues by building", t -> t.issueRepository.findByBuildingIdOrderByCreatedAtDesc(t.building.getId())),
+                new Finder("issues by assignee", t -> t.issueRepository.findByAssignedToIdOrderByCreatedAtDesc(t.owner.getId())),
+                new Finder("owner issues first page", t -> t.issueRepository.findOwnerIssuesPage(t.owner.getId(), null, 50)),
+                new Finder("owner issues next page", t -> t.issueRepository.findOwnerIssuesPage(t.owner.getId(), cursor, 50)),
+                new Finder("owner issues by building", t -> t.issueRepository.findBuildingIssues(t.building.getId(), t.owner.getId())),
+                new Finder("owner issues by status", t -> t.issueRepository.findOwnerIssuesByStatus(IssueStatus.OPEN, t.owner.getId())),
+                new Finder("issue attachments", t -> t.issueRepository.findAttachmentUrlsByIssueIds(List.of(1L, 2L, 3L))),
+                new Finder("owner urgent issues", t -> t.issueRepository.findUrgentIssuesByOwnerId(t.owner.getId())),
+                new Finder("owner recent issues", t -> t.issueRepository.findRecentIssuesByOwnerId(t.owner.getId(), now.minusDays(30))),
+                new Finder("open issues per building", t -> t.issueRepository.countOpenIssuesByBuildingId(t.building.getId())),
+                new Finder("payments by tenant", t -> t.paymentRepository.findTenantPayments(t.tenant.getId())),
+                new Finder("payments by unit", t -> t.paymentRepository.findByUnitIdOrderByPaymentDateDesc(t.unit.getId())),
+                new Finder("payments by building", t -> t.paymentRepository.findByBuildingIdOrderByPaymentDateDesc(t.building.getId())),
+                new Finder("owner payments first page", t -> t.paymentRepository.findOwnerPaymentsPage(t.owner.getId(), null, 50)),
+                new Finder("owner payments next page", t -> t.paymentRepository.findOwnerPaymentsPage(t.owner.getId(), cursor, 50)),
+                new Finder("building payments next page", t -> t.paymentRepository.findBuildingPaymentsPage(t.building.getId(), cursor, 50)),
+                new Finder("owner pending payments", t -> t.paymentRepository.findPendingPaymentsByOwnerId(t.owner.getId())),
+                new Finder("overdue payments", t -> t.paymentRepository.findOverduePayments()),
+                new Finder("payments in date range", t -> t.paymentRepository.findByPaymentDateBetween(now.minusDays(7), now)),
+                new Finder("tenant rent payments", t -> t.paymentRepository.findRentPaymentsByTenantId(t.tenant.getId())),
+                new Finder("tenant latest rent payment", t -> t.paymentRepository.findLatestRentPaymentByTenantId(t.tenant.getId())),
+                new Finder("rent paid for period", t -> t.paymentRepository.isRentPaidForPeriod(t.tenant.getId(), now.minusMonths(1), now)),
+                new Finder("payment by intent", t -> t.paymentRepository.findByStripePaymentIntentId(t.payment.getStripePaymentIntentId())),
+                new Finder("payment by reference", t -> t.paymentRepository.findByReferenceNumber(t.payment.getReferenceNumber())),
+                new Finder("units by building", t -> t.unitRepository.findUnitDtosByBuildingId(t.building.getId())),
+                new Finder("unit by id for owner", t -> t.unitRepository.findUnitDtoByIdAndOwnerId(t.unit.getId(), t.owner.getId())),
+                new Finder("available units by rent", t -> t.unitRepository.findByBuildingIdAndIsAvailableOrderByMonthlyRentAsc(t.building.getId(), true)),
+                new Finder("available units in rent band", t -> t.unitRepository.findByBuildingIdAndMonthlyRentBetweenAndIsAvailable(
+                        t.building.getId(), new BigDecimal("900"), new BigDecimal("1200"), true)),
+                new Finder("owner units next page", t -> t.unitRepository.findOwnerUnitsPage(t.owner.getId(), cursor, 50)),
+                new Finder("unit by room code", t -> t.unitRepository.findByRoomCode("PLAN00")),
+                new Finder("room code exists", t -> t.unitRepository.existsByRoomCode("PLAN00")),
+                new Finder("room code validation", t -> t.unitRepository.findRoomCodeValidation("PLAN00")),
+                new Finder("tenant by unit", t -> t.tenantRepository.findByUnitId(t.unit.getId())),
+                new Finder("owner tenants next page", t -> t.tenantRepository.findOwnerTenantsPage(t.owner.getId(), cursor, 50)),
+                new Finder("owner tenants by building", t -> t.tenantRepository.findByUnitBuildingIdAndOwnerId(t.building.getId(), t.owner.getId())),
+                new Finder("owner buildings", t -> t.buildingRepository.findByOwnerIdOrderByCreatedAtDesc(t.owner.getId())),
+                new Finder("user by email", t -> t.userRepository.findByEmail("owner@plan.test"))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("finders")
+    void finderUsesAnIndex(Finder finder) throws SQLException {
+        RecordingDataSource recorder = dataSource.unwrap(RecordingDataSource.class);
+        recorder.start();
+        List<RecordingDataSource.RecordedStatement> statements;
+        try {
+            finder.call().accept(this);
+        } finally {
+            statements = recorder.stop();
+        }
+
+        List<RecordingDataSource.RecordedStatement> queries = statements.stream()
+                .filter(RecordingDataSource.RecordedStatement::isQuery)
+                .toList();
+        assertFalse(queries.isEmpty(), "Finder did not run any query");
+
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        prepareSession(connection);
+        for (RecordingDataSource.RecordedStatement query : queries) {
+            String plan = explain(connection, query);
+            if (isFullScan(plan)) {
+                fail("Full scan for " + finder + "\nSQL: " + query.getSql() + "\nPlan:\n" + plan);
+            }
+        }
+    }
+
+    private String explain(Connection connection, RecordingDataSource.RecordedStatement query) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.getSql())) {
+            query.bindTo(statement);
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        }
+    }
+
+    record Finder(String name, Consumer<AbstractQueryPlanTest> call) {
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    @TestConfiguration
+    static class RecordingConfig {
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource target && !(bean instanceof RecordingDataSource)) {
+                        return new RecordingDataSource(target);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.Colten.repository;
+
+import com.example.Colten.dto.BuildingDTO;
+import com.example.Colten.model.Building;
+import com.example.Colten.model.Owner;
+import com.example.Colten.model.Unit;
+import com.example.Colten.security.PrincipalCache;
+import com.example.Colten.service.RoomCodeCache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ PrincipalCache.class, RoomCodeCache.class })
+class BuildingRepositoryTest {
+
+    private static final int BUILDINGS = 25;
+    private static final int UNITS_PER_BUILDING = 4;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private BuildingRepository buildingRepository;
+
+    private Owner owner;
+    private Owner otherOwner;
+    private Building lastBuilding;
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        owner = entityManager.persist(new Owner("Olive", "Owner", "owner@buildings.test", "secret", "Many Buildings"));
+        otherOwner = entityManager.persist(new Owner("Oscar", "Other", "other@buildings.test", "secret", "Elsewhere"));
+        for (int b = 0; b < BUILDINGS; b++) {
+            Building building = entityManager.persist(new Building("Building " + b, b + " Main Street", 3, owner));
+            for (int u = 0; u < UNITS_PER_BUILDING; u++) {
+                entityManager.persist(new Unit(b + "-" + u, 1, 1, new BigDecimal("1.0"), 600,
+                        new BigDecimal("950.00"), building));
+            }
+            lastBuilding = building;
+        }
+        entityManager.persist(new Building("Not Mine", "1 Other Street", 2, otherOwner));
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void ownerBuildingsLoadInTwoStatementsRegardlessOfBuildingCount() {
+        List<BuildingDTO> buildings = buildingRepository.findOwnerBuildingSummaries(owner.getId());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(BUILDINGS, buildings.size());
+        for (BuildingDTO building : buildings) {
+            assertEquals(UNITS_PER_BUILDING, building.getUnits().size());
+            assertTrue(building.getUnits().stream().allMatch(u -> u.getBuildingId().equals(building.getId())));
+        }
+    }
+
+    @Test
+    void singleBuildingLoadsInTwoStatements() {
+        Optional<BuildingDTO> building = buildingRepository.findBuildingSummary(lastBuilding.getId(), owner.getId());
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertTrue(building.isPresent());
+        assertEquals(UNITS_PER_BUILDING, building.get().getUnits().size());
+    }
+
+    @Test
+    void buildingOfAnotherOwnerIsNotReturned() {
+        assertTrue(buildingRepository.findBuildingSummary(lastBuilding.getId(), otherOwner.getId()).isEmpty());
+        assertTrue(buildingRepository.findOwnerBuildingSummaries(otherOwner.getId()).get(0).getUnits().isEmpty());
+    }
+}
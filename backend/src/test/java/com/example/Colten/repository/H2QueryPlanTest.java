@@ -0,0 +1,13 @@
+package com.example.Colten.repository;
+
+/**
+ * Query plan checks against the embedded H2 database used in development.
+ * H2 marks unindexed access with a "tableScan" comment on the scanned table.
+ */
+class H2QueryPlanTest extends AbstractQueryPlanTest {
+
+    @Override
+    protected boolean isFullScan(String plan) {
+        return plan.contains("tableScan");
+    }
+}
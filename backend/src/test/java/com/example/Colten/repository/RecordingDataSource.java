@@ -0,0 +1,138 @@
+package com.example.Colten.repository;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataSource wrapper that records the prepared statements Hibernate executes, together with
+ * the parameter bindings, so a test can replay them under EXPLAIN with the same values.
+ *
+ * Recording is off until start() is called; only statements executed while it is on are kept.
+ */
+class RecordingDataSource extends DelegatingDataSource {
+
+    private final List<RecordedStatement> recorded = new ArrayList<>();
+    private volatile boolean recording;
+
+    RecordingDataSource(DataSource target) {
+        super(target);
+    }
+
+    void start() {
+        synchronized (recorded) {
+            recorded.clear();
+        }
+        recording = true;
+    }
+
+    List<RecordedStatement> stop() {
+        recording = false;
+        synchronized (recorded) {
+            return new ArrayList<>(recorded);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                return wrap(statement, (String) args[0]);
+            }
+            return result;
+        };
+        return (Connection) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] { Connection.class }, handler);
+    }
+
+    private PreparedStatement wrap(PreparedStatement statement, String sql) {
+        RecordedStatement pending = new RecordedStatement(sql);
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                pending.bindings.add(new Binding(method, args));
+            } else if (name.equals("clearParameters")) {
+                pending.bindings.clear();
+            } else if (recording && name.startsWith("execute")) {
+                synchronized (recorded) {
+                    recorded.add(pending.copy());
+                }
+            }
+            return invoke(statement, method, args);
+        };
+        return (PreparedStatement) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[] { PreparedStatement.class }, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    /**
+     * A statement as Hibernate executed it: the SQL text and the setter calls made on it.
+     */
+    static final class RecordedStatement {
+        private final String sql;
+        private final List<Binding> bindings = new ArrayList<>();
+
+        private RecordedStatement(String sql) {
+            this.sql = sql;
+        }
+
+        String getSql() {
+            return sql;
+        }
+
+        boolean isQuery() {
+            return sql.stripLeading().regionMatches(true, 0, "select", 0, 6);
+        }
+
+        /**
+         * Binds the recorded parameters onto another statement with the same placeholders.
+         */
+        void bindTo(PreparedStatement statement) throws SQLException {
+            for (Binding binding : bindings) {
+                binding.applyTo(statement);
+            }
+        }
+
+        private RecordedStatement copy() {
+            RecordedStatement copy = new RecordedStatement(sql);
+            copy.bindings.addAll(bindings);
+            return copy;
+        }
+    }
+
+    private record Binding(Method setter, Object[] args) {
+        void applyTo(PreparedStatement statement) throws SQLException {
+            try {
+                setter.invoke(statement, args);
+            } catch (ReflectiveOperationException e) {
+                throw new SQLException("Could not replay " + setter.getName(), e);
+            }
+        }
+    }
+}
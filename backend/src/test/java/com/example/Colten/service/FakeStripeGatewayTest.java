@@ -0,0 +1,97 @@
+package com.example.Colten.service;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.InvalidRequestException;
+import com.stripe.exception.StripeException;
+import com.stripe.model.PaymentIntent;
+import com.stripe.model.Refund;
+import com.stripe.param.PaymentIntentCreateParams;
+import com.stripe.param.RefundCreateParams;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The fake on its own, built without Spring: no latency and no injected failures, since
+ * every rate defaults to zero.
+ */
+class FakeStripeGatewayTest {
+
+    private final FakeStripeGateway gateway = new FakeStripeGateway();
+
+    @Test
+    void repeatedIdempotencyKeyReturnsSameIntent() throws StripeException {
+        PaymentIntent first = gateway.createPaymentIntent(confirmed("pm_card_visa", 120_000), "payment-1");
+        PaymentIntent repeat = gateway.createPaymentIntent(confirmed("pm_card_visa", 120_000), "payment-1");
+        PaymentIntent other = gateway.createPaymentIntent(confirmed("pm_card_visa", 120_000), "payment-2");
+
+        assertThat(repeat.getId()).isEqualTo(first.getId());
+        assertThat(other.getId()).isNotEqualTo(first.getId());
+        assertThat(gateway.intentCount()).isEqualTo(2);
+        assertThat(first.getStatus()).isEqualTo("succeeded");
+        assertThat(first.getLatestCharge()).startsWith("ch_fake_");
+    }
+
+    @Test
+    void lostResponseStillCreatesIntent() throws StripeException {
+        gateway.loseNextResponses(1);
+
+        assertThatThrownBy(() -> gateway.createPaymentIntent(confirmed("pm_card_visa", 5_000), "payment-1"))
+            .isInstanceOf(ApiConnectionException.class);
+        PaymentIntent retry = gateway.createPaymentIntent(confirmed("pm_card_visa", 5_000), "payment-1");
+
+        assertThat(retry.getStatus()).isEqualTo("succeeded");
+        assertThat(gateway.intentCount()).isEqualTo(1);
+    }
+
+    @Test
+    void declineCardLeavesIntentWithoutCharge() throws StripeException {
+        PaymentIntent intent = gateway.createPaymentIntent(
+            confirmed(FakeStripeGateway.DECLINED_PAYMENT_METHOD, 120_000), "payment-1");
+
+        assertThat(intent.getStatus()).isEqualTo("requires_payment_method");
+        assertThat(intent.getLatestCharge()).isNull();
+    }
+
+    @Test
+    void refundsUpToChargedAmount() throws StripeException {
+        String charge = gateway.createPaymentIntent(confirmed("pm_card_visa", 10_000), "payment-1").getLatestCharge();
+
+        Refund partial = gateway.createRefund(refund(charge, 6_000L));
+        assertThat(partial.getAmount()).isEqualTo(6_000L);
+        assertThat(partial.getStatus()).isEqualTo("succeeded");
+
+        assertThatThrownBy(() -> gateway.createRefund(refund(charge, 5_000L)))
+            .isInstanceOf(InvalidRequestException.class)
+            .satisfies(e -> assertThat(((InvalidRequestException) e).getCode()).isEqualTo("amount_too_large"));
+        // The rejected refund does not count towards the total
+        assertThat(gateway.createRefund(refund(charge, 4_000L)).getAmount()).isEqualTo(4_000L);
+        assertThatThrownBy(() -> gateway.createRefund(refund(charge, 1L)))
+            .isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    void refundOfUnknownChargeIsRejected() {
+        assertThatThrownBy(() -> gateway.createRefund(refund("ch_missing", null)))
+            .isInstanceOf(InvalidRequestException.class)
+            .satisfies(e -> assertThat(((InvalidRequestException) e).getStatusCode()).isEqualTo(404));
+    }
+
+    private static PaymentIntentCreateParams confirmed(String paymentMethod, long amount) {
+        return PaymentIntentCreateParams.builder()
+            .setAmount(amount)
+            .setCurrency("usd")
+            .setPaymentMethod(paymentMethod)
+            .setConfirm(true)
+            .build();
+    }
+
+    private static RefundCreateParams refund(String charge, Long amount) {
+        RefundCreateParams.Builder builder = RefundCreateParams.builder().setCharge(charge);
+        if (amount != null) {
+            builder.setAmount(amount);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.Colten.service;
+
+import com.example.Colten.model.IdempotencyRecord;
+import com.example.Colten.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Idempotency-Key outcomes against the real table: replay, 409 while in progress, 422 for a
+ * different body, release after a failed write, and takeover of a claim whose lease lapsed.
+ * Every test uses a fresh key, so they do not see each other's rows.
+ */
+@SpringBootTest(properties = {
+        "app.kpi.reconcile.enabled=false",
+        "app.backfill.ownership.enabled=false",
+        "app.payments.outbox.enabled=false",
+        "app.stripe.webhooks.poll-interval-ms=3600000"
+})
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "test";
+    private static final Long USER_ID = 1L;
+    private static final Map<String, Object> REQUEST = Map.of("amount", 100);
+
+    @Autowired private IdempotencyService idempotencyService;
+    @Autowired private IdempotencyRecordRepository recordRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Test
+    void repeatReplaysStoredResponseWithoutRunningWriteAgain() {
+        String key = newKey();
+        AtomicInteger writes = new AtomicInteger();
+
+        ResponseEntity<?> first = execute(key, REQUEST, () -> {
+            writes.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("id", 42));
+        });
+        ResponseEntity<?> second = execute(key, REQUEST, () -> {
+            writes.incrementAndGet();
+            return ResponseEntity.ok("second");
+        });
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(first.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(second.getBody()).isEqualTo("{\"id\":42}");
+        assertThat(writes).hasValue(1);
+    }
+
+    @Test
+    void repeatWhileFirstIsRunningGetsConflict() {
+        String key = newKey();
+        AtomicReference<ResponseEntity<?>> nested = new AtomicReference<>();
+
+        ResponseEntity<?> first = execute(key, REQUEST, () -> {
+            // Runs inside the first request's write, so the key is claimed but not completed
+            nested.set(execute(key, REQUEST, () -> ResponseEntity.ok("nested")));
+            return ResponseEntity.ok("first");
+        });
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(nested.get().getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+    }
+
+    @Test
+    void sameKeyWithDifferentBodyIsRejected() {
+        String key = newKey();
+        execute(key, REQUEST, () -> ResponseEntity.ok("first"));
+
+        ResponseEntity<?> other = execute(key, Map.of("amount", 200), () -> ResponseEntity.ok("other"));
+
+        assertThat(other.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @Test
+    void failedResponseReleasesKey() {
+        String key = newKey();
+        execute(key, REQUEST, () -> ResponseEntity.badRequest().body("invalid"));
+
+        assertThat(recordRepository.findById(recordKey(key))).isEmpty();
+        ResponseEntity<?> retry = execute(key, REQUEST, () -> ResponseEntity.ok("retried"));
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(retry.getBody()).isEqualTo("retried");
+    }
+
+    @Test
+    void exceptionReleasesKey() {
+        String key = newKey();
+
+        assertThatThrownBy(() -> execute(key, REQUEST, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(recordRepository.findById(recordKey(key))).isEmpty();
+        assertThat(execute(key, REQUEST, () -> ResponseEntity.ok("retried")).getStatusCode())
+            .isEqualTo(HttpStatus.OK);
+    }
+
+    @Test
+    void abandonedClaimIsTakenOverOnceItsLeaseLapses() {
+        String key = newKey();
+        LocalDateTime crashedAt = LocalDateTime.now().minusMinutes(5).truncatedTo(ChronoUnit.MILLIS);
+        // A claim left behind by an instance that died mid-request
+        separateTransaction().executeWithoutResult(status ->
+            recordRepository.insert(recordKey(key), "abandoned", crashedAt, crashedAt.plusSeconds(60)));
+
+        ResponseEntity<?> retry = execute(key, REQUEST, () -> ResponseEntity.ok("retried"));
+
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.OK);
+        IdempotencyRecord record = recordRepository.findById(recordKey(key)).orElseThrow();
+        assertThat(record.isCompleted()).isTrue();
+        // Completed rows are kept for the full TTL, not the lease
+        assertThat(record.getExpiresAt()).isAfter(LocalDateTime.now().plusHours(1));
+    }
+
+    @Test
+    void writeThatOutlivedItsLeaseIsRolledBack() {
+        String key = newKey();
+        String markerKey = recordKey(newKey());
+
+        ResponseEntity<?> late = execute(key, REQUEST, () -> {
+            // Written in the request's transaction; must not survive
+            LocalDateTime now = LocalDateTime.now();
+            recordRepository.insert(markerKey, "marker", now, now.plusHours(1));
+            // Meanwhile the lease lapsed and another request took the key over
+            separateTransaction().executeWithoutResult(status -> {
+                recordRepository.deleteById(recordKey(key));
+                LocalDateTime takenAt = now.plusSeconds(1).truncatedTo(ChronoUnit.MILLIS);
+                recordRepository.insert(recordKey(key), "other", takenAt, takenAt.plusSeconds(60));
+            });
+            return ResponseEntity.ok("late");
+        });
+
+        assertThat(late.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(recordRepository.findById(markerKey)).isEmpty();
+        // The new claimer's row is left alone
+        IdempotencyRecord record = recordRepository.findById(recordKey(key)).orElseThrow();
+        assertThat(record.getRequestHash()).isEqualTo("other");
+        assertThat(record.isCompleted()).isFalse();
+    }
+
+    private ResponseEntity<?> execute(String key, Object request,
+                                      Supplier<ResponseEntity<?>> write) {
+        return idempotencyService.execute(key, SCOPE, USER_ID, request, write);
+    }
+
+    private TransactionTemplate separateTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+
+    private static String newKey() {
+        return UUID.randomUUID().toString();
+    }
+
+    private static String recordKey(String key) {
+        return SCOPE + ":" + USER_ID + ":" + key;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.Colten.service;
+
+import com.example.Colten.model.Building;
+import com.example.Colten.model.BuildingKpi;
+import com.example.Colten.model.KpiCounters;
+import com.example.Colten.model.Owner;
+import com.example.Colten.model.OwnerKpi;
+import com.example.Colten.model.Unit;
+import com.example.Colten.repository.BuildingKpiRepository;
+import com.example.Colten.repository.OwnerKpiRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * reconcile() against committed data: it runs its own transactions, so the tests do too.
+ * Two owners with one building of two units each; only the rows of the owner whose counters
+ * are tampered with may be rewritten.
+ */
+@SpringBootTest(properties = {
+        "app.kpi.reconcile.enabled=false",
+        "app.backfill.ownership.enabled=false",
+        "app.payments.outbox.enabled=false",
+        "app.stripe.webhooks.poll-interval-ms=3600000"
+})
+class KpiServiceTest {
+
+    @Autowired private KpiService kpiService;
+    @Autowired private OwnerKpiRepository ownerKpiRepository;
+    @Autowired private BuildingKpiRepository buildingKpiRepository;
+    @Autowired private EntityManager entityManager;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private final List<Long> ownerIds = new ArrayList<>();
+    private final List<Long> buildingIds = new ArrayList<>();
+    private TransactionTemplate transaction;
+
+    @BeforeEach
+    void seed() {
+        transaction = new TransactionTemplate(transactionManager);
+        for (int o = 0; o < 2; o++) {
+            transaction.executeWithoutResult(status -> {
+                String suffix = UUID.randomUUID().toString().substring(0, 8);
+                Owner owner = new Owner("Olive", "Owner", "owner-" + suffix + "@kpi.test", "secret", "KPI Homes");
+                entityManager.persist(owner);
+                Building building = new Building("KPI Tower", "1 KPI Street", 2, owner);
+                entityManager.persist(building);
+                for (int u = 0; u < 2; u++) {
+                    Unit unit = new Unit("10" + u, 1, 2, new BigDecimal("1.0"), 750, new BigDecimal("1200.00"), building);
+                    unit.setRoomCode(("K" + suffix + u).toUpperCase());
+                    entityManager.persist(unit);
+                }
+                ownerIds.add(owner.getId());
+                buildingIds.add(building.getId());
+            });
+        }
+        kpiService.reconcile();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        transaction.executeWithoutResult(status -> {
+            buildingIds.forEach(buildingKpiRepository::deleteById);
+            ownerIds.forEach(ownerKpiRepository::deleteById);
+            ownerIds.forEach(id -> entityManager.remove(entityManager.find(Owner.class, id)));
+        });
+    }
+
+    @Test
+    void createsMissingRowsFromSource() {
+        BuildingKpi building = buildingKpiRepository.findById(buildingIds.get(0)).orElseThrow();
+        OwnerKpi owner = ownerKpiRepository.findById(ownerIds.get(0)).orElseThrow();
+
+        assertThat(building.getTotalUnits()).isEqualTo(2);
+        assertThat(owner.getTotalUnits()).isEqualTo(2);
+        assertThat(kpiService.reconcile()).isZero();
+    }
+
+    @Test
+    void correctsOnlyDriftedRows() {
+        LocalDateTime untouchedAt = ownerKpiRepository.findById(ownerIds.get(1)).orElseThrow().getUpdatedAt();
+        transaction.executeWithoutResult(status ->
+            buildingKpiRepository.applyDelta(buildingIds.get(0), KpiCounters.monthKey(LocalDateTime.now()),
+                BigDecimal.ZERO, BigDecimal.ZERO, 0L, 0L, 5L, 0L, 0L, LocalDateTime.now()));
+
+        int drifted = kpiService.reconcile();
+
+        assertThat(drifted).isEqualTo(1);
+        assertThat(buildingKpiRepository.findById(buildingIds.get(0)).orElseThrow().getOpenIssues()).isZero();
+        assertThat(ownerKpiRepository.findById(ownerIds.get(1)).orElseThrow().getUpdatedAt()).isEqualTo(untouchedAt);
+    }
+
+    @Test
+    void removesRowOfDeletedBuilding() {
+        Long orphanId = buildingIds.get(1) + 1_000_000;
+        transaction.executeWithoutResult(status ->
+            buildingKpiRepository.save(new BuildingKpi(orphanId, ownerIds.get(1))));
+
+        assertThat(kpiService.reconcile()).isEqualTo(1);
+        assertThat(buildingKpiRepository.findById(orphanId)).isEmpty();
+    }
+}
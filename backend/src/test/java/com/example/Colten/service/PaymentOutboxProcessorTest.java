@@ -0,0 +1,216 @@
+package com.example.Colten.service;
+
+import com.example.Colten.model.Building;
+import com.example.Colten.model.OutboxStatus;
+import com.example.Colten.model.Owner;
+import com.example.Colten.model.Payment;
+import com.example.Colten.model.PaymentOutbox;
+import com.example.Colten.model.PaymentStatus;
+import com.example.Colten.model.PaymentType;
+import com.example.Colten.model.Tenant;
+import com.example.Colten.model.Unit;
+import com.example.Colten.repository.PaymentOutboxRepository;
+import com.example.Colten.repository.PaymentRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Outbox entries driven through process() against FakeStripeGateway, so no network is
+ * involved. The poller is pushed out of the way and nothing is handed to the worker pool:
+ * entries are written straight to the table rather than through PaymentService.
+ */
+@SpringBootTest(properties = {
+        "app.kpi.reconcile.enabled=false",
+        "app.backfill.ownership.enabled=false",
+        "app.payments.outbox.poll-interval-ms=3600000",
+        "app.stripe.webhooks.poll-interval-ms=3600000",
+        "app.stripe.gateway=fake"
+})
+class PaymentOutboxProcessorTest {
+
+    private static final String CARD = "pm_card_visa";
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    @Autowired private PaymentOutboxProcessor processor;
+    @MockitoSpyBean private PaymentService paymentService;
+    @Autowired private FakeStripeGateway fakeStripe;
+    @Autowired private PaymentOutboxRepository outboxRepository;
+    @Autowired private PaymentRepository paymentRepository;
+    @Autowired private EntityManager entityManager;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private final List<PaymentOutbox> seeded = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        fakeStripe.loseNextResponses(0);
+        for (PaymentOutbox entry : seeded) {
+            outboxRepository.deleteById(entry.getId());
+            paymentRepository.deleteById(entry.getPaymentId());
+        }
+    }
+
+    @Test
+    void completesPayment() {
+        PaymentOutbox entry = seedEntry(CARD);
+
+        processor.process(entry.getId());
+
+        Payment payment = paymentRepository.findById(entry.getPaymentId()).orElseThrow();
+        assertThat(payment.getStatus()).isEqualTo(PaymentStatus.COMPLETED);
+        assertThat(payment.getStripePaymentIntentId()).startsWith("pi_fake_");
+        assertThat(payment.getStripeChargeId()).startsWith("ch_fake_");
+        PaymentOutbox done = outboxRepository.findById(entry.getId()).orElseThrow();
+        assertThat(done.getStatus()).isEqualTo(OutboxStatus.DONE);
+        assertThat(done.getAttempts()).isEqualTo(1);
+        assertThat(done.getLockedUntil()).isNull();
+    }
+
+    @Test
+    void retriesLostResponseWithSameIdempotencyKey() {
+        PaymentOutbox entry = seedEntry(CARD);
+        int intentsBefore = fakeStripe.intentCount();
+        // Stripe creates the intent but the answer never arrives
+        fakeStripe.loseNextResponses(1);
+
+        processor.process(entry.getId());
+
+        PaymentOutbox retrying = outboxRepository.findById(entry.getId()).orElseThrow();
+        assertThat(retrying.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(retrying.getNextAttemptAt()).isAfter(LocalDateTime.now());
+        assertThat(retrying.getLastError()).contains("Response lost");
+        assertThat(paymentRepository.findById(entry.getPaymentId()).orElseThrow().getStatus())
+            .isEqualTo(PaymentStatus.PROCESSING);
+
+        makeDue(retrying);
+        processor.process(entry.getId());
+
+        // The retry got the intent created the first time rather than charging again
+        assertThat(fakeStripe.intentCount()).isEqualTo(intentsBefore + 1);
+        assertThat(paymentRepository.findById(entry.getPaymentId()).orElseThrow().getStatus())
+            .isEqualTo(PaymentStatus.COMPLETED);
+        PaymentOutbox done = outboxRepository.findById(entry.getId()).orElseThrow();
+        assertThat(done.getStatus()).isEqualTo(OutboxStatus.DONE);
+        assertThat(done.getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    void declinedCardFailsPayment() {
+        PaymentOutbox entry = seedEntry(FakeStripeGateway.DECLINED_PAYMENT_METHOD);
+
+        processor.process(entry.getId());
+
+        assertThat(paymentRepository.findById(entry.getPaymentId()).orElseThrow().getStatus())
+            .isEqualTo(PaymentStatus.FAILED);
+        assertThat(outboxRepository.findById(entry.getId()).orElseThrow().getStatus()).isEqualTo(OutboxStatus.DONE);
+    }
+
+    @Test
+    void reclaimsEntryWhoseLeaseExpired() {
+        PaymentOutbox abandoned = seedEntry(CARD);
+        PaymentOutbox running = seedEntry(CARD);
+        // A worker died mid-call on the first; the second is still leased to a live worker
+        lease(abandoned, LocalDateTime.now().minusSeconds(1));
+        lease(running, LocalDateTime.now().plusMinutes(2));
+
+        List<Long> due = outboxRepository.findDueIds(LocalDateTime.now(), PageRequest.of(0, 100));
+        assertThat(due).contains(abandoned.getId()).doesNotContain(running.getId());
+
+        processor.process(abandoned.getId());
+        processor.process(running.getId());
+
+        PaymentOutbox reclaimed = outboxRepository.findById(abandoned.getId()).orElseThrow();
+        assertThat(reclaimed.getStatus()).isEqualTo(OutboxStatus.DONE);
+        assertThat(reclaimed.getAttempts()).isEqualTo(2);
+        assertThat(paymentRepository.findById(abandoned.getPaymentId()).orElseThrow().getStatus())
+            .isEqualTo(PaymentStatus.COMPLETED);
+        assertThat(outboxRepository.findById(running.getId()).orElseThrow().getStatus())
+            .isEqualTo(OutboxStatus.IN_FLIGHT);
+        assertThat(paymentRepository.findById(running.getPaymentId()).orElseThrow().getStatus())
+            .isEqualTo(PaymentStatus.PROCESSING);
+    }
+
+    @Test
+    void staleWorkerDoesNotOverwriteEntryReclaimedFromIt() {
+        PaymentOutbox entry = seedEntry(CARD);
+        LocalDateTime otherLease = LocalDateTime.now().plusMinutes(5).withNano(0);
+        // While this worker is on its Stripe call, its lease lapses and another worker claims the entry
+        TransactionTemplate otherWorker = new TransactionTemplate(transactionManager);
+        otherWorker.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        doAnswer(invocation -> {
+            otherWorker.executeWithoutResult(status -> {
+                PaymentOutbox current = outboxRepository.findById(entry.getId()).orElseThrow();
+                current.setAttempts(2);
+                current.setLockedUntil(otherLease);
+            });
+            return invocation.callRealMethod();
+        }).when(paymentService).buildIntentParams(eq(entry.getPaymentId()), any());
+
+        processor.process(entry.getId());
+
+        PaymentOutbox reclaimed = outboxRepository.findById(entry.getId()).orElseThrow();
+        assertThat(reclaimed.getStatus()).isEqualTo(OutboxStatus.IN_FLIGHT);
+        assertThat(reclaimed.getAttempts()).isEqualTo(2);
+        assertThat(reclaimed.getLockedUntil()).isEqualTo(otherLease);
+        // The stale worker's result was rolled back with it; the new owner records it
+        assertThat(paymentRepository.findById(entry.getPaymentId()).orElseThrow().getStatus())
+            .isEqualTo(PaymentStatus.PROCESSING);
+    }
+
+    private PaymentOutbox seedEntry(String paymentMethod) {
+        int n = SEQUENCE.incrementAndGet();
+        PaymentOutbox entry = new TransactionTemplate(transactionManager).execute(status -> {
+            Owner owner = new Owner("Olive", "Owner", "owner" + n + "@outbox.test", "secret", "Outbox Homes");
+            entityManager.persist(owner);
+            Building building = new Building("Outbox Tower", "1 Outbox Street", 5, owner);
+            entityManager.persist(building);
+            Unit unit = new Unit("101", 1, 2, new BigDecimal("1.0"), 750, new BigDecimal("1200.00"), building);
+            unit.setRoomCode("OUTBOX" + n);
+            entityManager.persist(unit);
+            Tenant tenant = new Tenant("Tia", "Tenant", "tenant" + n + "@outbox.test", "secret");
+            tenant.setUnit(unit);
+            entityManager.persist(tenant);
+
+            Payment payment = new Payment(new BigDecimal("1200.00"), PaymentType.RENT, tenant, unit);
+            payment.setStatus(PaymentStatus.PROCESSING);
+            payment.setReferenceNumber("OUTBOX-" + n);
+            entityManager.persist(payment);
+            PaymentOutbox outbox = new PaymentOutbox(payment.getId(), paymentMethod);
+            entityManager.persist(outbox);
+            return outbox;
+        });
+        seeded.add(entry);
+        return entry;
+    }
+
+    private void makeDue(PaymentOutbox entry) {
+        entry.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxRepository.save(entry);
+    }
+
+    private void lease(PaymentOutbox entry, LocalDateTime lockedUntil) {
+        entry.setStatus(OutboxStatus.IN_FLIGHT);
+        entry.setAttempts(1);
+        entry.setLockedUntil(lockedUntil);
+        outboxRepository.save(entry);
+    }
+}
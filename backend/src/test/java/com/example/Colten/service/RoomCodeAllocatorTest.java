@@ -0,0 +1,159 @@
+package com.example.Colten.service;
+
+import com.example.Colten.repository.UnitRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The allocator on its own, with the units table and the transaction manager stubbed: the
+ * retry in withUniqueCode and its bound, saturation of the filter and the background refill.
+ * Conflicts are raised the way H2 reports a duplicate on units.room_code.
+ */
+class RoomCodeAllocatorTest {
+
+    private static final int MAX_ATTEMPTS = 5;
+
+    private final UnitRepository unitRepository = mock(UnitRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final List<RoomCodeAllocator> allocators = new ArrayList<>();
+
+    @AfterEach
+    void shutDown() {
+        allocators.forEach(RoomCodeAllocator::shutdown);
+    }
+
+    @Test
+    void allocatesDistinctWellFormedCodes() {
+        RoomCodeAllocator allocator = allocator(1_000_000, 0.001, 1);
+
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            codes.add(allocator.allocate());
+        }
+
+        assertThat(codes).hasSize(1_000).allMatch(RoomCodeAllocator::isWellFormed);
+    }
+
+    @Test
+    void retriesRoomCodeConflictWithFreshCode() {
+        RoomCodeAllocator allocator = allocator(1_000_000, 0.001, 1);
+        List<String> tried = new ArrayList<>();
+
+        String written = allocator.withUniqueCode(code -> {
+            tried.add(code);
+            if (tried.size() == 1) {
+                // Issued by another instance, so this one's filter had not seen it
+                throw roomCodeConflict(code);
+            }
+            return code;
+        });
+
+        assertThat(tried).hasSize(2).doesNotHaveDuplicates();
+        assertThat(written).isEqualTo(tried.get(1));
+        // The failed attempt's transaction was rolled back, the retry's committed
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        RoomCodeAllocator allocator = allocator(1_000_000, 0.001, 1);
+        List<String> tried = new ArrayList<>();
+
+        assertThatThrownBy(() -> allocator.withUniqueCode(code -> {
+            tried.add(code);
+            throw roomCodeConflict(code);
+        })).isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(tried).hasSize(MAX_ATTEMPTS);
+        verify(transactionManager, times(MAX_ATTEMPTS)).rollback(any());
+    }
+
+    @Test
+    void otherConstraintViolationIsNotRetried() {
+        RoomCodeAllocator allocator = allocator(1_000_000, 0.001, 1);
+        List<String> tried = new ArrayList<>();
+
+        assertThatThrownBy(() -> allocator.withUniqueCode(code -> {
+            tried.add(code);
+            throw new DataIntegrityViolationException("could not execute statement",
+                new SQLException("NULL not allowed for column \"BUILDING_ID\""));
+        })).isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(tried).hasSize(1);
+    }
+
+    @Test
+    void saturatedFilterFailsInsteadOfSpinning() {
+        // A single word of bits: full after a handful of codes
+        RoomCodeAllocator allocator = allocator(1, 0.5, 1);
+
+        assertThatThrownBy(() -> {
+            for (int i = 0; i < 1_000; i++) {
+                allocator.allocate();
+            }
+        }).isInstanceOf(IllegalStateException.class).hasMessageContaining("saturated");
+    }
+
+    @Test
+    void refillsPoolInBackground() throws InterruptedException {
+        RoomCodeAllocator allocator = allocator(1_000_000, 0.001, 8);
+        allocator.warmUp();
+        awaitPoolSize(allocator, 8);
+
+        // Draining below half the pool schedules a refill
+        for (int i = 0; i < 5; i++) {
+            allocator.allocate();
+        }
+
+        awaitPoolSize(allocator, 8);
+    }
+
+    private RoomCodeAllocator allocator(long expectedCodes, double falsePositiveRate, int poolSize) {
+        when(unitRepository.streamRoomCodes()).thenAnswer(invocation -> Stream.of("AAAAAAAA", "BBBBBBBB"));
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+
+        RoomCodeAllocator allocator = new RoomCodeAllocator();
+        ReflectionTestUtils.setField(allocator, "unitRepository", unitRepository);
+        ReflectionTestUtils.setField(allocator, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(allocator, "expectedCodes", expectedCodes);
+        ReflectionTestUtils.setField(allocator, "falsePositiveRate", falsePositiveRate);
+        ReflectionTestUtils.setField(allocator, "poolSize", poolSize);
+        allocators.add(allocator);
+        return allocator;
+    }
+
+    private static void awaitPoolSize(RoomCodeAllocator allocator, int size) throws InterruptedException {
+        Queue<?> pool = (Queue<?>) ReflectionTestUtils.getField(allocator, "pool");
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (pool.size() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(pool).hasSize(size);
+    }
+
+    private static DataIntegrityViolationException roomCodeConflict(String code) {
+        return new DataIntegrityViolationException("could not execute statement",
+            new SQLException("Unique index or primary key violation: \"PUBLIC.UK_ROOM_CODE_INDEX_4 ON " +
+                "PUBLIC.UNITS(ROOM_CODE NULLS FIRST) VALUES ( /* 1 */ '" + code + "' )\""));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.Colten.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Membership guarantees of the filter: no false negatives, a false positive rate near the
+ * configured one while within capacity, and saturation once far past it.
+ */
+class BloomFilterTest {
+
+    @Test
+    void neverForgetsAnAddedValue() {
+        BloomFilter filter = new BloomFilter(10_000, 0.001);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("CODE" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("CODE" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredRateWithinCapacity() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("ISSUED" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("UNSEEN" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // 1% expected; allow for variance but not for a broken hash
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    void saturatesWhenOverfilled() {
+        BloomFilter filter = new BloomFilter(10, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("ISSUED" + i);
+        }
+
+        assertThat(filter.mightContain("NEVER-ADDED")).isTrue();
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(100, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(100, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
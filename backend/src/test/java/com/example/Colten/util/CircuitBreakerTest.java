@@ -0,0 +1,129 @@
+package com.example.Colten.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * State transitions of the breaker on a hand-driven clock: window of 4, opens at 50% once
+ * 4 calls are recorded, stays open 10 s and closes after 2 successful trials.
+ */
+class CircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofSeconds(10);
+
+    private final AtomicLong clock = new AtomicLong();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new CircuitBreaker(4, 4, 0.5, OPEN_DURATION, 2, clock::get);
+    }
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        fail(3);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isNotNull();
+    }
+
+    @Test
+    void goesClosedOpenHalfOpenClosed() {
+        succeed(2);
+        fail(2);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isNull();
+
+        elapse(OPEN_DURATION);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        CircuitBreaker.Permit first = breaker.tryAcquire();
+        CircuitBreaker.Permit second = breaker.tryAcquire();
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        // Only halfOpenCalls trials at a time
+        assertThat(breaker.tryAcquire()).isNull();
+
+        breaker.onSuccess(first);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onSuccess(second);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        // Closed with a clean window
+        assertThat(breaker.failureRate()).isZero();
+    }
+
+    @Test
+    void failedTrialReopens() {
+        fail(4);
+        elapse(OPEN_DURATION);
+
+        CircuitBreaker.Permit trial = breaker.tryAcquire();
+        breaker.onFailure(trial);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isNull();
+    }
+
+    @Test
+    void releasedTrialFreesItsSlot() {
+        fail(4);
+        elapse(OPEN_DURATION);
+
+        CircuitBreaker.Permit first = breaker.tryAcquire();
+        breaker.tryAcquire();
+        breaker.release(first);
+
+        assertThat(breaker.tryAcquire()).isNotNull();
+    }
+
+    @Test
+    void lateSuccessFromClosedCallIsNotATrial() {
+        CircuitBreaker.Permit slow = breaker.tryAcquire();
+        fail(4);
+        elapse(OPEN_DURATION);
+
+        CircuitBreaker.Permit trial = breaker.tryAcquire();
+        // The slow call granted while closed finishes now; it must not count towards closing
+        breaker.onSuccess(slow);
+        breaker.onSuccess(trial);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onSuccess(breaker.tryAcquire());
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void lateFailureFromEarlierEpochDoesNotReopen() {
+        CircuitBreaker.Permit slow = breaker.tryAcquire();
+        fail(4);
+        elapse(OPEN_DURATION);
+        breaker.onSuccess(breaker.tryAcquire());
+        breaker.onSuccess(breaker.tryAcquire());
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        breaker.onFailure(slow);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.failureRate()).isZero();
+    }
+
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            breaker.onSuccess(breaker.tryAcquire());
+        }
+    }
+
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            breaker.onFailure(breaker.tryAcquire());
+        }
+    }
+
+    private void elapse(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.Colten.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Eviction order and expiry of the cache on a hand-driven clock: room for 2 entries,
+ * each living 10 s.
+ */
+class ExpiringCacheTest {
+
+    private final ManualClock clock = new ManualClock();
+    private final ExpiringCache<String, String> cache = new ExpiringCache<>(Duration.ofSeconds(10), 2, clock);
+
+    @Test
+    void evictsLeastRecentlyUsedWhenFull() {
+        cache.put("a", "A");
+        cache.put("b", "B");
+        // Reading a makes b the coldest entry
+        cache.getIfPresent("a");
+
+        cache.put("c", "C");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getIfPresent("a")).isEqualTo("A");
+        assertThat(cache.getIfPresent("b")).isNull();
+        assertThat(cache.getIfPresent("c")).isEqualTo("C");
+    }
+
+    @Test
+    void expiresAfterTtlEvenWhenRead() {
+        cache.put("a", "A");
+        clock.advance(Duration.ofSeconds(9));
+        assertThat(cache.getIfPresent("a")).isEqualTo("A");
+
+        clock.advance(Duration.ofSeconds(1));
+
+        assertThat(cache.getIfPresent("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void loaderResultIsCachedButNullIsNot() {
+        assertThat(cache.get("a", key -> null)).isNull();
+        assertThat(cache.size()).isZero();
+
+        assertThat(cache.get("a", key -> "A")).isEqualTo("A");
+        assertThat(cache.get("a", key -> "other")).isEqualTo("A");
+    }
+
+    @Test
+    void invalidateIfRemovesMatchingValues() {
+        cache.put("a", "A");
+        cache.put("b", "B");
+
+        cache.invalidateIf("A"::equals);
+
+        assertThat(cache.getIfPresent("a")).isNull();
+        assertThat(cache.getIfPresent("b")).isEqualTo("B");
+    }
+
+    private static final class ManualClock extends Clock {
+        private long millis;
+
+        void advance(Duration duration) {
+            millis += duration.toMillis();
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.Colten.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Buckets of 2 tokens that take an hour to refill, so nothing refills during a test, with
+ * room for 2 clients.
+ */
+class TokenBucketLimiterTest {
+
+    private final TokenBucketLimiter limiter = new TokenBucketLimiter(2, Duration.ofHours(1), 2);
+
+    @Test
+    void allowsBurstThenThrottles() {
+        assertThat(limiter.tryAcquire("a")).isTrue();
+        assertThat(limiter.tryAcquire("a")).isTrue();
+        assertThat(limiter.tryAcquire("a")).isFalse();
+        // Other clients have their own bucket
+        assertThat(limiter.tryAcquire("b")).isTrue();
+    }
+
+    @Test
+    void throttledClientKeepsItsBucketWhenNewClientsArrive() {
+        drain("a");
+        limiter.tryAcquire("b");
+        // Still hammering; a is now the most recently seen client
+        assertThat(limiter.tryAcquire("a")).isFalse();
+
+        // A third client pushes out b, seen longest ago, not a
+        limiter.tryAcquire("c");
+
+        assertThat(limiter.tryAcquire("a")).isFalse();
+    }
+
+    @Test
+    void evictedIdleClientStartsWithFullBucket() {
+        drain("a");
+        limiter.tryAcquire("b");
+        limiter.tryAcquire("c");
+
+        assertThat(limiter.tryAcquire("a")).isTrue();
+    }
+
+    private void drain(String key) {
+        while (limiter.tryAcquire(key)) {
+            // take every token
+        }
+    }
+}
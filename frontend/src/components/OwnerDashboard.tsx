@@ -3,12 +3,10 @@ import { Link } from 'react-router-dom';
 import { useAuth } from '../context/AuthContext';
 import { dashboardService, type OwnerDashboardData } from '../services/dashboard';
 import { buildingService } from '../services/building';
-import { unitService } from '../services/unit';
-import { tenantService } from '../services/tenant';
 import { issueService } from '../services/issue';
 import { paymentService } from '../services/payment';
 import { MESSAGES } from '../utils/constants';
-import type { Building, Unit, Tenant, Issue, Payment } from '../types/api';
+import type { Building } from '../types/api';
 import './Dashboard.css';
 
 // Using the OwnerDashboardData interface from the dashboard service
@@ -28,75 +26,33 @@ const OwnerDashboard: React.FC = () => {
     setLoading(true);
     setError('');
     try {
-      console.log('Loading owner dashboard data from multiple API endpoints...');
+      console.log('Loading owner dashboard data...');
       
-      // Load all data from individual endpoints in parallel
+      // Counts come from the owner KPI counters; only the first page of issues and
+      // payments is fetched, which is enough for the recent lists
       const [
         ownerBuildings,
-        ownerUnits,
-        ownerTenants,
-        ownerIssues,
-        ownerPayments
+        kpis,
+        issuesPage,
+        paymentsPage
       ] = await Promise.all([
         buildingService.getBuildings().catch(() => []),
-        unitService.getUnits().catch(() => []),
-        tenantService.getTenants().catch(() => []),
-        issueService.getOwnerIssues().catch(() => []),
-        paymentService.getPayments().catch(() => [])
+        dashboardService.getOwnerDashboard(),
+        issueService.getOwnerIssuesPage().catch(() => null),
+        paymentService.getOwnerPaymentsPage().catch(() => null)
       ]);
       
-      console.log('Loaded data:', {
-        buildings: ownerBuildings.length,
-        units: ownerUnits.length,
-        tenants: ownerTenants.length,
-        issues: ownerIssues.length,
-        payments: ownerPayments.length
-      });
-      
-      // Calculate all dashboard metrics from real data
-      const totalBuildings = ownerBuildings.length;
-      const totalUnits = ownerUnits.length;
-      const occupiedUnits = ownerUnits.filter(unit => !unit.isAvailable).length;
-      const availableUnits = ownerUnits.filter(unit => unit.isAvailable).length;
-      const totalTenants = ownerTenants.length;
-      const openIssues = ownerIssues.filter(issue => 
-        issue.status === 'OPEN' || issue.status === 'IN_PROGRESS'
-      ).length;
-      
-      // Calculate revenue from completed payments
-      const completedPayments = ownerPayments.filter(payment => payment.status === 'COMPLETED');
-      const totalRevenue = completedPayments.reduce((sum, payment) => sum + payment.amount, 0);
-      
-      // Calculate monthly revenue (current month)
-      const currentMonth = new Date().getMonth();
-      const currentYear = new Date().getFullYear();
-      const monthlyRevenue = completedPayments
-        .filter(payment => {
-          const paymentDate = new Date(payment.paymentDate);
-          return paymentDate.getMonth() === currentMonth && paymentDate.getFullYear() === currentYear;
-        })
-        .reduce((sum, payment) => sum + payment.amount, 0);
-      
-      // Get recent issues and payments (last 5 of each)
-      const recentIssues = ownerIssues
-        .sort((a, b) => new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime())
-        .slice(0, 5);
-      
-      const recentPayments = ownerPayments
-        .sort((a, b) => new Date(b.paymentDate || b.dueDate).getTime() - new Date(a.paymentDate || a.dueDate).getTime())
-        .slice(0, 5);
-      
       const calculatedDashboardData: OwnerDashboardData = {
-        totalBuildings,
-        totalUnits,
-        occupiedUnits,
-        availableUnits,
-        totalTenants,
-        openIssues,
-        totalRevenue,
-        monthlyRevenue,
-        recentIssues,
-        recentPayments
+        totalBuildings: ownerBuildings.length,
+        totalUnits: kpis.totalUnits,
+        occupiedUnits: kpis.occupiedUnits,
+        availableUnits: kpis.totalUnits - kpis.occupiedUnits,
+        openIssues: kpis.openIssues,
+        totalRevenue: kpis.totalRevenue,
+        monthlyRevenue: kpis.monthlyRevenue,
+        // Both pages are already newest first
+        recentIssues: issuesPage ? issuesPage.items.slice(0, 5) : [],
+        recentPayments: paymentsPage ? paymentsPage.items.slice(0, 5) : []
       };
       
       console.log('Calculated dashboard data:', calculatedDashboardData);
@@ -114,7 +70,6 @@ const OwnerDashboard: React.FC = () => {
         totalUnits: 0,
         occupiedUnits: 0,
         availableUnits: 0,
-        totalTenants: 0,
         openIssues: 0,
         totalRevenue: 0,
         monthlyRevenue: 0,
@@ -127,6 +82,10 @@ const OwnerDashboard: React.FC = () => {
     }
   };
 
+  const occupancyRate = (data: OwnerDashboardData) => {
+    return data.totalUnits > 0 ? (data.occupiedUnits / data.totalUnits) * 100 : 0;
+  };
+
   const formatCurrency = (amount: number) => {
     return new Intl.NumberFormat('en-US', {
       style: 'currency',
@@ -193,7 +152,7 @@ const OwnerDashboard: React.FC = () => {
             <div className="hero-stat">
               <div className="hero-stat-icon">📈</div>
               <div className="hero-stat-content">
-                <span className="hero-stat-number">{loading ? '...' : dashboardData ? `${((dashboardData.occupiedUnits / dashboardData.totalUnits) * 100).toFixed(0)}%` : '0%'}</span>
+                <span className="hero-stat-number">{loading ? '...' : dashboardData ? `${occupancyRate(dashboardData).toFixed(0)}%` : '0%'}</span>
                 <span className="hero-stat-label">Occupied</span>
               </div>
             </div>
@@ -266,7 +225,7 @@ const OwnerDashboard: React.FC = () => {
             </div>
             <div className="dashboard-stat-card purple">
               <div className="dashboard-stat-value">
-                {dashboardData ? ((dashboardData.occupiedUnits / dashboardData.totalUnits) * 100).toFixed(1) : '0.0'}%
+                {dashboardData ? occupancyRate(dashboardData).toFixed(1) : '0.0'}%
               </div>
               <div className="dashboard-stat-label">Occupancy Rate</div>
             </div>
@@ -35,8 +35,7 @@ export const BuildingDetail: React.FC = () => {
       
       // Load units for this building
       try {
-        const unitsData = await unitService.getUnits();
-        const buildingUnits = unitsData.filter(unit => unit.building.id === buildingId);
+        const buildingUnits = await unitService.getUnitsByBuilding(buildingId);
         setUnits(buildingUnits);
         
         // Calculate building-specific stats from units
@@ -34,7 +34,7 @@ export const BuildingList: React.FC = () => {
       try {
         const dashboardData = await dashboardService.getOwnerDashboard();
         setStats({
-          totalBuildings: dashboardData.totalBuildings,
+          totalBuildings: buildingsData.length,
           totalUnits: dashboardData.totalUnits,
           totalRevenue: dashboardData.totalRevenue,
           occupancyRate: dashboardData.totalUnits > 0 ? (dashboardData.occupiedUnits / dashboardData.totalUnits) * 100 : 0
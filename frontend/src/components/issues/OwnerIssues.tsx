@@ -10,6 +10,8 @@ const OwnerIssues: React.FC = () => {
   const [issues, setIssues] = useState<Issue[]>([]);
   const [filteredIssues, setFilteredIssues] = useState<Issue[]>([]);
   const [loading, setLoading] = useState(true);
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [selectedStatus, setSelectedStatus] = useState<string>('ALL');
   const [selectedPriority, setSelectedPriority] = useState<string>('ALL');
   const [selectedBuilding, setSelectedBuilding] = useState<string>('ALL');
@@ -29,9 +31,10 @@ const OwnerIssues: React.FC = () => {
     setLoading(true);
     try {
       console.log('Loading owner issues from API...');
-      const ownerIssues = await issueService.getOwnerIssues();
-      console.log('Loaded issues:', ownerIssues);
-      setIssues(ownerIssues);
+      const page = await issueService.getOwnerIssuesPage();
+      console.log('Loaded issues:', page.items);
+      setIssues(page.items);
+      setNextCursor(page.hasMore ? page.nextCursor : null);
     } catch (err) {
       console.error('Failed to load issues from API:', err);
       setError('Failed to load issues from server');
@@ -43,6 +46,24 @@ const OwnerIssues: React.FC = () => {
     }
   };
 
+  // Append the next page; filters and counts cover the issues loaded so far
+  const loadMoreIssues = async () => {
+    if (!nextCursor) {
+      return;
+    }
+    setLoadingMore(true);
+    try {
+      const page = await issueService.getOwnerIssuesPage(nextCursor);
+      setIssues(prev => [...prev, ...page.items]);
+      setNextCursor(page.hasMore ? page.nextCursor : null);
+    } catch (err) {
+      console.error('Failed to load more issues from API:', err);
+      setError('Failed to load more issues from server');
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const filterIssues = () => {
     let filtered = [...issues];
 
@@ -200,7 +221,7 @@ const OwnerIssues: React.FC = () => {
           padding: '20px',
           textAlign: 'center'
         }}>
-          <div style={{ fontSize: '32px', fontWeight: 'bold', color: '#3b82f6' }}>{counts.total}</div>
+          <div style={{ fontSize: '32px', fontWeight: 'bold', color: '#3b82f6' }}>{counts.total}{nextCursor ? '+' : ''}</div>
           <div style={{ color: '#6b7280' }}>Total Issues</div>
         </div>
         <div style={{
@@ -430,6 +451,27 @@ const OwnerIssues: React.FC = () => {
             ))}
           </div>
         )}
+
+        {nextCursor && (
+          <div style={{ textAlign: 'center', marginTop: '20px' }}>
+            <button
+              onClick={loadMoreIssues}
+              disabled={loadingMore}
+              style={{
+                backgroundColor: '#3b82f6',
+                color: 'white',
+                border: 'none',
+                borderRadius: '6px',
+                padding: '10px 20px',
+                fontSize: '14px',
+                cursor: loadingMore ? 'not-allowed' : 'pointer',
+                opacity: loadingMore ? 0.5 : 1
+              }}
+            >
+              {loadingMore ? 'Loading...' : 'Load more issues'}
+            </button>
+          </div>
+        )}
       </div>
     </div>
   );
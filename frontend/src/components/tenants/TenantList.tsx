@@ -8,7 +8,9 @@ import type { Tenant } from '../../types/api';
 
 export const TenantList: React.FC = () => {
   const navigate = useNavigate();
-  const { tenants, stats, error, isLoading, loadTenants, clearError } = useTenants();
+  const {
+    tenants, stats, error, isLoading, isLoadingMore, hasMore, loadTenants, loadMoreTenants, clearError,
+  } = useTenants();
   const { buildings, loadBuildings } = useBuildings();
   const [selectedBuildingId, setSelectedBuildingId] = useState<number | null>(null);
   const [searchTerm, setSearchTerm] = useState('');
@@ -206,6 +208,18 @@ export const TenantList: React.FC = () => {
           })}
         </div>
       )}
+
+      {hasMore && (
+        <div className="load-more">
+          <button
+            onClick={loadMoreTenants}
+            disabled={isLoadingMore}
+            className="btn btn-secondary"
+          >
+            {isLoadingMore ? 'Loading...' : 'Load more tenants'}
+          </button>
+        </div>
+      )}
     </div>
   );
 };
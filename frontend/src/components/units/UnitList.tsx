@@ -13,21 +13,24 @@ export const UnitList: React.FC = () => {
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState('');
   const [filters, setFilters] = useState<UnitFilters>({});
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [loadingMore, setLoadingMore] = useState(false);
 
-  // Load units and buildings
+  // Load the first page of units and the buildings; filters apply to the units loaded so far
   useEffect(() => {
     loadData();
-  }, [filters]);
+  }, []);
 
   const loadData = async () => {
     setLoading(true);
     setError('');
     try {
-      const [unitsData, buildingsData] = await Promise.all([
-        unitService.getUnits(filters),
+      const [unitsPage, buildingsData] = await Promise.all([
+        unitService.getUnitsPage(),
         buildingService.getBuildings()
       ]);
-      setUnits(unitsData);
+      setUnits(unitsPage.items);
+      setNextCursor(unitsPage.hasMore ? unitsPage.nextCursor : null);
       setBuildings(buildingsData);
     } catch (err) {
       console.error('Failed to load data:', err);
@@ -37,6 +40,25 @@ export const UnitList: React.FC = () => {
     }
   };
 
+  const loadMoreUnits = async () => {
+    if (!nextCursor) {
+      return;
+    }
+    setLoadingMore(true);
+    try {
+      const unitsPage = await unitService.getUnitsPage(nextCursor);
+      setUnits(prev => [...prev, ...unitsPage.items]);
+      setNextCursor(unitsPage.hasMore ? unitsPage.nextCursor : null);
+    } catch (err) {
+      console.error('Failed to load more units:', err);
+      setError(err instanceof Error ? err.message : MESSAGES.ERROR.SERVER_ERROR);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
+  const visibleUnits = unitService.filterUnits(units, filters);
+
   const handleDeleteUnit = async (unitId: number) => {
     if (!confirm('Are you sure you want to delete this unit? This action cannot be undone.')) {
       return;
@@ -240,7 +262,7 @@ export const UnitList: React.FC = () => {
         )}
 
         {/* Units Grid */}
-        {units.length === 0 ? (
+        {visibleUnits.length === 0 ? (
           <div className="units-empty">
             <div className="empty-icon">🏠</div>
             <h3 className="empty-title">No units found</h3>
@@ -253,7 +275,7 @@ export const UnitList: React.FC = () => {
           </div>
         ) : (
           <div className="units-grid">
-            {units.map(unit => (
+            {visibleUnits.map(unit => (
               <div key={unit.id} className="unit-card">
                 {/* Unit Header */}
                 <div className="unit-card-header">
@@ -361,6 +383,18 @@ export const UnitList: React.FC = () => {
           </div>
         )}
 
+        {nextCursor && (
+          <div className="units-load-more">
+            <button
+              onClick={loadMoreUnits}
+              disabled={loadingMore}
+              className="unit-btn unit-btn-secondary"
+            >
+              {loadingMore ? MESSAGES.LOADING.LOADING_UNITS : 'Load more units'}
+            </button>
+          </div>
+        )}
+
         {/* Loading overlay */}
         {loading && units.length > 0 && (
           <div style={{
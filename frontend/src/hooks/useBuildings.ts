@@ -24,7 +24,7 @@ export const useBuildings = () => {
         try {
           const dashboardData = await dashboardService.getOwnerDashboard();
           const stats = {
-            totalBuildings: dashboardData.totalBuildings,
+            totalBuildings: buildingsData.length,
             totalUnits: dashboardData.totalUnits,
             totalRevenue: dashboardData.totalRevenue,
             occupancyRate: dashboardData.totalUnits > 0 ? (dashboardData.occupiedUnits / dashboardData.totalUnits) * 100 : 0,
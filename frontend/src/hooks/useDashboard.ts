@@ -1,10 +1,10 @@
 import { useState, useCallback } from 'react';
-import { dashboardService } from '../services/dashboard';
+import { dashboardService, type OwnerKpis } from '../services/dashboard';
 import { useApiError } from './useApiError';
-import type { OwnerDashboard, TenantDashboard } from '../types/api';
+import type { TenantDashboard } from '../types/api';
 
 export const useDashboard = () => {
-  const [ownerDashboard, setOwnerDashboard] = useState<OwnerDashboard | null>(null);
+  const [ownerDashboard, setOwnerDashboard] = useState<OwnerKpis | null>(null);
   const [tenantDashboard, setTenantDashboard] = useState<TenantDashboard | null>(null);
   const [buildingDashboard, setBuildingDashboard] = useState<any>(null);
   
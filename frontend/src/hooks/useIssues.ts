@@ -1,47 +1,83 @@
-import { useState, useEffect, useCallback } from 'react';
+import { useState, useEffect, useCallback, useMemo } from 'react';
 import { issueService } from '../services/issue';
 import { useApiError } from './useApiError';
 import type { Issue, IssueStatus } from '../types/api';
 
 export const useIssues = () => {
   const [issues, setIssues] = useState<Issue[]>([]);
-  const [stats, setStats] = useState({
-    total: 0,
-    open: 0,
-    inProgress: 0,
-    resolved: 0,
-    urgent: 0,
-    emergency: 0,
-  });
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+
+  // Counted over the issues loaded so far, so they grow as more pages come in
+  const stats = useMemo(() => ({
+    total: issues.length,
+    open: issues.filter(issue => issue.status === 'OPEN').length,
+    inProgress: issues.filter(issue => issue.status === 'IN_PROGRESS').length,
+    resolved: issues.filter(issue => issue.status === 'RESOLVED').length,
+    urgent: issues.filter(issue =>
+      issue.priority === 'URGENT' || issue.priority === 'EMERGENCY'
+    ).length,
+    emergency: issues.filter(issue => issue.priority === 'EMERGENCY').length,
+  }), [issues]);
   
   const { error, isLoading, handleApiCall, clearError } = useApiError();
+  // Separate state so loading the next page does not put the whole list back into its loading state
+  const {
+    error: loadMoreError,
+    isLoading: isLoadingMore,
+    handleApiCall: handleLoadMoreCall,
+    clearError: clearLoadMoreError,
+  } = useApiError();
 
   const loadIssues = useCallback(async (type: 'my' | 'owner' | 'building' = 'owner', buildingId?: number) => {
     const result = await handleApiCall(
       async () => {
         let issuesData: Issue[];
+        let cursor: string | null = null;
         
         if (type === 'my') {
           issuesData = await issueService.getMyIssues();
         } else if (type === 'building' && buildingId) {
-          issuesData = await issueService.getIssuesByBuilding(buildingId);
+          issuesData = await issueService.getBuildingIssues(buildingId);
         } else {
-          issuesData = await issueService.getOwnerIssues();
+          // First page only; the rest is fetched on demand through loadMoreIssues
+          const page = await issueService.getOwnerIssuesPage();
+          issuesData = page.items;
+          cursor = page.hasMore ? page.nextCursor : null;
         }
 
-        const statsData = await issueService.getIssueStats();
-        return { issues: issuesData, stats: statsData };
+        return { issues: issuesData, cursor };
       },
       {
         onSuccess: (data) => {
           setIssues(data.issues);
-          setStats(data.stats);
+          setNextCursor(data.cursor);
         }
       }
     );
     return result;
   }, [handleApiCall]);
 
+  const loadMoreIssues = useCallback(async () => {
+    if (!nextCursor) {
+      return null;
+    }
+    const result = await handleLoadMoreCall(
+      () => issueService.getOwnerIssuesPage(nextCursor),
+      {
+        onSuccess: (page) => {
+          setIssues(prev => [...prev, ...page.items]);
+          setNextCursor(page.hasMore ? page.nextCursor : null);
+        }
+      }
+    );
+    return result;
+  }, [handleLoadMoreCall, nextCursor]);
+
+  const clearErrors = useCallback(() => {
+    clearError();
+    clearLoadMoreError();
+  }, [clearError, clearLoadMoreError]);
+
   const createIssue = useCallback(async (issueData: any) => {
     const result = await handleApiCall(
       () => issueService.createIssue(issueData),
@@ -106,14 +142,17 @@ export const useIssues = () => {
   return {
     issues,
     stats,
-    error,
+    error: error || loadMoreError,
     isLoading,
+    isLoadingMore,
+    hasMore: nextCursor !== null,
     loadIssues,
+    loadMoreIssues,
     createIssue,
     updateIssueStatus,
     assignIssue,
     getUrgentIssues,
     getIssuesByStatus,
-    clearError,
+    clearError: clearErrors,
   };
 };
@@ -1,43 +1,82 @@
-import { useState, useEffect, useCallback } from 'react';
+import { useState, useEffect, useCallback, useMemo } from 'react';
 import { tenantService } from '../services/tenant';
 import { useApiError } from './useApiError';
 import type { Tenant } from '../types/api';
 
 export const useTenants = () => {
   const [tenants, setTenants] = useState<Tenant[]>([]);
-  const [stats, setStats] = useState({
-    total: 0,
-    active: 0,
-    inactive: 0,
-    recentMoveIns: 0,
-  });
-  
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+
+  // Counted over the tenants loaded so far, so they grow as more pages come in
+  const stats = useMemo(() => {
+    const thirtyDaysAgo = new Date(Date.now() - (30 * 24 * 60 * 60 * 1000));
+    return {
+      total: tenants.length,
+      active: tenants.filter(tenant => !tenant.moveOutDate).length,
+      inactive: tenants.filter(tenant => !!tenant.moveOutDate).length,
+      recentMoveIns: tenants.filter(tenant =>
+        tenant.moveInDate && new Date(tenant.moveInDate) >= thirtyDaysAgo
+      ).length,
+    };
+  }, [tenants]);
+
   const { error, isLoading, handleApiCall, clearError } = useApiError();
+  // Separate state so loading the next page does not put the whole list back into its loading state
+  const {
+    error: loadMoreError,
+    isLoading: isLoadingMore,
+    handleApiCall: handleLoadMoreCall,
+    clearError: clearLoadMoreError,
+  } = useApiError();
 
   const loadTenants = useCallback(async (buildingId?: number) => {
     const result = await handleApiCall(
       async () => {
         let tenantsData: Tenant[];
+        let cursor: string | null = null;
         
         if (buildingId) {
           tenantsData = await tenantService.getTenantsByBuilding(buildingId);
         } else {
-          tenantsData = await tenantService.getTenants();
+          // First page only; the rest is fetched on demand through loadMoreTenants
+          const page = await tenantService.getTenantsPage();
+          tenantsData = page.items;
+          cursor = page.hasMore ? page.nextCursor : null;
         }
 
-        const statsData = await tenantService.getTenantStats();
-        return { tenants: tenantsData, stats: statsData };
+        return { tenants: tenantsData, cursor };
       },
       {
         onSuccess: (data) => {
           setTenants(data.tenants);
-          setStats(data.stats);
+          setNextCursor(data.cursor);
         }
       }
     );
     return result;
   }, [handleApiCall]);
 
+  const loadMoreTenants = useCallback(async () => {
+    if (!nextCursor) {
+      return null;
+    }
+    const result = await handleLoadMoreCall(
+      () => tenantService.getTenantsPage(nextCursor),
+      {
+        onSuccess: (page) => {
+          setTenants(prev => [...prev, ...page.items]);
+          setNextCursor(page.hasMore ? page.nextCursor : null);
+        }
+      }
+    );
+    return result;
+  }, [handleLoadMoreCall, nextCursor]);
+
+  const clearErrors = useCallback(() => {
+    clearError();
+    clearLoadMoreError();
+  }, [clearError, clearLoadMoreError]);
+
   const getTenantProfile = useCallback(async () => {
     const result = await handleApiCall(
       () => tenantService.getTenantProfile()
@@ -84,13 +123,16 @@ export const useTenants = () => {
   return {
     tenants,
     stats,
-    error,
+    error: error || loadMoreError,
     isLoading,
+    isLoadingMore,
+    hasMore: nextCursor !== null,
     loadTenants,
+    loadMoreTenants,
     getTenantProfile,
     updateTenant,
     validateRoomCode,
     registerTenant,
-    clearError,
+    clearError: clearErrors,
   };
 };
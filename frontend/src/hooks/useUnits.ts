@@ -1,54 +1,83 @@
-import { useState, useEffect, useCallback } from 'react';
+import { useState, useEffect, useCallback, useMemo } from 'react';
 import { unitService } from '../services/unit';
 import { useApiError } from './useApiError';
 import type { Unit, UnitFilters } from '../types/unit';
 
 export const useUnits = (filters?: UnitFilters) => {
   const [units, setUnits] = useState<Unit[]>([]);
-  const [stats, setStats] = useState({
-    totalUnits: 0,
-    occupiedUnits: 0,
-    vacantUnits: 0,
-    maintenanceUnits: 0,
-    totalRevenue: 0,
-    averageRent: 0,
-  });
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  // Filters of the last load, applied to every page loaded after it
+  const [activeFilters, setActiveFilters] = useState<UnitFilters | undefined>(filters);
+
+  // Calculated over the units loaded so far, so they grow as more pages come in
+  const stats = useMemo(() => {
+    const totalUnits = units.length;
+    const occupiedUnits = units.filter(unit => !unit.isAvailable).length;
+    const vacantUnits = units.filter(unit => unit.isAvailable).length;
+    const totalRevenue = units
+      .filter(unit => !unit.isAvailable)
+      .reduce((sum, unit) => sum + unit.monthlyRent, 0);
+    const averageRent = totalUnits > 0 
+      ? units.reduce((sum, unit) => sum + unit.monthlyRent, 0) / totalUnits 
+      : 0;
+
+    return {
+      totalUnits,
+      occupiedUnits,
+      vacantUnits,
+      maintenanceUnits: 0, // This would need to come from unit status field
+      totalRevenue,
+      averageRent,
+    };
+  }, [units]);
   
   const { error, isLoading, handleApiCall, clearError } = useApiError();
+  // Separate state so loading the next page does not put the whole list back into its loading state
+  const {
+    error: loadMoreError,
+    isLoading: isLoadingMore,
+    handleApiCall: handleLoadMoreCall,
+    clearError: clearLoadMoreError,
+  } = useApiError();
 
   const loadUnits = useCallback(async (currentFilters?: UnitFilters) => {
     const filtersToUse = currentFilters || filters;
+    // First page only; the rest is fetched on demand through loadMoreUnits
     const result = await handleApiCall(
-      () => unitService.getUnits(filtersToUse),
+      () => unitService.getUnitsPage(),
       {
-        onSuccess: (unitsData) => {
-          setUnits(unitsData);
-          
-          // Calculate stats from loaded units
-          const totalUnits = unitsData.length;
-          const occupiedUnits = unitsData.filter(unit => !unit.isAvailable).length;
-          const vacantUnits = unitsData.filter(unit => unit.isAvailable).length;
-          const totalRevenue = unitsData
-            .filter(unit => !unit.isAvailable)
-            .reduce((sum, unit) => sum + unit.monthlyRent, 0);
-          const averageRent = totalUnits > 0 
-            ? unitsData.reduce((sum, unit) => sum + unit.monthlyRent, 0) / totalUnits 
-            : 0;
-
-          setStats({
-            totalUnits,
-            occupiedUnits,
-            vacantUnits,
-            maintenanceUnits: 0, // This would need to come from unit status field
-            totalRevenue,
-            averageRent,
-          });
+        onSuccess: (page) => {
+          setUnits(filtersToUse ? unitService.filterUnits(page.items, filtersToUse) : page.items);
+          setNextCursor(page.hasMore ? page.nextCursor : null);
+          setActiveFilters(filtersToUse);
         }
       }
     );
     return result;
   }, [handleApiCall, filters]);
 
+  const loadMoreUnits = useCallback(async () => {
+    if (!nextCursor) {
+      return null;
+    }
+    const result = await handleLoadMoreCall(
+      () => unitService.getUnitsPage(nextCursor),
+      {
+        onSuccess: (page) => {
+          const pageUnits = activeFilters ? unitService.filterUnits(page.items, activeFilters) : page.items;
+          setUnits(prev => [...prev, ...pageUnits]);
+          setNextCursor(page.hasMore ? page.nextCursor : null);
+        }
+      }
+    );
+    return result;
+  }, [handleLoadMoreCall, nextCursor, activeFilters]);
+
+  const clearErrors = useCallback(() => {
+    clearError();
+    clearLoadMoreError();
+  }, [clearError, clearLoadMoreError]);
+
   const createUnit = useCallback(async (unitData: any) => {
     const result = await handleApiCall(
       () => unitService.createUnit(unitData),
@@ -133,9 +162,12 @@ export const useUnits = (filters?: UnitFilters) => {
     units,
     stats,
     isLoading,
-    error,
-    clearError,
+    isLoadingMore,
+    hasMore: nextCursor !== null,
+    error: error || loadMoreError,
+    clearError: clearErrors,
     loadUnits,
+    loadMoreUnits,
     createUnit,
     updateUnit,
     deleteUnit,
@@ -2,7 +2,7 @@
 import axios from 'axios';
 import type { AxiosInstance, AxiosResponse, AxiosError } from 'axios';
 import { API_BASE_URL, STORAGE_KEYS, HTTP_STATUS, MESSAGES } from '../utils/constants';
-import type { ApiError } from '../types/api';
+import type { ApiError, CursorPage } from '../types/api';
 
 // Create axios instance with base configuration
 const apiClient: AxiosInstance = axios.create({
@@ -84,6 +84,26 @@ class ApiService {
     }
   }
 
+  // GET one page of a cursor-paginated list; no cursor means the first page
+  async getPage<T>(url: string, cursor?: string | null): Promise<CursorPage<T>> {
+    const separator = url.includes('?') ? '&' : '?';
+    const pageUrl = cursor ? `${url}${separator}cursor=${encodeURIComponent(cursor)}` : url;
+    return await this.get<CursorPage<T>>(pageUrl);
+  }
+
+  // GET every page of a cursor-paginated list. Costs one request per page: list screens
+  // should use getPage and load more on demand instead
+  async getAllPages<T>(url: string): Promise<T[]> {
+    const items: T[] = [];
+    let cursor: string | null = null;
+    do {
+      const page: CursorPage<T> = await this.getPage<T>(url, cursor);
+      items.push(...page.items);
+      cursor = page.hasMore ? page.nextCursor : null;
+    } while (cursor);
+    return items;
+  }
+
   // POST request
   async post<T, D = any>(url: string, data?: D): Promise<T> {
     try {
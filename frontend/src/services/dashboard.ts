@@ -3,12 +3,22 @@ import { apiService } from './api';
 import { API_ENDPOINTS } from '../utils/constants';
 import type { Issue, Payment } from '../types/api';
 
+// Owner KPI counters as returned by /dashboard/owner (OwnerDashboardStats)
+export interface OwnerKpis {
+  monthlyRevenue: number;
+  totalRevenue: number;
+  totalPayments: number;
+  pendingPayments: number;
+  openIssues: number;
+  totalUnits: number;
+  occupiedUnits: number;
+}
+
 export interface OwnerDashboardData {
   totalBuildings: number;
   totalUnits: number;
   occupiedUnits: number;
   availableUnits: number;
-  totalTenants: number;
   openIssues: number;
   totalRevenue: number;
   monthlyRevenue: number;
@@ -36,8 +46,8 @@ export interface BuildingDashboardData {
 
 class DashboardService {
   // Get owner dashboard summary (OWNER only)
-  async getOwnerDashboard(): Promise<OwnerDashboardData> {
-    return await apiService.get<OwnerDashboardData>(API_ENDPOINTS.DASHBOARD.OWNER);
+  async getOwnerDashboard(): Promise<OwnerKpis> {
+    return await apiService.get<OwnerKpis>(API_ENDPOINTS.DASHBOARD.OWNER);
   }
 
   // Get tenant dashboard summary (TENANT only)
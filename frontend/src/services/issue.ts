@@ -1,7 +1,7 @@
 // Issue service for API calls
 import { apiService } from './api';
 import { API_ENDPOINTS } from '../utils/constants';
-import type { Issue } from '../types/api';
+import type { CursorPage, Issue } from '../types/api';
 
 export interface IssueCreateRequest {
   title: string;
@@ -32,7 +32,12 @@ class IssueService {
 
   // Get all issues for owner's properties (OWNER only)
   async getOwnerIssues(): Promise<Issue[]> {
-    return await apiService.get<Issue[]>(API_ENDPOINTS.ISSUES.OWNER_ISSUES);
+    return await apiService.getAllPages<Issue>(API_ENDPOINTS.ISSUES.OWNER_ISSUES);
+  }
+
+  // Get one page of issues for owner's properties, newest first (OWNER only)
+  async getOwnerIssuesPage(cursor?: string | null): Promise<CursorPage<Issue>> {
+    return await apiService.getPage<Issue>(API_ENDPOINTS.ISSUES.OWNER_ISSUES, cursor);
   }
 
   // Get issues for a specific building (OWNER only)
@@ -80,32 +85,6 @@ class IssueService {
   async updateIssue(id: number, data: IssueUpdateRequest): Promise<Issue> {
     return await apiService.put<Issue>(API_ENDPOINTS.ISSUES.BY_ID(id), data);
   }
-
-  // Get issue statistics for owner
-  async getIssueStats(): Promise<{
-    total: number;
-    open: number;
-    inProgress: number;
-    resolved: number;
-    urgent: number;
-  }> {
-    try {
-      const issues = await this.getOwnerIssues();
-      
-      return {
-        total: issues.length,
-        open: issues.filter(issue => issue.status === 'OPEN').length,
-        inProgress: issues.filter(issue => issue.status === 'IN_PROGRESS').length,
-        resolved: issues.filter(issue => issue.status === 'RESOLVED').length,
-        urgent: issues.filter(issue => 
-          issue.priority === 'URGENT' || issue.priority === 'EMERGENCY'
-        ).length,
-      };
-    } catch (error) {
-      console.error('Failed to get issue stats:', error);
-      return { total: 0, open: 0, inProgress: 0, resolved: 0, urgent: 0 };
-    }
-  }
 }
 
 export const issueService = new IssueService();
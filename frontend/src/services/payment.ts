@@ -1,7 +1,7 @@
 // Payment service for API calls
 import { apiService } from './api';
 import { API_ENDPOINTS } from '../utils/constants';
-import type { Payment } from '../types/api';
+import type { CursorPage, Payment } from '../types/api';
 
 export interface PaymentCreateRequest {
   amount: number;
@@ -21,6 +21,11 @@ class PaymentService {
     return await apiService.get<Payment[]>(API_ENDPOINTS.PAYMENTS.BASE);
   }
 
+  // Get one page of payments for owner's properties, newest first (OWNER only)
+  async getOwnerPaymentsPage(cursor?: string | null): Promise<CursorPage<Payment>> {
+    return await apiService.getPage<Payment>(API_ENDPOINTS.PAYMENTS.OWNER_PAYMENTS, cursor);
+  }
+
   // Get payment by ID (OWNER can view all, TENANT can view own)
   async getPaymentById(id: number): Promise<Payment> {
     return await apiService.get<Payment>(API_ENDPOINTS.PAYMENTS.BY_ID(id));
@@ -3,7 +3,7 @@
 import { apiService } from './api';
 import { mockTenantService } from './mockTenant';
 import { API_ENDPOINTS } from '../utils/constants';
-import type { Tenant, AuthResponse, TenantRegistrationRequest } from '../types/api';
+import type { Tenant, AuthResponse, TenantRegistrationRequest, CursorPage } from '../types/api';
 
 // Remove duplicate interface - use the one from types/api.ts
 
@@ -119,7 +119,12 @@ class TenantService {
 
   // Get all tenants for owner's buildings (OWNER only)
   async getTenants(): Promise<Tenant[]> {
-    return await apiService.get<Tenant[]>(API_ENDPOINTS.TENANTS.BASE);
+    return await apiService.getAllPages<Tenant>(API_ENDPOINTS.TENANTS.BASE);
+  }
+
+  // Get one page of tenants for owner's buildings, newest first (OWNER only)
+  async getTenantsPage(cursor?: string | null): Promise<CursorPage<Tenant>> {
+    return await apiService.getPage<Tenant>(API_ENDPOINTS.TENANTS.BASE, cursor);
   }
 
   // Get tenants by building ID (OWNER only)
@@ -194,30 +199,6 @@ class TenantService {
   async updateTenant(id: number, data: UpdateTenantRequest): Promise<Tenant> {
     return await apiService.put<Tenant>(API_ENDPOINTS.TENANTS.BY_ID(id), data);
   }
-
-  // Get tenant statistics for owner
-  async getTenantStats(): Promise<{
-    total: number;
-    active: number;
-    inactive: number;
-    recentMoveIns: number;
-  }> {
-    // This would need to be implemented by calling getTenants() and processing the data
-    // or the backend could provide a dedicated stats endpoint
-    const tenants = await this.getTenants();
-    
-    const now = new Date();
-    const thirtyDaysAgo = new Date(now.getTime() - (30 * 24 * 60 * 60 * 1000));
-    
-    return {
-      total: tenants.length,
-      active: tenants.filter(tenant => !tenant.moveOutDate).length,
-      inactive: tenants.filter(tenant => !!tenant.moveOutDate).length,
-      recentMoveIns: tenants.filter(tenant => 
-        tenant.moveInDate && new Date(tenant.moveInDate) >= thirtyDaysAgo
-      ).length,
-    };
-  }
 }
 
 export const tenantService = new TenantService();
@@ -2,7 +2,7 @@
 
 import { apiService } from './api';
 import { API_ENDPOINTS } from '../utils/constants';
-import type { Unit } from '../types/api';
+import type { CursorPage, Unit } from '../types/api';
 
 export interface CreateUnitRequest {
   unitNumber: string;
@@ -69,18 +69,27 @@ export interface RoomCodeRegenerateResponse {
   };
 }
 
+// The fields filterUnits looks at, so it accepts either Unit shape
+type FilterableUnit = Pick<Unit, 'isAvailable' | 'unitType' | 'monthlyRent' | 'bedrooms' | 'bathrooms'> & {
+  building: { id: number };
+};
+
 class UnitService {
   // Get all units with optional filters (OWNER only)
   async getUnits(filters?: UnitFilters): Promise<Unit[]> {
     // Backend doesn't support query parameters, so fetch all units and filter on frontend
-    const allUnits = await apiService.get<Unit[]>(API_ENDPOINTS.UNITS.BASE);
-    
-    if (!filters) {
-      return allUnits;
-    }
-    
-    // Apply client-side filtering
-    return allUnits.filter(unit => {
+    const allUnits = await apiService.getAllPages<Unit>(API_ENDPOINTS.UNITS.BASE);
+    return filters ? this.filterUnits(allUnits, filters) : allUnits;
+  }
+
+  // Get one page of the owner's units, newest first (OWNER only)
+  async getUnitsPage(cursor?: string | null): Promise<CursorPage<Unit>> {
+    return await apiService.getPage<Unit>(API_ENDPOINTS.UNITS.BASE, cursor);
+  }
+
+  // Client-side filtering, since the backend takes no filter parameters
+  filterUnits<U extends FilterableUnit>(units: U[], filters: UnitFilters): U[] {
+    return units.filter(unit => {
       // Building filter
       if (filters.buildingId && unit.building.id !== filters.buildingId) {
         return false;
@@ -301,6 +301,13 @@ export interface TenantDashboard {
   announcements: any[];
 }
 
+// Keyset-paginated list response
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
+
 // API Error Types
 export interface ApiError {
   timestamp: string;
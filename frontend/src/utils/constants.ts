@@ -55,6 +55,7 @@ export const API_ENDPOINTS = {
   // Payments
   PAYMENTS: {
     BASE: '/payments',
+    OWNER_PAYMENTS: '/payments/owner-payments',
     BY_ID: (id: number) => `/payments/${id}`,
     BY_TENANT: (tenantId: number) => `/payments/tenant/${tenantId}`,
     UPDATE_STATUS: (id: number) => `/payments/${id}/status`,